@@ -0,0 +1,135 @@
+package artifacts;
+
+import config.Configuration;
+import config.Settings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes failure artifacts on a background thread: the screenshot is
+ * decoded to PNG, the page source is gzipped, and the failure goes to a
+ * text file, in one directory per failed test under one directory per run.
+ * The artifacts directory is kept within its {@link DiskBudget}.
+ *
+ * <p>The queue is bounded; when it is full, new captures are dropped rather
+ * than slowing tests down. Pending captures are written before the JVM
+ * exits.
+ */
+public final class ArtifactWriter {
+    private static final Logger LOG = LoggerFactory.getLogger(ArtifactWriter.class);
+    private static final int QUEUE_CAPACITY = 32;
+    private static final long SHUTDOWN_SECONDS = 30;
+    private static final ArtifactWriter INSTANCE = new ArtifactWriter(Configuration.getSettings());
+
+    private final boolean enabled;
+    private final Path runDir;
+    private final DiskBudget budget;
+    private final ThreadPoolExecutor executor;
+
+    private ArtifactWriter(Settings settings) {
+        this.enabled = settings.isArtifactsEnabled();
+        this.runDir = settings.getArtifactsDir()
+                .resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS")));
+        this.budget = new DiskBudget(settings.getArtifactsDir(), settings.getArtifactsDiskBudget());
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "artifact-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }, (task, pool) -> LOG.warn("Artifact queue is full, dropping failure artifacts."));
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "artifact-writer-shutdown"));
+    }
+
+    /**
+     * Gets the JVM-wide writer.
+     *
+     * @return the artifact writer
+     */
+    public static ArtifactWriter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Whether failure artifacts are captured.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a capture for writing.
+     *
+     * @param capture the capture
+     */
+    void submit(FailureCapture capture) {
+        executor.execute(() -> write(capture));
+    }
+
+    private void write(FailureCapture capture) {
+        try {
+            Path directory = newTestDirectory(capture.testId);
+            try (PrintWriter writer = new PrintWriter(
+                    Files.newBufferedWriter(directory.resolve("failure.txt"), StandardCharsets.UTF_8))) {
+                writer.println("URL: " + capture.url);
+                writer.println();
+                capture.failure.printStackTrace(writer);
+            }
+            if (capture.screenshotBase64 != null) {
+                // PNG is compressed already
+                Files.write(directory.resolve("screenshot.png"),
+                        Base64.getMimeDecoder().decode(capture.screenshotBase64));
+            }
+            if (capture.pageSource != null) {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(directory.resolve("page.html.gz")));
+                     Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+                    writer.write(capture.pageSource);
+                }
+            }
+            budget.enforce(runDir, directory);
+            LOG.info("Failure artifacts for {} written to {}", capture.testId, directory.toAbsolutePath());
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.error("Could not write failure artifacts for {}: ", capture.testId, e);
+        }
+    }
+
+    /**
+     * Creates the test's directory, numbered if the test failed more than
+     * once in this run.
+     */
+    private Path newTestDirectory(String testId) throws IOException {
+        Path directory = runDir.resolve(testId);
+        for (int attempt = 2; Files.exists(directory); attempt++) {
+            directory = runDir.resolve(testId + "-" + attempt);
+        }
+        return Files.createDirectories(directory);
+    }
+
+    private void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_SECONDS, TimeUnit.SECONDS)) {
+                LOG.warn("Gave up writing failure artifacts after {} s.", SHUTDOWN_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
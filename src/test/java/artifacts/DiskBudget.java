@@ -0,0 +1,118 @@
+package artifacts;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the artifacts directory within a size budget. Whole runs are
+ * deleted oldest first; if the current run alone is over budget, its oldest
+ * tests' artifacts go next.
+ */
+final class DiskBudget {
+    private static final Logger LOG = LoggerFactory.getLogger(DiskBudget.class);
+
+    private final Path root;
+    private final long maxBytes;
+
+    /**
+     * Instantiates a new Disk budget.
+     *
+     * @param root     the directory holding one directory per run
+     * @param maxBytes the budget
+     */
+    DiskBudget(Path root, long maxBytes) {
+        this.root = root;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Deletes artifacts until the directory is within budget, never touching
+     * the given artifacts.
+     *
+     * @param currentRun the directory of the current run
+     * @param keep       the artifacts just written
+     * @throws IOException if the directory cannot be read or cleaned
+     */
+    void enforce(Path currentRun, Path keep) throws IOException {
+        List<Path> runs = list(root);
+        long total = 0;
+        for (Path run : runs) {
+            total += sizeOf(run);
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+
+        // Run directories are named by start time, so name order is age order
+        runs.sort(Comparator.comparing(run -> run.getFileName().toString()));
+        for (Path run : runs) {
+            if (total <= maxBytes) {
+                return;
+            }
+            if (!run.equals(currentRun)) {
+                total -= delete(run);
+                LOG.info("Deleted failure artifacts of run {} to stay within the disk budget.", run.getFileName());
+            }
+        }
+
+        List<Path> tests = list(currentRun);
+        tests.sort(Comparator.comparing(DiskBudget::lastModified));
+        for (Path test : tests) {
+            if (total <= maxBytes) {
+                return;
+            }
+            if (!test.equals(keep)) {
+                total -= delete(test);
+                LOG.warn("Deleted failure artifacts of {} to stay within the disk budget.", test.getFileName());
+            }
+        }
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.filter(Files::isDirectory).collect(Collectors.toList());
+        }
+    }
+
+    private static long sizeOf(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> {
+                try {
+                    return Files.size(file);
+                } catch (IOException e) {
+                    return 0;
+                }
+            }).sum();
+        }
+    }
+
+    private static long delete(Path directory) throws IOException {
+        long size = sizeOf(directory);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+        return size;
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
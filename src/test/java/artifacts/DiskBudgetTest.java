@@ -0,0 +1,79 @@
+package artifacts;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskBudgetTest {
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("Nothing is deleted within budget")
+    void withinBudget() throws IOException {
+        Path older = artifact("2024-01-01_10-00-00", "Test.a", 400, 1);
+        Path current = artifact("2024-01-02_10-00-00", "Test.b", 400, 2);
+
+        new DiskBudget(root, 1_000).enforce(current.getParent(), current);
+
+        assertThat(older).exists();
+        assertThat(current).exists();
+    }
+
+    @Test
+    @DisplayName("Older runs are deleted first, oldest first")
+    void oldestRunsFirst() throws IOException {
+        Path oldest = artifact("2024-01-01_10-00-00", "Test.a", 400, 3);
+        Path older = artifact("2024-01-02_10-00-00", "Test.a", 400, 1);
+        Path current = artifact("2024-01-03_10-00-00", "Test.a", 400, 2);
+
+        new DiskBudget(root, 1_000).enforce(current.getParent(), current);
+
+        assertThat(oldest.getParent()).doesNotExist();
+        assertThat(older).exists();
+        assertThat(current).exists();
+    }
+
+    @Test
+    @DisplayName("An over-budget current run loses its oldest tests but keeps the new artifacts")
+    void currentRunOldestTestsFirst() throws IOException {
+        Path older = artifact("2024-01-01_10-00-00", "Test.a", 100, 1);
+        Path first = artifact("2024-01-02_10-00-00", "Test.a", 400, 2);
+        Path second = artifact("2024-01-02_10-00-00", "Test.b", 400, 3);
+        Path kept = artifact("2024-01-02_10-00-00", "Test.c", 400, 1);
+
+        new DiskBudget(root, 1_000).enforce(kept.getParent(), kept);
+
+        assertThat(older.getParent()).doesNotExist();
+        assertThat(first).doesNotExist();
+        assertThat(second).exists();
+        assertThat(kept).exists();
+    }
+
+    @Test
+    @DisplayName("A missing artifacts directory is left alone")
+    void missingRoot() throws IOException {
+        Path missing = root.resolve("missing");
+
+        new DiskBudget(missing, 0).enforce(missing.resolve("run"), missing.resolve("run/Test.a"));
+
+        assertThat(missing).doesNotExist();
+    }
+
+    /**
+     * Writes a test's artifacts directory holding one file of the given size.
+     */
+    private Path artifact(String run, String test, int bytes, long modifiedSeconds) throws IOException {
+        Path directory = Files.createDirectories(root.resolve(run).resolve(test));
+        Files.write(directory.resolve("page.html"), new byte[bytes]);
+        Files.setLastModifiedTime(directory, FileTime.fromMillis(modifiedSeconds * 1_000));
+        return directory;
+    }
+}
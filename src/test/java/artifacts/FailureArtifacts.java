@@ -0,0 +1,59 @@
+package artifacts;
+
+import instrumentation.Metrics;
+import logging.TestLogs;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Grabs a screenshot and the page source when a test fails, while the
+ * driver is still on the failing page. The test instance must implement
+ * WrapsDriver. The test thread only fetches the raw data from the driver;
+ * decoding, compressing and writing happen on the {@link ArtifactWriter}.
+ */
+public class FailureArtifacts implements AfterTestExecutionCallback {
+    private static final Logger LOG = LoggerFactory.getLogger(FailureArtifacts.class);
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        Optional<Throwable> failure = context.getExecutionException();
+        ArtifactWriter writer = ArtifactWriter.getInstance();
+        if (!failure.isPresent() || !writer.isEnabled()) {
+            return;
+        }
+        Object testInstance = context.getTestInstance().orElse(null);
+        WebDriver driver = testInstance instanceof WrapsDriver ? ((WrapsDriver) testInstance).getWrappedDriver() : null;
+        if (driver == null) {
+            LOG.debug("No driver to capture failure artifacts from.");
+            return;
+        }
+
+        long start = Metrics.start();
+        String testId = TestLogs.toTestId(context);
+        String url = grab("URL", driver::getCurrentUrl);
+        String screenshot = driver instanceof TakesScreenshot
+                ? grab("screenshot", () -> ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64)) : null;
+        String pageSource = grab("page source", driver::getPageSource);
+        Metrics.record("FailureArtifacts.capture", null, start);
+        writer.submit(new FailureCapture(testId, failure.get(), url, screenshot, pageSource));
+    }
+
+    private static String grab(String artifact, Supplier<String> driverCall) {
+        try {
+            return driverCall.get();
+        } catch (WebDriverException | UnsupportedOperationException e) {
+            LOG.warn("Could not capture {} of failed test: {}", artifact, e.getMessage());
+            return null;
+        }
+    }
+}
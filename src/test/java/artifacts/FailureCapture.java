@@ -0,0 +1,30 @@
+package artifacts;
+
+/**
+ * Raw artifacts grabbed from the driver when a test failed, not yet decoded
+ * or compressed.
+ */
+final class FailureCapture {
+    final String testId;
+    final Throwable failure;
+    final String url;
+    final String screenshotBase64;
+    final String pageSource;
+
+    /**
+     * Instantiates a new Failure capture.
+     *
+     * @param testId           the test id
+     * @param failure          what failed the test
+     * @param url              the page URL, or null
+     * @param screenshotBase64 the screenshot as the driver sent it, or null
+     * @param pageSource       the page source, or null
+     */
+    FailureCapture(String testId, Throwable failure, String url, String screenshotBase64, String pageSource) {
+        this.testId = testId;
+        this.failure = failure;
+        this.url = url;
+        this.screenshotBase64 = screenshotBase64;
+        this.pageSource = pageSource;
+    }
+}
@@ -0,0 +1,48 @@
+package benchmarks;
+
+import config.Configuration;
+import fakebrowser.FakeWebDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pageobjects.utility.BrowserUtil;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Framework overhead of BrowserUtil navigation and page-load waits against an
+ * in-process driver.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BrowserUtilBenchmark {
+    private BrowserUtil browser;
+
+    @Setup
+    public void setUp() {
+        browser = new BrowserUtil(new FakeWebDriver(),
+                Configuration.withOverrides(Collections.singletonMap("waits.mode", "POLLING")));
+    }
+
+    @Benchmark
+    public void waitForJsToLoad() {
+        browser.waitForJsToLoad();
+    }
+
+    @Benchmark
+    public void navigate() {
+        browser.navigate("/");
+    }
+}
@@ -0,0 +1,77 @@
+package benchmarks;
+
+import config.Configuration;
+import fakebrowser.FakeWebDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import pageobjects.utility.ElementUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Framework overhead of ElementUtil operations against an in-process driver.
+ * Waits poll, since the fake driver cannot run the in-browser wait script.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElementUtilBenchmark {
+    private static final By INPUT = By.cssSelector("input[name='q']");
+    private static final By MISSING = By.cssSelector("#missing");
+
+    private ElementUtil element;
+    private WebElement input;
+
+    @Setup
+    public void setUp() {
+        FakeWebDriver driver = new FakeWebDriver();
+        driver.loadHtml("<form><input type='text' name='q' value='query'></form>");
+        input = driver.findElement(INPUT);
+
+        Map<String, String> overrides = new HashMap<>();
+        overrides.put("waits.mode", "POLLING");
+        // A single probe for absence checks, so they measure the exception path rather than the timeout
+        overrides.put("timeouts.presence", "0s");
+        element = new ElementUtil(driver, Configuration.withOverrides(overrides));
+    }
+
+    @Benchmark
+    public WebElement waitForVisible() {
+        return element.waitForVisible(input);
+    }
+
+    @Benchmark
+    public void clickByLocator() {
+        element.click(INPUT);
+    }
+
+    @Benchmark
+    public void clearAndSendKeys() {
+        element.clearAndSendKeys(input, "anagram");
+    }
+
+    @Benchmark
+    public String getTextByLocator() {
+        return element.getText(INPUT);
+    }
+
+    @Benchmark
+    public boolean isVisibleMissing() {
+        return element.isVisible(MISSING);
+    }
+}
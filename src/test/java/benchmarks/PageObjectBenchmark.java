@@ -0,0 +1,58 @@
+package benchmarks;
+
+import config.Configuration;
+import fakebrowser.FakeWebDriver;
+import fakebrowser.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import pageobjects.GoogleHomePage;
+import pageobjects.GoogleSearchResultsPage;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of constructing BasePage subclasses (element binding and the page
+ * load wait) and of a full page-object flow against an in-process driver.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageObjectBenchmark {
+    private FakeWebDriver driver;
+
+    @Setup
+    public void setUp() {
+        // State setup runs on the benchmark thread, so the override reaches the pages' utilities
+        Configuration.applyOverrides(Collections.singletonMap("waits.mode", "POLLING"));
+        driver = new FakeWebDriver(Fixtures.fromClasspath("fixtures/google"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        Configuration.clearOverrides();
+    }
+
+    @Benchmark
+    public GoogleHomePage constructPage() {
+        return new GoogleHomePage(driver);
+    }
+
+    @Benchmark
+    public String searchFlow() {
+        GoogleSearchResultsPage resultsPage = new GoogleHomePage(driver).visit().googleSearch("anagram");
+        return resultsPage.getDidYouMeanText();
+    }
+}
@@ -0,0 +1,192 @@
+package config;
+
+import com.sun.management.OperatingSystemMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * How many browsers this host can run. Parallelism is the smallest of the
+ * CPU bound (cores times capacity.workers-per-core), the memory bound
+ * (available memory less the reserve, divided by the browser's footprint)
+ * and the configured pool size. While tests run, new browsers wait for admission
+ * when the host is overloaded. Remote presets are bound by their grid's
+ * capacity and the pool size instead, and wait for a free grid endpoint.
+ */
+public final class BrowserCapacity {
+    private static final Logger LOG = LoggerFactory.getLogger(BrowserCapacity.class);
+    private static final long MIN_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 2_000;
+    private static final Path MEMINFO = Paths.get("/proc/meminfo");
+    private static final String MEM_AVAILABLE = "MemAvailable:";
+
+    private BrowserCapacity() {
+    }
+
+    /**
+     * Holds the parallelism for the selected preset, computed once per JVM so
+     * JUnit and the pool agree on it.
+     */
+    private static final class Holder {
+        private static final int PARALLELISM = computeParallelism(Configuration.getSettings());
+    }
+
+    /**
+     * Gets the number of browsers to run in parallel.
+     *
+     * @return the parallelism, at least 1
+     */
+    public static int getParallelism() {
+        return Holder.PARALLELISM;
+    }
+
+    /**
+     * Computes the number of browsers of a preset this host can run.
+     *
+     * @param settings the settings naming the browser
+     * @return the parallelism, at least 1
+     */
+    static int computeParallelism(Settings settings) {
+        int poolBound = settings.getPoolMaxSize() > 0 ? settings.getPoolMaxSize() : Integer.MAX_VALUE;
+        if (settings.getGrid() != null) {
+            int gridBound = settings.getGrid().getCapacity();
+            int parallelism = Math.min(gridBound, poolBound);
+            LOG.info("Running {} remote {} sessions in parallel (grid allows {}, pool {}).", parallelism,
+                    settings.getBrowser(), gridBound,
+                    poolBound == Integer.MAX_VALUE ? "unbounded" : String.valueOf(poolBound));
+            return parallelism;
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        int cpuBound = (int) Math.max(1, Math.round(cores * settings.getWorkersPerCore()));
+        long available = getFreeMemory() - settings.getMemoryReserve();
+        int memoryBound = (int) Math.max(1, Math.min(Integer.MAX_VALUE, available / settings.getBrowserFootprint()));
+        int parallelism = Math.min(cpuBound, Math.min(memoryBound, poolBound));
+
+        LOG.info("Running {} {} sessions in parallel (CPU allows {}, memory {}, pool {}).", parallelism,
+                settings.getBrowser(), cpuBound, memoryBound,
+                poolBound == Integer.MAX_VALUE ? "unbounded" : String.valueOf(poolBound));
+        return parallelism;
+    }
+
+    /**
+     * Waits until the host can take another browser: available memory covers a
+     * footprint plus the reserve, and the load average per core is within
+     * capacity.max-load-per-core. The first session is always admitted, and
+     * after capacity.admission-timeout the browser starts anyway. Remote
+     * sessions do not load this host and are always admitted.
+     *
+     * @param settings     the settings naming the browser
+     * @param liveSessions the number of sessions already running
+     */
+    public static void awaitAdmission(Settings settings, int liveSessions) {
+        if (liveSessions == 0 || settings.getGrid() != null) {
+            return;
+        }
+        long deadline = System.nanoTime() + settings.getAdmissionTimeout().toNanos();
+        long backoff = MIN_BACKOFF_MILLIS;
+        String reason = overload(settings);
+        if (reason == null) {
+            return;
+        }
+        LOG.info("Holding back a new {} session ({} live): {}", settings.getBrowser(), liveSessions, reason);
+        long start = System.nanoTime();
+        while (reason != null) {
+            if (System.nanoTime() - deadline >= 0) {
+                LOG.warn("Starting {} session although the host is still overloaded: {}", settings.getBrowser(),
+                        reason);
+                return;
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for browser capacity.", e);
+            }
+            backoff = Math.min(MAX_BACKOFF_MILLIS, backoff * 2);
+            reason = overload(settings);
+        }
+        LOG.info("Admitted new {} session after {} ms.", settings.getBrowser(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Gets why the host cannot take another browser.
+     *
+     * @return the reason, or null if it can
+     */
+    private static String overload(Settings settings) {
+        long free = getFreeMemory();
+        if (free < settings.getBrowserFootprint() + settings.getMemoryReserve()) {
+            return "available memory " + toMegabytes(free) + " MB is below footprint plus reserve "
+                    + toMegabytes(settings.getBrowserFootprint() + settings.getMemoryReserve()) + " MB";
+        }
+        double maxLoad = settings.getMaxLoadPerCore();
+        // Negative when the platform has no load average
+        double load = ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
+        double loadPerCore = load / Runtime.getRuntime().availableProcessors();
+        if (maxLoad > 0 && load >= 0 && loadPerCore > maxLoad) {
+            return String.format("load per core %.2f is above %.2f", loadPerCore, maxLoad);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the memory new browsers can use without swapping: MemAvailable
+     * from /proc/meminfo, which counts the page cache the kernel would give
+     * up, or the free physical memory where that is not readable.
+     *
+     * @return the available memory in bytes
+     */
+    private static long getFreeMemory() {
+        OptionalLong available = readMemAvailable();
+        return available.isPresent() ? available.getAsLong() : getFreePhysicalMemory();
+    }
+
+    private static OptionalLong readMemAvailable() {
+        if (!Files.isReadable(MEMINFO)) {
+            return OptionalLong.empty();
+        }
+        try (Stream<String> lines = Files.lines(MEMINFO)) {
+            // MemAvailable:   12345678 kB
+            return lines.filter(line -> line.startsWith(MEM_AVAILABLE))
+                    .mapToLong(line -> Long.parseLong(line.substring(MEM_AVAILABLE.length())
+                            .replace("kB", "").trim()) * 1024)
+                    .findFirst();
+        } catch (IOException | UncheckedIOException | NumberFormatException e) {
+            LOG.debug("Could not read {}: {}", MEMINFO, e.toString());
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Gets the free physical memory. It leaves out reclaimable page cache,
+     * so it understates what browsers can use; it is only the fallback for
+     * hosts without /proc/meminfo.
+     *
+     * @return the free memory in bytes, or Long.MAX_VALUE if the JVM has no
+     * physical memory figures
+     */
+    // Deprecated since Java 14 for getFreeMemorySize, which the Java 11 target does not have
+    @SuppressWarnings("deprecation")
+    private static long getFreePhysicalMemory() {
+        java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof OperatingSystemMXBean) {
+            return ((OperatingSystemMXBean) os).getFreePhysicalMemorySize();
+        }
+        // No physical memory figures on this JVM; memory never limits
+        return Long.MAX_VALUE;
+    }
+
+    private static long toMegabytes(long bytes) {
+        return bytes / (1024 * 1024);
+    }
+}
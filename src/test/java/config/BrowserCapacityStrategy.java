@@ -0,0 +1,50 @@
+package config;
+
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+
+/**
+ * Sizes JUnit's worker pool by {@link BrowserCapacity} rather than by CPU
+ * cores alone, since every worker runs a browser. Selected in
+ * junit-platform.properties with the "custom" strategy.
+ */
+public class BrowserCapacityStrategy implements ParallelExecutionConfigurationStrategy {
+    /**
+     * Extra threads JUnit may add while workers block, as in its own
+     * strategies.
+     */
+    private static final int MAX_POOL_SIZE_OFFSET = 256;
+    private static final int KEEP_ALIVE_SECONDS = 30;
+
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+        int parallelism = BrowserCapacity.getParallelism();
+        return new ParallelExecutionConfiguration() {
+            @Override
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            @Override
+            public int getMinimumRunnable() {
+                return parallelism;
+            }
+
+            @Override
+            public int getMaxPoolSize() {
+                return parallelism + MAX_POOL_SIZE_OFFSET;
+            }
+
+            @Override
+            public int getCorePoolSize() {
+                return parallelism;
+            }
+
+            @Override
+            public int getKeepAliveSeconds() {
+                return KEEP_ALIVE_SECONDS;
+            }
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BrowserCapacityTest {
+
+    @Test
+    @DisplayName("Parallelism never exceeds the pool size")
+    void poolBound() {
+        Settings fake = Configuration.withOverrides("L4", Collections.singletonMap("pool.max-size", "2"));
+
+        assertThat(BrowserCapacity.computeParallelism(fake)).isBetween(1, 2);
+    }
+
+    @Test
+    @DisplayName("Memory bound leaves at least one browser when the reserve takes everything")
+    void memoryBound() {
+        Map<String, String> overrides = new HashMap<>();
+        overrides.put("pool.max-size", "0");
+        overrides.put("capacity.reserve", "1P");
+
+        assertThat(BrowserCapacity.computeParallelism(Configuration.withOverrides("L4", overrides))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Remote presets run as many sessions as their grid allows")
+    void gridBound() {
+        Settings remote = Configuration.withOverrides("remote.chrome",
+                Collections.singletonMap("pool.max-size", "0"));
+
+        assertThat(BrowserCapacity.computeParallelism(remote)).isEqualTo(remote.getGrid().getCapacity());
+    }
+
+    @Test
+    @DisplayName("An overloaded host holds a new browser back until the admission timeout")
+    void admissionTimesOut() {
+        Map<String, String> overrides = new HashMap<>();
+        overrides.put("capacity.reserve", "1P");
+        overrides.put("capacity.admission-timeout", "300ms");
+        Settings overloaded = Configuration.withOverrides("L4", overrides);
+
+        long start = System.nanoTime();
+        BrowserCapacity.awaitAdmission(overloaded, 0);
+        Duration first = Duration.ofNanos(System.nanoTime() - start);
+        BrowserCapacity.awaitAdmission(overloaded, 3);
+        Duration held = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(first).isLessThan(Duration.ofMillis(300));
+        assertThat(held).isGreaterThanOrEqualTo(Duration.ofMillis(300)).isLessThan(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,18 @@
+package config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a test class or method on a browser preset other than the current
+ * one, e.g. {@code @BrowserPreset("local.chrome-lite")}. The preset path is
+ * relative to the "config" section of reference.conf. Methods take
+ * precedence over classes, and both over the config.tag-presets mapping.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface BrowserPreset {
+    String value();
+}
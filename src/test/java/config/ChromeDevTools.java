@@ -0,0 +1,116 @@
+package config;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Sends Chrome DevTools Protocol commands through chromedriver's
+ * {@code goog/cdp/execute} endpoint, which this Selenium version has no
+ * command for. Commands apply to the session's current window.
+ */
+final class ChromeDevTools {
+    private static final Json JSON = new Json();
+    private static final Map<WebDriver, ChromeDevTools> SESSIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final SessionId sessionId;
+    private final HttpClient client;
+
+    private ChromeDevTools(SessionId sessionId, HttpClient client) {
+        this.sessionId = sessionId;
+        this.client = client;
+    }
+
+    /**
+     * Gives a started Chrome session DevTools access, found later with
+     * {@link #of(WebDriver)}.
+     *
+     * @param driver      the Chrome session
+     * @param executor    the executor the session was started with
+     * @param httpClients the factory of the executor's HTTP clients
+     * @return the DevTools access
+     */
+    static ChromeDevTools attach(RemoteWebDriver driver, HttpCommandExecutor executor,
+                                 HttpClient.Factory httpClients) {
+        ChromeDevTools devTools = new ChromeDevTools(driver.getSessionId(),
+                httpClients.createClient(executor.getAddressOfRemoteServer()));
+        SESSIONS.put(driver, devTools);
+        return devTools;
+    }
+
+    /**
+     * Gets the DevTools access of a session.
+     *
+     * @param driver the session
+     * @return the DevTools access, or null if the session has none
+     */
+    static ChromeDevTools of(WebDriver driver) {
+        return SESSIONS.get(driver);
+    }
+
+    /**
+     * Fails every request of the session's window whose URL matches one of
+     * the patterns, whatever its scheme.
+     *
+     * @param patterns the wildcard URL patterns
+     */
+    void blockUrls(List<String> patterns) {
+        execute("Network.enable", Collections.emptyMap());
+        execute("Network.setBlockedURLs", Collections.singletonMap("urls", patterns));
+    }
+
+    /**
+     * Deletes the cookies of every origin.
+     */
+    void clearCookies() {
+        execute("Network.clearBrowserCookies", Collections.emptyMap());
+    }
+
+    /**
+     * Deletes everything an origin stored in the browser, such as
+     * localStorage, IndexedDB and caches.
+     *
+     * @param origin the origin, e.g. https://example.com:8443
+     */
+    void clearStorage(String origin) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("origin", origin);
+        params.put("storageTypes", "all");
+        execute("Storage.clearDataForOrigin", params);
+    }
+
+    private void execute(String command, Map<String, Object> params) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("cmd", command);
+        body.put("params", params);
+        HttpRequest request = new HttpRequest(HttpMethod.POST,
+                "/session/" + sessionId + "/goog/cdp/execute");
+        request.setHeader("Content-Type", "application/json; charset=utf-8");
+        request.setContent(JSON.toJson(body).getBytes(StandardCharsets.UTF_8));
+        HttpResponse response;
+        try {
+            response = client.execute(request);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not send " + command + " to the browser", e);
+        }
+        if (response.getStatus() != 200) {
+            throw new IllegalStateException(command + " failed with HTTP " + response.getStatus() + ": "
+                    + response.getContentString());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides a setting for a single test class or method, e.g.
+ * {@code @ConfigOverride(path = "timeouts.element", value = "5s")}.
+ * Paths are relative to the "config" section of reference.conf.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Repeatable(ConfigOverride.List.class)
+public @interface ConfigOverride {
+    String path();
+
+    String value();
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    @interface List {
+        ConfigOverride[] value();
+    }
+}
@@ -6,23 +6,46 @@ import io.github.bonigarcia.wdm.WebDriverManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 
 public class Configuration {
     private static final Logger LOG = LoggerFactory.getLogger(Configuration.class);
+    private static final ThreadLocal<Settings> OVERRIDES = new ThreadLocal<>();
+    private static final ConcurrentMap<String, Settings> PRESETS = new ConcurrentHashMap<>();
+
+    /**
+     * Holds the config and settings, loaded once per JVM on first use.
+     */
+    private static final class Holder {
+        // Kept unresolved so overrides reach every preset and setting that refers to the overridden path
+        private static final Config UNRESOLVED = ConfigFactory.defaultOverrides()
+                .withFallback(ConfigFactory.defaultApplication())
+                .withFallback(ConfigFactory.defaultReferenceUnresolved());
+        private static final Config ROOT = load();
+        private static final Settings SETTINGS = Settings.from(ROOT);
+
+        private static Config load() {
+            Config config = UNRESOLVED.resolve();
+            if (config.hasPath("conf")) {
+                LOG.info("Setting config to '{}'", config.getString("conf"));
+            }
+            // Sets Selenium WebDriver logger level
+            setSeleniumLoggerLevel(Level.SEVERE);
+            return config;
+        }
+    }
 
     /**
      * Gets web driver manager.
      *
      * @return the web driver manager
      */
-    public synchronized static WebDriverManager getWebDriverManager() {
-        // Sets Selenium WebDriver logger level
-        setSeleniumLoggerLevel(Level.SEVERE);
-
-        Config config = getConfig();
-
-        return new WebDriverManagerBuilder(config.getString("browser")).buildLocal();
+    public static WebDriverManager getWebDriverManager() {
+        return new WebDriverManagerBuilder(getSettings()).buildLocal();
     }
 
     /**
@@ -35,22 +58,89 @@ public class Configuration {
     }
 
     /**
-     * Gets config.
+     * Gets the settings for the current thread: the per-test overrides if
+     * any are applied, otherwise the JVM-wide snapshot.
+     *
+     * @return the settings
+     */
+    public static Settings getSettings() {
+        Settings overridden = OVERRIDES.get();
+        return overridden != null ? overridden : Holder.SETTINGS;
+    }
+
+    /**
+     * Applies setting overrides for the current thread until
+     * {@link #clearOverrides()} is called.
      *
-     * @return the config
+     * @param overrides values keyed by path relative to the "config" section
      */
-    private static Config getConfig() {
-        Config config = ConfigFactory.load();
+    public static void applyOverrides(Map<String, String> overrides) {
+        applyOverrides(null, overrides);
+    }
 
-        if (config.hasPath("conf")) {
-            String conf = config.getString("conf");
-            LOG.info("Setting config to '{}'", conf);
-            config = config.getConfig(conf);
+    /**
+     * Selects a browser preset and applies setting overrides for the current
+     * thread until {@link #clearOverrides()} is called.
+     *
+     * @param preset    the preset path relative to the "config" section, or
+     *                  null for the selected preset
+     * @param overrides values keyed by path relative to the "config" section
+     */
+    public static void applyOverrides(String preset, Map<String, String> overrides) {
+        if (preset == null && overrides.isEmpty()) {
+            OVERRIDES.remove();
         } else {
-            config = config.getConfig("config.current");
+            OVERRIDES.set(withOverrides(preset, overrides));
+        }
+    }
+
+    /**
+     * Resolves settings with the given overrides applied on top of the
+     * JVM-wide config, without installing them for the current thread.
+     *
+     * @param overrides values keyed by path relative to the "config" section
+     * @return the settings
+     */
+    public static Settings withOverrides(Map<String, String> overrides) {
+        return withOverrides(null, overrides);
+    }
+
+    /**
+     * Resolves settings for a browser preset with the given overrides
+     * applied on top of the JVM-wide config, without installing them for the
+     * current thread. Overrides are applied before substitutions are
+     * resolved, so overriding e.g. "local.chrome.page-load-strategy" also
+     * changes every preset that refers to local.chrome.
+     *
+     * @param preset    the preset path relative to the "config" section, or
+     *                  null for the selected preset
+     * @param overrides values keyed by path relative to the "config" section
+     * @return the settings
+     */
+    public static Settings withOverrides(String preset, Map<String, String> overrides) {
+        if (overrides.isEmpty()) {
+            return preset == null ? Holder.SETTINGS
+                    : PRESETS.computeIfAbsent(preset, key -> Settings.from(Holder.ROOT, key));
         }
+        Map<String, String> paths = new HashMap<>();
+        overrides.forEach((path, value) -> paths.put("config." + path, value));
+        return Settings.from(ConfigFactory.parseMap(paths).withFallback(Holder.UNRESOLVED).resolve(), preset);
+    }
 
-        return config;
+    /**
+     * Clears setting overrides for the current thread.
+     */
+    public static void clearOverrides() {
+        OVERRIDES.remove();
+    }
+
+    /**
+     * Gets the name of the selected browser preset.
+     *
+     * @return the preset config path
+     */
+    public static String getPresetName() {
+        return getSettings().getPresetName();
     }
 
     /**
@@ -59,7 +149,6 @@ public class Configuration {
      * @return the base url
      */
     public static String getBaseUrl() {
-        Config config = ConfigFactory.load();
-        return config.getString("config.baseurl");
+        return getSettings().getBaseUrl();
     }
 }
@@ -0,0 +1,64 @@
+package config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConfigurationTest {
+
+    @AfterEach
+    void clearOverrides() {
+        Configuration.clearOverrides();
+    }
+
+    @Test
+    @DisplayName("Presets without overrides are resolved once and shared")
+    void presetsAreShared() {
+        Settings fake = Configuration.withOverrides("L4", Collections.emptyMap());
+
+        assertThat(fake.getBrowser()).isEqualTo("Fake");
+        assertThat(fake.getFixtures()).isEqualTo("fixtures/google");
+        assertThat(Configuration.withOverrides("L4", Collections.emptyMap())).isSameAs(fake);
+    }
+
+    @Test
+    @DisplayName("Overrides reach the presets that refer to the overridden path")
+    void overridesResolveThroughPresets() {
+        Settings fake = Configuration.withOverrides("L4",
+                Collections.singletonMap("local.fake.fixtures", "fixtures/other"));
+
+        assertThat(fake.getPresetName()).isEqualTo("config.L4");
+        assertThat(fake.getFixtures()).isEqualTo("fixtures/other");
+    }
+
+    @Test
+    @DisplayName("Only launch settings keep sessions apart in the pool")
+    void sessionKeys() {
+        String key = Configuration.withOverrides("L4", Collections.emptyMap()).getSessionKey();
+
+        assertThat(Configuration.withOverrides("L4", Collections.singletonMap("timeouts.element", "3s"))
+                .getSessionKey()).isEqualTo(key);
+        assertThat(Configuration.withOverrides("L4", Collections.singletonMap("local.fake.fixtures", "fixtures/other"))
+                .getSessionKey()).isNotEqualTo(key);
+    }
+
+    @Test
+    @DisplayName("Applied overrides are seen by the calling thread only")
+    void overridesArePerThread() {
+        Duration jvmWide = Configuration.getSettings().getElementTimeout();
+
+        Configuration.applyOverrides(Collections.singletonMap("timeouts.element", "3s"));
+
+        assertThat(Configuration.getSettings().getElementTimeout()).isEqualTo(Duration.ofSeconds(3));
+        assertThat(CompletableFuture.supplyAsync(() -> Configuration.getSettings().getElementTimeout()).join())
+                .isEqualTo(jvmWide);
+        Configuration.clearOverrides();
+        assertThat(Configuration.getSettings().getElementTimeout()).isEqualTo(jvmWide);
+    }
+}
@@ -0,0 +1,131 @@
+package config;
+
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One browser's use of a slot of a preset's disk cache. Browsers corrupt a
+ * cache directory they share, so each slot is a subdirectory used by one
+ * session at a time, across every JVM on the host: a file lock next to it
+ * is held while it is leased. A slot keeps its cache for the next session
+ * that leases it.
+ */
+final class DiskCacheLease {
+    private static final Logger LOG = LoggerFactory.getLogger(DiskCacheLease.class);
+    private static final ConcurrentMap<WebDriver, DiskCacheLease> LEASES = new ConcurrentHashMap<>();
+    /**
+     * Slots leased in this JVM. Their lock files must not be opened again:
+     * closing any channel to a file drops the process's lock on it.
+     */
+    private static final Set<Path> HELD = ConcurrentHashMap.newKeySet();
+
+    private final Path directory;
+    private final FileChannel channel;
+    private final FileLock lock;
+
+    private DiskCacheLease(Path directory, FileChannel channel, FileLock lock) {
+        this.directory = directory;
+        this.channel = channel;
+        this.lock = lock;
+    }
+
+    /**
+     * Leases the first free slot of a disk cache, adding one if all are in
+     * use.
+     *
+     * @param parent the preset's disk cache directory
+     * @return the lease; {@link #attach(WebDriver) attach} it to the started
+     * session or {@link #release()} it
+     */
+    static DiskCacheLease acquire(Path parent) {
+        try {
+            Files.createDirectories(parent);
+            for (int slot = 0; ; slot++) {
+                Path directory = parent.resolve("session-" + slot);
+                if (!HELD.add(directory)) {
+                    continue;
+                }
+                FileChannel channel = null;
+                try {
+                    channel = FileChannel.open(parent.resolve("session-" + slot + ".lock"),
+                            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                    FileLock lock = channel.tryLock();
+                    if (lock != null) {
+                        return new DiskCacheLease(Files.createDirectories(directory), channel, lock);
+                    }
+                    // Leased by another JVM
+                    channel.close();
+                    HELD.remove(directory);
+                } catch (IOException | RuntimeException e) {
+                    if (channel != null) {
+                        channel.close();
+                    }
+                    HELD.remove(directory);
+                    throw e;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not lease browser cache directory under " + parent, e);
+        }
+    }
+
+    /**
+     * Releases the cache slot of a session when it quits. Sessions without
+     * one are ignored.
+     *
+     * @param driver the quitting session
+     */
+    static void releaseFor(WebDriver driver) {
+        DiskCacheLease lease = LEASES.remove(driver);
+        if (lease != null) {
+            lease.release();
+        }
+    }
+
+    /**
+     * Gets the slot's cache directory.
+     *
+     * @return the absolute directory
+     */
+    Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Keeps the slot leased until the session is passed to
+     * {@link #releaseFor(WebDriver)}.
+     *
+     * @param driver the session using the slot
+     * @return the same session
+     */
+    <T extends WebDriver> T attach(T driver) {
+        LEASES.put(driver, this);
+        return driver;
+    }
+
+    /**
+     * Frees the slot for the next session.
+     */
+    void release() {
+        try {
+            lock.release();
+            channel.close();
+        } catch (IOException e) {
+            LOG.debug("Ignoring failure while releasing browser cache {}: {}", directory, e.toString());
+        } finally {
+            HELD.remove(directory);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package config;
+
+import com.typesafe.config.ConfigException;
+import fakebrowser.FakeWebDriver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.Dimension;
+
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiskCacheLeaseTest {
+
+    @Test
+    @DisplayName("Concurrent sessions get their own cache slot")
+    void slotsAreExclusive(@TempDir Path cache) {
+        DiskCacheLease first = DiskCacheLease.acquire(cache);
+        DiskCacheLease second = DiskCacheLease.acquire(cache);
+        try {
+            assertThat(first.getDirectory()).isEqualTo(cache.resolve("session-0")).isDirectory();
+            assertThat(second.getDirectory()).isEqualTo(cache.resolve("session-1")).isDirectory();
+        } finally {
+            first.release();
+            second.release();
+        }
+    }
+
+    @Test
+    @DisplayName("A quitting session frees its slot for the next one")
+    void releasedSlotIsReused(@TempDir Path cache) {
+        FakeWebDriver driver = DiskCacheLease.acquire(cache).attach(new FakeWebDriver());
+
+        DiskCacheLease.releaseFor(driver);
+        DiskCacheLease next = DiskCacheLease.acquire(cache);
+        try {
+            assertThat(next.getDirectory()).isEqualTo(cache.resolve("session-0"));
+        } finally {
+            next.release();
+        }
+    }
+
+    @Test
+    @DisplayName("Headless presets set a fixed viewport, launch flags and a shared cache")
+    void headlessPresets() {
+        Settings chrome = Configuration.withOverrides("local.chrome-headless", Collections.emptyMap());
+        Settings firefox = Configuration.withOverrides("local.firefox-headless", Collections.emptyMap());
+
+        assertThat(chrome.isHeadless()).isTrue();
+        assertThat(chrome.getWindowSize()).isEqualTo(new Dimension(1366, 768));
+        assertThat(chrome.getArguments()).contains("--disable-background-timer-throttling");
+        assertThat(chrome.getDiskCacheDir()).isAbsolute();
+        assertThat(chrome.getDiskCacheDir().endsWith(Path.of("target", "browser-cache", "chrome"))).isTrue();
+        assertThat(firefox.isHeadless()).isTrue();
+        assertThat(firefox.getPrefs()).containsEntry("layers.acceleration.disabled", true);
+    }
+
+    @Test
+    @DisplayName("Window sizes must be WIDTHxHEIGHT")
+    void badWindowSize() {
+        assertThatThrownBy(() -> Configuration.withOverrides("local.chrome-headless",
+                Collections.singletonMap("local.chrome-headless.window-size", "1366")))
+                .isInstanceOf(ConfigException.BadValue.class);
+    }
+}
@@ -0,0 +1,140 @@
+package config;
+
+import instrumentation.Metrics;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts browsers without global locking. Driver binaries are resolved once
+ * per browser, and at most a configured number of browsers start at the
+ * same time.
+ */
+public final class DriverProvisioner {
+    private static final Logger LOG = LoggerFactory.getLogger(DriverProvisioner.class);
+    private static final DriverProvisioner INSTANCE =
+            new DriverProvisioner(Configuration.getSettings().getMaxConcurrentStarts());
+
+    private final ConcurrentMap<String, CompletableFuture<Void>> resolved = new ConcurrentHashMap<>();
+    private final Semaphore starts;
+    private final ExecutorService executor;
+
+    /**
+     * Instantiates a new Driver provisioner.
+     *
+     * @param maxConcurrentStarts the maximum number of browsers starting at once
+     */
+    DriverProvisioner(int maxConcurrentStarts) {
+        this.starts = new Semaphore(Math.max(1, maxConcurrentStarts));
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "driver-provisioner-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the JVM-wide provisioner.
+     *
+     * @return the driver provisioner
+     */
+    public static DriverProvisioner getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts a browser for the given settings on the calling thread.
+     *
+     * @param settings the settings naming the browser
+     * @return the web driver
+     */
+    public WebDriver create(Settings settings) {
+        WebDriverManagerBuilder builder = new WebDriverManagerBuilder(settings);
+        if (builder.isRemote()) {
+            // Remote starts do not load this host; grid endpoints limit them instead
+            long start = System.nanoTime();
+            WebDriver driver = Metrics.instrument(builder.createRemote());
+            LOG.info("Started {} remotely in {} ms.", settings.getBrowser(), (System.nanoTime() - start) / 1_000_000);
+            return driver;
+        }
+        if (builder.requiresDriverBinary()) {
+            try {
+                resolve(settings.getBrowser(), builder).join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        try {
+            starts.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to start a browser.", e);
+        }
+        try {
+            long start = System.nanoTime();
+            WebDriver driver = Metrics.instrument(builder.createLocal());
+            LOG.info("Started {} in {} ms.", settings.getBrowser(), (System.nanoTime() - start) / 1_000_000);
+            return driver;
+        } finally {
+            starts.release();
+        }
+    }
+
+    /**
+     * Starts a browser for the given settings in the background.
+     *
+     * @param settings the settings naming the browser
+     * @return the future web driver
+     */
+    public CompletableFuture<WebDriver> createAsync(Settings settings) {
+        return CompletableFuture.supplyAsync(() -> create(settings), executor);
+    }
+
+    /**
+     * Starts sessions for the preset in the background and adds them to the
+     * pool as idle sessions.
+     *
+     * @param settings the settings naming the preset
+     * @param count    the number of sessions to start
+     */
+    public void prewarm(Settings settings, int count) {
+        LOG.info("Prewarming {} '{}' sessions.", count, settings.getPresetName());
+        WebDriverPool.getInstance().prewarm(settings.getSessionKey(), count, () -> createAsync(settings));
+    }
+
+    /**
+     * Resolves the driver binary for a browser once per JVM. Concurrent
+     * callers share the same resolution.
+     */
+    private CompletableFuture<Void> resolve(String browser, WebDriverManagerBuilder builder) {
+        CompletableFuture<Void> created = new CompletableFuture<>();
+        CompletableFuture<Void> resolution = resolved.putIfAbsent(browser, created);
+        if (resolution != null) {
+            return resolution;
+        }
+        CompletableFuture.runAsync(() -> {
+            LOG.info("Resolving driver binary for {}.", browser);
+            builder.buildLocal().setup();
+        }, executor).whenComplete((ignored, e) -> {
+            if (e != null) {
+                // Forget the failure before anyone sees it, so a later call retries
+                resolved.remove(browser, created);
+                created.completeExceptionally(e);
+            } else {
+                created.complete(null);
+            }
+        });
+        return created;
+    }
+}
@@ -0,0 +1,71 @@
+package config;
+
+import fakebrowser.FakeWebDriver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DriverProvisionerTest {
+    private final Settings fake = Configuration.withOverrides("L4", Collections.emptyMap());
+    private final DriverProvisioner provisioner = new DriverProvisioner(2);
+
+    @Test
+    @DisplayName("Fake preset starts an in-memory browser serving its fixtures")
+    void createsFakeBrowser() {
+        WebDriver driver = provisioner.create(fake);
+
+        driver.get("https://www.google.com/");
+
+        assertThat(driver).isInstanceOf(FakeWebDriver.class);
+        assertThat(driver.getTitle()).isEqualTo("Google");
+    }
+
+    @Test
+    @DisplayName("Browsers started in parallel are all distinct sessions")
+    void startsInParallel() {
+        List<CompletableFuture<WebDriver>> starts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            starts.add(provisioner.createAsync(fake));
+        }
+
+        Set<WebDriver> drivers = Collections.newSetFromMap(new IdentityHashMap<>());
+        starts.forEach(start -> drivers.add(start.join()));
+
+        assertThat(drivers).hasSize(8);
+    }
+
+    @Test
+    @DisplayName("Prewarming stops at the pool size and leases take the prewarmed sessions")
+    void prewarmFillsPool() {
+        WebDriverPool pool = new WebDriverPool(2);
+        AtomicInteger started = new AtomicInteger();
+        try {
+            pool.prewarm(fake.getSessionKey(), 5, () -> {
+                started.incrementAndGet();
+                return CompletableFuture.completedFuture(provisioner.create(fake));
+            });
+
+            WebDriver first = pool.lease(fake.getSessionKey(), () -> {
+                throw new AssertionError("prewarmed session not used");
+            });
+            WebDriver second = pool.lease(fake.getSessionKey(), () -> {
+                throw new AssertionError("prewarmed session not used");
+            });
+
+            assertThat(started).hasValue(2);
+            assertThat(first).isNotSameAs(second);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package config;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Credentials;
+import okhttp3.OkHttpClient;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * One Selenium server. It limits how many sessions run on it at once, and
+ * its sessions share one pool of keep-alive connections instead of each
+ * opening its own. Endpoints are JVM-wide per URL, compared as strings
+ * because URL.equals resolves host names; grids sharing a URL must agree
+ * on its session limit.
+ */
+final class GridEndpoint {
+    private static final Logger LOG = LoggerFactory.getLogger(GridEndpoint.class);
+    private static final long MIN_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 2_000;
+    private static final ConcurrentMap<String, GridEndpoint> ENDPOINTS = new ConcurrentHashMap<>();
+
+    private final URL url;
+    private final Semaphore slots;
+    private final int maxSessions;
+    private final HttpClient.Factory httpClients;
+
+    private GridEndpoint(URL url, RemoteGrid grid) {
+        this.url = url;
+        this.maxSessions = grid.getMaxSessionsPerEndpoint();
+        this.slots = new Semaphore(maxSessions);
+        this.httpClients = new PooledClientFactory(grid);
+    }
+
+    /**
+     * Reserves a session slot on the least busy endpoint of the grid, waiting
+     * with backoff while every endpoint is full.
+     *
+     * @param grid    the grid
+     * @param timeout how long to wait for a free slot
+     * @return the endpoint; {@link #release()} it when the session ends
+     * @throws IllegalStateException if no slot became free in time, or
+     *                               another grid uses one of the endpoints
+     *                               with a different session limit
+     */
+    static GridEndpoint acquire(RemoteGrid grid, Duration timeout) {
+        List<GridEndpoint> endpoints = grid.getEndpoints().stream()
+                .map(url -> endpointFor(url, grid))
+                .collect(Collectors.toList());
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long backoff = MIN_BACKOFF_MILLIS;
+        while (true) {
+            endpoints.sort(Comparator.comparingInt(GridEndpoint::getActiveSessions));
+            for (GridEndpoint endpoint : endpoints) {
+                if (endpoint.slots.tryAcquire()) {
+                    return endpoint;
+                }
+            }
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                throw new IllegalStateException("No grid endpoint had a free session slot within "
+                        + timeout.toMillis() + " ms: " + grid.getEndpoints());
+            }
+            LOG.debug("Every grid endpoint is full, retrying in {} ms.", backoff);
+            try {
+                TimeUnit.MILLISECONDS.sleep(Math.min(backoff, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a grid endpoint.", e);
+            }
+            backoff = Math.min(MAX_BACKOFF_MILLIS, backoff * 2);
+        }
+    }
+
+    private static GridEndpoint endpointFor(URL url, RemoteGrid grid) {
+        GridEndpoint endpoint = ENDPOINTS.computeIfAbsent(url.toExternalForm(), key -> new GridEndpoint(url, grid));
+        if (endpoint.maxSessions != grid.getMaxSessionsPerEndpoint()) {
+            throw new IllegalStateException("Grids disagree on max-sessions-per-endpoint for " + url + ": "
+                    + endpoint.maxSessions + " and " + grid.getMaxSessionsPerEndpoint());
+        }
+        return endpoint;
+    }
+
+    /**
+     * Frees the session slot reserved by {@link #acquire(RemoteGrid, Duration)}.
+     */
+    void release() {
+        slots.release();
+    }
+
+    /**
+     * Gets the Selenium server URL.
+     *
+     * @return the url
+     */
+    URL getUrl() {
+        return url;
+    }
+
+    /**
+     * Gets the HTTP client factory whose clients share this endpoint's
+     * connection pool.
+     *
+     * @return the HTTP client factory
+     */
+    HttpClient.Factory getHttpClients() {
+        return httpClients;
+    }
+
+    /**
+     * Gets the number of sessions running on this endpoint.
+     *
+     * @return the active sessions
+     */
+    int getActiveSessions() {
+        return maxSessions - slots.availablePermits();
+    }
+
+    /**
+     * Creates OkHttp clients over one connection pool, with the grid's
+     * timeouts and keep-alive.
+     */
+    private static final class PooledClientFactory implements HttpClient.Factory {
+        private final ConnectionPool pool;
+        private final RemoteGrid grid;
+
+        private PooledClientFactory(RemoteGrid grid) {
+            this.grid = grid;
+            this.pool = new ConnectionPool(grid.getIdleConnections(), grid.getKeepAlive().toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public HttpClient.Builder builder() {
+            return new HttpClient.Builder() {
+                @Override
+                public HttpClient createClient(URL url) {
+                    OkHttpClient.Builder client = new OkHttpClient.Builder()
+                            .connectionPool(pool)
+                            .followRedirects(true)
+                            .followSslRedirects(true)
+                            .proxy(proxy)
+                            .connectTimeout(connectionTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                            .readTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                            .writeTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                    String userInfo = url.getUserInfo();
+                    if (userInfo != null && !userInfo.isEmpty()) {
+                        int colon = userInfo.indexOf(':');
+                        String credentials = colon < 0 ? Credentials.basic(userInfo, "")
+                                : Credentials.basic(userInfo.substring(0, colon), userInfo.substring(colon + 1));
+                        client.authenticator((route, response) -> response.request().header("Authorization") != null
+                                ? null : response.request().newBuilder().header("Authorization", credentials).build());
+                    }
+                    return new org.openqa.selenium.remote.internal.OkHttpClient(client.build(), url);
+                }
+            }.connectionTimeout(grid.getConnectTimeout()).readTimeout(grid.getReadTimeout());
+        }
+
+        @Override
+        public void cleanupIdleClients() {
+            pool.evictAll();
+        }
+    }
+}
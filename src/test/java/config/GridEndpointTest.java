@@ -0,0 +1,57 @@
+package config;
+
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GridEndpointTest {
+    private static final Duration NO_WAIT = Duration.ofMillis(200);
+
+    @Test
+    @DisplayName("Sessions go to the least busy endpoint and wait while every endpoint is full")
+    void leastBusyEndpoint() {
+        RemoteGrid grid = grid(1, "http://spread-a.test:4444/wd/hub", "http://spread-b.test:4444/wd/hub");
+
+        GridEndpoint first = GridEndpoint.acquire(grid, NO_WAIT);
+        GridEndpoint second = GridEndpoint.acquire(grid, NO_WAIT);
+        try {
+            assertThat(second).isNotSameAs(first);
+            assertThatThrownBy(() -> GridEndpoint.acquire(grid, NO_WAIT)).isInstanceOf(IllegalStateException.class);
+            first.release();
+            assertThat(GridEndpoint.acquire(grid, NO_WAIT)).isSameAs(first);
+        } finally {
+            first.release();
+            second.release();
+        }
+    }
+
+    @Test
+    @DisplayName("Grids share the endpoint of a URL and must agree on its session limit")
+    void sharedEndpoint() {
+        String url = "http://shared.test:4444/wd/hub";
+        GridEndpoint endpoint = GridEndpoint.acquire(grid(2, url), NO_WAIT);
+        try {
+            assertThat(GridEndpoint.acquire(grid(2, url), NO_WAIT)).isSameAs(endpoint);
+            assertThat(endpoint.getActiveSessions()).isEqualTo(2);
+            endpoint.release();
+            assertThatThrownBy(() -> GridEndpoint.acquire(grid(3, url), NO_WAIT))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("max-sessions-per-endpoint");
+        } finally {
+            endpoint.release();
+        }
+    }
+
+    private static RemoteGrid grid(int maxSessions, String... endpoints) {
+        return RemoteGrid.from(ConfigFactory.parseString("max-sessions-per-endpoint = " + maxSessions
+                + ", idle-connections = 1, keep-alive = 1m, connect-timeout = 1s, read-timeout = 1s")
+                .withValue("endpoints", ConfigValueFactory.fromIterable(Arrays.asList(endpoints))));
+    }
+}
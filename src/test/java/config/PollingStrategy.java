@@ -0,0 +1,66 @@
+package config;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides how long a wait sleeps between probes of its condition.
+ * Implementations are stateless and shared between threads.
+ */
+@FunctionalInterface
+public interface PollingStrategy {
+
+    /**
+     * Gets the delay before the given probe.
+     *
+     * @param probe the probe about to run, starting at 2 for the first retry
+     * @return the delay
+     */
+    Duration delayBefore(int probe);
+
+    /**
+     * Polls on a fixed interval.
+     *
+     * @param interval the interval
+     * @return the polling strategy
+     */
+    static PollingStrategy fixed(Duration interval) {
+        return probe -> interval;
+    }
+
+    /**
+     * Multiplies the delay after every probe up to a cap, randomizing each
+     * delay by up to the jitter fraction in either direction so parallel
+     * waits do not probe in lockstep.
+     *
+     * @param initial    the delay before the first retry
+     * @param multiplier the growth factor per probe
+     * @param max        the largest delay
+     * @param jitter     the random fraction, between 0 and 1
+     * @return the polling strategy
+     */
+    static PollingStrategy exponentialBackoff(Duration initial, double multiplier, Duration max, double jitter) {
+        long initialNanos = initial.toNanos();
+        long maxNanos = max.toNanos();
+        return probe -> {
+            double delay = Math.min(maxNanos, initialNanos * Math.pow(multiplier, probe - 2));
+            if (jitter > 0) {
+                delay *= 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+            }
+            return Duration.ofNanos((long) Math.min(maxNanos, delay));
+        };
+    }
+
+    /**
+     * Runs the first few retries on a short interval, then hands over to
+     * another strategy.
+     *
+     * @param fastProbes   the number of fast retries
+     * @param fastInterval the interval of the fast retries
+     * @param then         the strategy for later retries
+     * @return the polling strategy
+     */
+    static PollingStrategy fastStart(int fastProbes, Duration fastInterval, PollingStrategy then) {
+        return probe -> probe <= fastProbes + 1 ? fastInterval : then.delayBefore(probe - fastProbes);
+    }
+}
@@ -0,0 +1,57 @@
+package config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PollingStrategyTest {
+
+    @Test
+    @DisplayName("Fixed polling always waits the interval")
+    void fixed() {
+        PollingStrategy polling = PollingStrategy.fixed(Duration.ofMillis(250));
+
+        assertThat(polling.delayBefore(2)).isEqualTo(Duration.ofMillis(250));
+        assertThat(polling.delayBefore(50)).isEqualTo(Duration.ofMillis(250));
+    }
+
+    @Test
+    @DisplayName("Backoff without jitter grows by the multiplier up to the max")
+    void backoffGrowsToMax() {
+        PollingStrategy polling = PollingStrategy.exponentialBackoff(Duration.ofMillis(10), 2,
+                Duration.ofMillis(100), 0);
+
+        assertThat(polling.delayBefore(2)).isEqualTo(Duration.ofMillis(10));
+        assertThat(polling.delayBefore(3)).isEqualTo(Duration.ofMillis(20));
+        assertThat(polling.delayBefore(5)).isEqualTo(Duration.ofMillis(80));
+        assertThat(polling.delayBefore(6)).isEqualTo(Duration.ofMillis(100));
+        assertThat(polling.delayBefore(1_000)).isEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    @DisplayName("Backoff jitter stays within its fraction and under the max")
+    void backoffJitterBounds() {
+        PollingStrategy polling = PollingStrategy.exponentialBackoff(Duration.ofMillis(100), 2,
+                Duration.ofMillis(300), 0.2);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(polling.delayBefore(2)).isBetween(Duration.ofMillis(80), Duration.ofMillis(120));
+            assertThat(polling.delayBefore(4)).isBetween(Duration.ofMillis(240), Duration.ofMillis(300));
+        }
+    }
+
+    @Test
+    @DisplayName("Fast start hands over to the next strategy after its fast probes")
+    void fastStart() {
+        PollingStrategy polling = PollingStrategy.fastStart(3, Duration.ofMillis(5),
+                PollingStrategy.exponentialBackoff(Duration.ofMillis(50), 2, Duration.ofSeconds(1), 0));
+
+        assertThat(polling.delayBefore(2)).isEqualTo(Duration.ofMillis(5));
+        assertThat(polling.delayBefore(4)).isEqualTo(Duration.ofMillis(5));
+        assertThat(polling.delayBefore(5)).isEqualTo(Duration.ofMillis(50));
+        assertThat(polling.delayBefore(6)).isEqualTo(Duration.ofMillis(100));
+    }
+}
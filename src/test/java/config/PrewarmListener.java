@@ -0,0 +1,22 @@
+package config;
+
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Starts the configured number of browser sessions as soon as the launcher
+ * session opens, so browser startup overlaps test discovery.
+ */
+public class PrewarmListener implements LauncherSessionListener {
+    private static final AtomicBoolean STARTED = new AtomicBoolean();
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        Settings settings = Configuration.getSettings();
+        if (settings.getPrewarmSessions() > 0 && STARTED.compareAndSet(false, true)) {
+            DriverProvisioner.getInstance().prewarm(settings, settings.getPrewarmSessions());
+        }
+    }
+}
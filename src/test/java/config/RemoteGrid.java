@@ -0,0 +1,118 @@
+package config;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Selenium servers a remote preset runs its sessions on. Sessions are
+ * balanced across the endpoints, and each endpoint runs a limited number at
+ * once over a pool of keep-alive connections.
+ */
+public final class RemoteGrid {
+    private final List<URL> endpoints;
+    private final int maxSessionsPerEndpoint;
+    private final int idleConnections;
+    private final Duration keepAlive;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+
+    private RemoteGrid(Config grid) {
+        List<URL> urls = new ArrayList<>();
+        for (String endpoint : grid.getStringList("endpoints")) {
+            try {
+                urls.add(new URL(endpoint));
+            } catch (MalformedURLException e) {
+                throw new ConfigException.BadValue(grid.origin(), "endpoints", "Invalid URL " + endpoint, e);
+            }
+        }
+        if (urls.isEmpty()) {
+            throw new ConfigException.BadValue(grid.origin(), "endpoints", "Expected at least one endpoint");
+        }
+        this.endpoints = Collections.unmodifiableList(urls);
+        this.maxSessionsPerEndpoint = grid.getInt("max-sessions-per-endpoint");
+        this.idleConnections = grid.getInt("idle-connections");
+        this.keepAlive = grid.getDuration("keep-alive");
+        this.connectTimeout = grid.getDuration("connect-timeout");
+        this.readTimeout = grid.getDuration("read-timeout");
+    }
+
+    /**
+     * Reads the "grid" section of a preset.
+     *
+     * @param grid the section
+     * @return the remote grid
+     */
+    static RemoteGrid from(Config grid) {
+        return new RemoteGrid(grid);
+    }
+
+    /**
+     * Gets the Selenium server URLs.
+     *
+     * @return the endpoints
+     */
+    public List<URL> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Gets the most sessions one endpoint runs at once.
+     *
+     * @return the max sessions per endpoint
+     */
+    public int getMaxSessionsPerEndpoint() {
+        return maxSessionsPerEndpoint;
+    }
+
+    /**
+     * Gets the most sessions the grid runs at once.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return endpoints.size() * maxSessionsPerEndpoint;
+    }
+
+    /**
+     * Gets the most idle keep-alive connections kept per endpoint.
+     *
+     * @return the idle connections
+     */
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    /**
+     * Gets how long an idle connection is kept open.
+     *
+     * @return the keep-alive
+     */
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Gets the timeout for opening a connection to an endpoint.
+     *
+     * @return the connect timeout
+     */
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Gets the timeout for an endpoint to answer a command.
+     *
+     * @return the read timeout
+     */
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+}
@@ -0,0 +1,39 @@
+package config;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Session on a grid endpoint that frees its slot on the endpoint when it
+ * quits.
+ */
+final class RemoteSession extends RemoteWebDriver {
+    private final GridEndpoint endpoint;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    /**
+     * Starts a session on the endpoint.
+     *
+     * @param executor     the executor sending commands to the endpoint
+     * @param capabilities the browser options
+     * @param endpoint     the endpoint, with a slot reserved for the session
+     */
+    RemoteSession(CommandExecutor executor, Capabilities capabilities, GridEndpoint endpoint) {
+        super(executor, capabilities);
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public void quit() {
+        try {
+            super.quit();
+        } finally {
+            if (released.compareAndSet(false, true)) {
+                endpoint.release();
+            }
+        }
+    }
+}
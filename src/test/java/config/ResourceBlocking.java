@@ -0,0 +1,117 @@
+package config;
+
+import com.typesafe.config.Config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resources a browser preset does not load. Resource types are disabled
+ * through browser preferences and flags, and media requests in Chrome
+ * through DevTools; URL patterns are sent to a dead proxy by a generated
+ * proxy auto-config script.
+ */
+public final class ResourceBlocking {
+    /**
+     * Where blocked requests are sent. Nothing listens on the discard port,
+     * so they fail immediately.
+     */
+    private static final String DEAD_PROXY = "PROXY 127.0.0.1:9";
+    private static final List<String> MEDIA_URLS = Collections.unmodifiableList(Arrays.asList(
+            "*.mp4", "*.m4v", "*.webm", "*.ogv", "*.mov", "*.mp3", "*.m4a", "*.aac", "*.oga", "*.ogg", "*.opus",
+            "*.wav", "*.flac", "*.m3u8", "*.mpd", "*.ts", "*.m4s"));
+
+    private final boolean images;
+    private final boolean fonts;
+    private final boolean media;
+    private final List<String> urls;
+
+    private ResourceBlocking(Config block) {
+        this.images = block.getBoolean("images");
+        this.fonts = block.getBoolean("fonts");
+        this.media = block.getBoolean("media");
+        this.urls = Collections.unmodifiableList(block.getStringList("urls"));
+    }
+
+    /**
+     * Reads the "block" section of a preset.
+     *
+     * @param block the section
+     * @return the resource blocking
+     */
+    static ResourceBlocking from(Config block) {
+        return new ResourceBlocking(block);
+    }
+
+    /**
+     * Whether images are blocked.
+     *
+     * @return true if blocked
+     */
+    public boolean blocksImages() {
+        return images;
+    }
+
+    /**
+     * Whether web fonts are blocked.
+     *
+     * @return true if blocked
+     */
+    public boolean blocksFonts() {
+        return fonts;
+    }
+
+    /**
+     * Whether audio and video are blocked.
+     *
+     * @return true if blocked
+     */
+    public boolean blocksMedia() {
+        return media;
+    }
+
+    /**
+     * Gets the URL patterns of audio and video files and streaming segments,
+     * for browsers that can block requests by URL.
+     *
+     * @return the wildcard patterns, empty if media is not blocked
+     */
+    public List<String> getMediaUrls() {
+        return media ? MEDIA_URLS : Collections.emptyList();
+    }
+
+    /**
+     * Gets the blocked URL patterns.
+     *
+     * @return the wildcard patterns
+     */
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    /**
+     * Gets a proxy auto-config script, as a data URL, that blocks the URL
+     * patterns and connects directly otherwise. Patterns are matched against
+     * both the URL and the host; for https, browsers only pass the scheme
+     * and host to the script.
+     *
+     * @return the data URL, or null if no URLs are blocked
+     */
+    public String toPacUrl() {
+        if (urls.isEmpty()) {
+            return null;
+        }
+        StringBuilder pac = new StringBuilder("function FindProxyForURL(url, host) {\n");
+        for (String pattern : urls) {
+            String literal = "'" + pattern.replace("\\", "\\\\").replace("'", "\\'") + "'";
+            pac.append("  if (shExpMatch(url, ").append(literal).append(") || shExpMatch(host, ").append(literal)
+                    .append(")) { return '").append(DEAD_PROXY).append("'; }\n");
+        }
+        pac.append("  return 'DIRECT';\n}\n");
+        return "data:application/x-ns-proxy-autoconfig;base64,"
+                + Base64.getEncoder().encodeToString(pac.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
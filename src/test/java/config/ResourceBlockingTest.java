@@ -0,0 +1,64 @@
+package config;
+
+import com.typesafe.config.ConfigFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceBlockingTest {
+    private static final String PAC_PREFIX = "data:application/x-ns-proxy-autoconfig;base64,";
+
+    @Test
+    @DisplayName("Lite presets block images, fonts, media and analytics")
+    void litePresets() {
+        ResourceBlocking blocking = Configuration.withOverrides("local.chrome-lite", Collections.emptyMap())
+                .getBlocking();
+
+        assertThat(blocking.blocksImages()).isTrue();
+        assertThat(blocking.blocksFonts()).isTrue();
+        assertThat(blocking.getMediaUrls()).contains("*.mp4", "*.m3u8");
+        assertThat(blocking.getUrls()).contains("*google-analytics.com*");
+        assertThat(Configuration.withOverrides("local.firefox-lite", Collections.emptyMap()).getBlocking())
+                .isNotNull();
+        assertThat(Configuration.withOverrides("local.chrome", Collections.emptyMap()).getBlocking()).isNull();
+    }
+
+    @Test
+    @DisplayName("Content tag runs on the Chrome lite preset")
+    void contentTag() {
+        assertThat(Configuration.withOverrides("L4", Collections.emptyMap()).getTagPresets())
+                .containsEntry("content", "local.chrome-lite");
+    }
+
+    @Test
+    @DisplayName("Proxy script sends blocked URLs and hosts to the dead proxy and the rest direct")
+    void pacScript() {
+        ResourceBlocking blocking = ResourceBlocking.from(ConfigFactory.parseString(
+                "images = false, fonts = false, media = false, urls = [\"*ads.example.com*\", \"*it's*\"]"));
+
+        String pacUrl = blocking.toPacUrl();
+        String pac = new String(Base64.getDecoder().decode(pacUrl.substring(PAC_PREFIX.length())),
+                StandardCharsets.UTF_8);
+
+        assertThat(pacUrl).startsWith(PAC_PREFIX);
+        assertThat(pac).contains("shExpMatch(url, '*ads.example.com*') || shExpMatch(host, '*ads.example.com*')")
+                .contains("'*it\\'s*'")
+                .contains("return 'PROXY 127.0.0.1:9';")
+                .endsWith("  return 'DIRECT';\n}\n");
+    }
+
+    @Test
+    @DisplayName("No proxy script and no media patterns when nothing is blocked")
+    void nothingBlocked() {
+        ResourceBlocking blocking = ResourceBlocking.from(ConfigFactory.parseString(
+                "images = true, fonts = true, media = false, urls = []"));
+
+        assertThat(blocking.toPacUrl()).isNull();
+        assertThat(blocking.getMediaUrls()).isEmpty();
+    }
+}
@@ -0,0 +1,556 @@
+package config;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigRenderOptions;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.PageLoadStrategy;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the framework configuration. Instances are safe to
+ * share between parallel workers.
+ */
+public final class Settings {
+    private final String presetName;
+    private final String sessionKey;
+    private final String browser;
+    private final String fixtures;
+    private final PageLoadStrategy pageLoadStrategy;
+    private final List<String> arguments;
+    private final Map<String, Object> prefs;
+    private final ResourceBlocking blocking;
+    private final boolean headless;
+    private final Dimension windowSize;
+    private final Path diskCacheDir;
+    private final String baseUrl;
+    private final Duration elementTimeout;
+    private final Duration presenceTimeout;
+    private final Duration pageLoadTimeout;
+    private final Duration pollingInterval;
+    private final PollingStrategy pollingStrategy;
+    private final WaitMode waitMode;
+    private final Duration networkQuietWindow;
+    private final int poolMaxSize;
+    private final long browserFootprint;
+    private final long memoryReserve;
+    private final double workersPerCore;
+    private final double maxLoadPerCore;
+    private final Duration admissionTimeout;
+    private final int maxConcurrentStarts;
+    private final int prewarmSessions;
+    private final boolean metricsEnabled;
+    private final Path metricsOutput;
+    private final Map<String, String> tagPresets;
+    private final Path durationHistory;
+    private final boolean shardingByMethod;
+    private final Path shardReports;
+    private final boolean artifactsEnabled;
+    private final Path artifactsDir;
+    private final long artifactsDiskBudget;
+    private final Duration stateCacheTtl;
+    private final boolean locatorCacheEnabled;
+    private final RemoteGrid grid;
+
+    private Settings(String presetName, Config root) {
+        Config preset = root.getConfig(presetName);
+        Config config = root.getConfig("config");
+
+        this.presetName = presetName;
+        // Every launch setting lives in the preset, so its resolved form identifies compatible sessions
+        this.sessionKey = presetName + "#"
+                + Integer.toHexString(preset.root().render(ConfigRenderOptions.concise()).hashCode());
+        this.browser = preset.getString("browser");
+        this.fixtures = preset.hasPath("fixtures") ? preset.getString("fixtures") : null;
+        this.pageLoadStrategy = preset.hasPath("page-load-strategy") ? toPageLoadStrategy(preset) : null;
+        this.arguments = preset.hasPath("arguments")
+                ? Collections.unmodifiableList(preset.getStringList("arguments")) : Collections.emptyList();
+        this.prefs = preset.hasPath("prefs")
+                ? Collections.unmodifiableMap(preset.getObject("prefs").unwrapped()) : Collections.emptyMap();
+        this.blocking = preset.hasPath("block") ? ResourceBlocking.from(preset.getConfig("block")) : null;
+        this.grid = preset.hasPath("grid") ? RemoteGrid.from(preset.getConfig("grid")) : null;
+        this.headless = preset.hasPath("headless") && preset.getBoolean("headless");
+        this.windowSize = preset.hasPath("window-size") ? toDimension(preset) : null;
+        this.diskCacheDir = preset.hasPath("disk-cache-dir")
+                ? Paths.get(preset.getString("disk-cache-dir")).toAbsolutePath() : null;
+        this.baseUrl = config.getString("baseurl");
+        this.elementTimeout = config.getDuration("timeouts.element");
+        this.presenceTimeout = config.getDuration("timeouts.presence");
+        this.pageLoadTimeout = config.getDuration("timeouts.page-load");
+        this.pollingInterval = config.getDuration("polling.interval");
+        this.pollingStrategy = toPollingStrategy(config.getConfig("polling"));
+        this.waitMode = config.getEnum(WaitMode.class, "waits.mode");
+        this.networkQuietWindow = config.getDuration("waits.network-quiet");
+        this.poolMaxSize = config.getInt("pool.max-size");
+        this.browserFootprint = toBrowserFootprint(config.getConfig("capacity.footprint"), browser);
+        this.memoryReserve = config.getBytes("capacity.reserve");
+        this.workersPerCore = config.getDouble("capacity.workers-per-core");
+        this.maxLoadPerCore = config.getDouble("capacity.max-load-per-core");
+        this.admissionTimeout = config.getDuration("capacity.admission-timeout");
+        this.maxConcurrentStarts = config.getInt("provisioning.max-concurrent-starts");
+        this.prewarmSessions = config.getInt("provisioning.prewarm");
+        this.metricsEnabled = config.getBoolean("metrics.enabled");
+        this.metricsOutput = Paths.get(config.getString("metrics.output"));
+        Map<String, String> tags = new LinkedHashMap<>();
+        config.getObject("tag-presets").unwrapped().forEach((tag, path) -> tags.put(tag, String.valueOf(path)));
+        this.tagPresets = Collections.unmodifiableMap(tags);
+        this.durationHistory = Paths.get(config.getString("execution.history"));
+        this.shardingByMethod = toShardingByMethod(config.getConfig("execution"));
+        this.shardReports = Paths.get(config.getString("execution.shard-reports"));
+        this.artifactsEnabled = config.getBoolean("artifacts.enabled");
+        this.artifactsDir = Paths.get(config.getString("artifacts.dir"));
+        this.artifactsDiskBudget = config.getBytes("artifacts.disk-budget");
+        this.stateCacheTtl = config.getDuration("state-cache.ttl");
+        this.locatorCacheEnabled = config.getBoolean("locator-cache.enabled");
+    }
+
+    /**
+     * Resolves settings from a loaded config root.
+     *
+     * @param root the root config, including the "config" section
+     * @return the settings
+     */
+    static Settings from(Config root) {
+        return from(root, null);
+    }
+
+    /**
+     * Resolves settings from a loaded config root for a browser preset.
+     *
+     * @param root   the root config, including the "config" section
+     * @param preset the preset path relative to "config", or null for the
+     *               selected preset
+     * @return the settings
+     */
+    static Settings from(Config root, String preset) {
+        String presetName;
+        if (preset != null) {
+            presetName = "config." + preset;
+        } else {
+            presetName = root.hasPath("conf") ? root.getString("conf") : "config.current";
+        }
+        return new Settings(presetName, root);
+    }
+
+    private static PageLoadStrategy toPageLoadStrategy(Config preset) {
+        PageLoadStrategy strategy = PageLoadStrategy.fromString(preset.getString("page-load-strategy"));
+        if (strategy == null) {
+            throw new ConfigException.BadValue(preset.origin(), "page-load-strategy",
+                    "Expected normal, eager or none");
+        }
+        return strategy;
+    }
+
+    private static long toBrowserFootprint(Config footprints, String browser) {
+        String key = browser.toLowerCase(Locale.ROOT);
+        return footprints.getBytes(footprints.hasPath(key) ? key : "default");
+    }
+
+    private static boolean toShardingByMethod(Config execution) {
+        switch (execution.getString("shard-by")) {
+            case "class":
+                return false;
+            case "method":
+                return true;
+            default:
+                throw new ConfigException.BadValue(execution.origin(), "shard-by", "Expected class or method");
+        }
+    }
+
+    private static Dimension toDimension(Config preset) {
+        String[] size = preset.getString("window-size").split("x");
+        try {
+            return new Dimension(Integer.parseInt(size[0].trim()), Integer.parseInt(size[1].trim()));
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new ConfigException.BadValue(preset.origin(), "window-size", "Expected WIDTHxHEIGHT", e);
+        }
+    }
+
+    private static PollingStrategy toPollingStrategy(Config polling) {
+        PollingStrategy fixed = PollingStrategy.fixed(polling.getDuration("interval"));
+        switch (polling.getString("strategy")) {
+            case "FIXED":
+                return fixed;
+            case "BACKOFF":
+                return PollingStrategy.exponentialBackoff(polling.getDuration("backoff.initial"),
+                        polling.getDouble("backoff.multiplier"), polling.getDuration("backoff.max"),
+                        polling.getDouble("backoff.jitter"));
+            case "FAST_START":
+                return PollingStrategy.fastStart(polling.getInt("fast-start.probes"),
+                        polling.getDuration("fast-start.interval"), fixed);
+            default:
+                throw new ConfigException.BadValue(polling.origin(), "strategy",
+                        "Expected FIXED, BACKOFF or FAST_START");
+        }
+    }
+
+    /**
+     * Gets the config path of the selected browser preset.
+     *
+     * @return the preset name
+     */
+    public String getPresetName() {
+        return presetName;
+    }
+
+    /**
+     * Gets the key pooled sessions started with these settings are shared
+     * under: the preset name plus a hash of its resolved launch settings, so
+     * overrides that change how a browser starts get their own sessions.
+     *
+     * @return the session key
+     */
+    public String getSessionKey() {
+        return sessionKey;
+    }
+
+    /**
+     * Gets the browser name of the selected preset.
+     *
+     * @return the browser
+     */
+    public String getBrowser() {
+        return browser;
+    }
+
+    /**
+     * Gets the classpath directory of HTML fixtures for the fake browser.
+     *
+     * @return the fixtures directory, or null if the preset has none
+     */
+    public String getFixtures() {
+        return fixtures;
+    }
+
+    /**
+     * Gets the page load strategy the browser is started with.
+     *
+     * @return the strategy, or null to use the driver default
+     */
+    public PageLoadStrategy getPageLoadStrategy() {
+        return pageLoadStrategy;
+    }
+
+    /**
+     * Gets the extra command line arguments the browser is started with.
+     *
+     * @return the arguments
+     */
+    public List<String> getArguments() {
+        return arguments;
+    }
+
+    /**
+     * Gets the browser preferences the browser is started with.
+     *
+     * @return the preferences keyed by name
+     */
+    public Map<String, Object> getPrefs() {
+        return prefs;
+    }
+
+    /**
+     * Gets the resources the browser does not load.
+     *
+     * @return the resource blocking, or null if the preset blocks nothing
+     */
+    public ResourceBlocking getBlocking() {
+        return blocking;
+    }
+
+    /**
+     * Gets the Selenium servers the preset runs on.
+     *
+     * @return the grid, or null if the preset runs local browsers
+     */
+    public RemoteGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Whether the browser starts headless.
+     *
+     * @return true if headless
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * Gets the window size the browser starts with.
+     *
+     * @return the size, or null for the browser default
+     */
+    public Dimension getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Gets the directory holding the preset's disk cache slots, each used by
+     * one local session at a time.
+     *
+     * @return the absolute directory, or null for a per-session cache
+     */
+    public Path getDiskCacheDir() {
+        return diskCacheDir;
+    }
+
+    /**
+     * Gets the base url.
+     *
+     * @return the base url
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Gets the default element wait timeout.
+     *
+     * @return the element timeout
+     */
+    public Duration getElementTimeout() {
+        return elementTimeout;
+    }
+
+    /**
+     * Gets the default timeout for presence and visibility checks.
+     *
+     * @return the presence timeout
+     */
+    public Duration getPresenceTimeout() {
+        return presenceTimeout;
+    }
+
+    /**
+     * Gets the page load timeout.
+     *
+     * @return the page load timeout
+     */
+    public Duration getPageLoadTimeout() {
+        return pageLoadTimeout;
+    }
+
+    /**
+     * Gets the wait polling interval.
+     *
+     * @return the polling interval
+     */
+    public Duration getPollingInterval() {
+        return pollingInterval;
+    }
+
+    /**
+     * Gets the default polling strategy for waits.
+     *
+     * @return the polling strategy
+     */
+    public PollingStrategy getPollingStrategy() {
+        return pollingStrategy;
+    }
+
+    /**
+     * Gets how waits detect that their condition holds.
+     *
+     * @return the wait mode
+     */
+    public WaitMode getWaitMode() {
+        return waitMode;
+    }
+
+    /**
+     * Gets how long no resource may finish loading before the network
+     * counts as quiet.
+     *
+     * @return the quiet window
+     */
+    public Duration getNetworkQuietWindow() {
+        return networkQuietWindow;
+    }
+
+    /**
+     * Gets the maximum number of pooled sessions, or 0 to derive it from
+     * JUnit parallelism.
+     *
+     * @return the pool max size
+     */
+    public int getPoolMaxSize() {
+        return poolMaxSize;
+    }
+
+    /**
+     * Gets the memory one session of the preset's browser is expected to
+     * use.
+     *
+     * @return the footprint in bytes
+     */
+    public long getBrowserFootprint() {
+        return browserFootprint;
+    }
+
+    /**
+     * Gets the memory kept free for everything but the browsers.
+     *
+     * @return the reserve in bytes
+     */
+    public long getMemoryReserve() {
+        return memoryReserve;
+    }
+
+    /**
+     * Gets the number of parallel workers per CPU core.
+     *
+     * @return the workers per core
+     */
+    public double getWorkersPerCore() {
+        return workersPerCore;
+    }
+
+    /**
+     * Gets the load average per core above which new browsers wait, or 0
+     * to ignore load.
+     *
+     * @return the max load per core
+     */
+    public double getMaxLoadPerCore() {
+        return maxLoadPerCore;
+    }
+
+    /**
+     * Gets the longest a new browser waits for the host to recover.
+     *
+     * @return the admission timeout
+     */
+    public Duration getAdmissionTimeout() {
+        return admissionTimeout;
+    }
+
+    /**
+     * Gets the maximum number of browsers allowed to start at the same time.
+     *
+     * @return the max concurrent starts
+     */
+    public int getMaxConcurrentStarts() {
+        return maxConcurrentStarts;
+    }
+
+    /**
+     * Gets the number of sessions to start in the background during test
+     * discovery.
+     *
+     * @return the prewarm session count
+     */
+    public int getPrewarmSessions() {
+        return prewarmSessions;
+    }
+
+    /**
+     * Whether driver and utility latencies are recorded.
+     *
+     * @return true if metrics are enabled
+     */
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    /**
+     * Gets the directory the latency summary is written to.
+     *
+     * @return the metrics output directory
+     */
+    public Path getMetricsOutput() {
+        return metricsOutput;
+    }
+
+    /**
+     * Gets the browser presets for JUnit tags, relative to "config".
+     *
+     * @return the preset paths keyed by tag
+     */
+    public Map<String, String> getTagPresets() {
+        return tagPresets;
+    }
+
+    /**
+     * Gets the file test durations are recorded in.
+     *
+     * @return the history file
+     */
+    public Path getDurationHistory() {
+        return durationHistory;
+    }
+
+    /**
+     * Whether shards split individual test methods rather than whole
+     * classes.
+     *
+     * @return true to shard by method
+     */
+    public boolean isShardingByMethod() {
+        return shardingByMethod;
+    }
+
+    /**
+     * Gets the directory per-shard reports are written to.
+     *
+     * @return the report directory
+     */
+    public Path getShardReports() {
+        return shardReports;
+    }
+
+    /**
+     * Whether failed tests leave a screenshot and page source.
+     *
+     * @return true if artifacts are captured
+     */
+    public boolean isArtifactsEnabled() {
+        return artifactsEnabled;
+    }
+
+    /**
+     * Gets the directory failure artifacts are written to.
+     *
+     * @return the artifacts directory
+     */
+    public Path getArtifactsDir() {
+        return artifactsDir;
+    }
+
+    /**
+     * Gets the most disk space failure artifacts may take across runs.
+     *
+     * @return the budget in bytes
+     */
+    public long getArtifactsDiskBudget() {
+        return artifactsDiskBudget;
+    }
+
+    /**
+     * Gets how long captured browser state is restored before its setup flow
+     * is replayed.
+     *
+     * @return the state cache TTL
+     */
+    public Duration getStateCacheTtl() {
+        return stateCacheTtl;
+    }
+
+    /**
+     * Whether ElementUtil reuses elements found by a locator within the same
+     * document.
+     *
+     * @return true if the locator cache is enabled
+     */
+    public boolean isLocatorCacheEnabled() {
+        return locatorCacheEnabled;
+    }
+}
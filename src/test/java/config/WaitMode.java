@@ -0,0 +1,16 @@
+package config;
+
+/**
+ * How element and page waits detect that their condition holds.
+ */
+public enum WaitMode {
+    /**
+     * An async script in the browser resolves as soon as the condition holds,
+     * falling back to polling when the condition cannot be evaluated there.
+     */
+    EVENT,
+    /**
+     * The client polls the condition on the configured interval.
+     */
+    POLLING
+}
@@ -1,17 +1,69 @@
 package config;
 
+import fakebrowser.FakeWebDriver;
+import fakebrowser.Fixtures;
 import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.Proxy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.safari.SafariDriver;
+import org.openqa.selenium.safari.SafariOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 public class WebDriverManagerBuilder {
+    private static final Logger LOG = LoggerFactory.getLogger(WebDriverManagerBuilder.class);
+    private static final String FAKE = "Fake";
+
+    private final Settings settings;
     private final String browserName;
 
     /**
      * Instantiates a new Web Driver Manager builder.
      *
-     * @param browserName the browser name
+     * @param settings the settings naming the browser preset
+     */
+    public WebDriverManagerBuilder(Settings settings) {
+        this.settings = settings;
+        this.browserName = settings.getBrowser();
+    }
+
+    /**
+     * Whether the browser needs a driver binary resolved with
+     * {@link #buildLocal()} before it can start.
+     *
+     * @return true unless the browser is the in-memory fake or runs remotely
+     */
+    public boolean requiresDriverBinary() {
+        return !FAKE.equals(browserName) && !isRemote();
+    }
+
+    /**
+     * Whether the preset runs on a Selenium server, started with
+     * {@link #createRemote()}.
+     *
+     * @return true if the preset has a grid
      */
-    public WebDriverManagerBuilder(String browserName) {
-        this.browserName = browserName;
+    public boolean isRemote() {
+        return settings.getGrid() != null;
     }
 
     /**
@@ -19,7 +71,7 @@ public class WebDriverManagerBuilder {
      *
      * @return the web driver manager
      */
-    public synchronized WebDriverManager buildLocal() {
+    public WebDriverManager buildLocal() {
         switch (browserName) {
             case "Chrome":
             default:
@@ -31,6 +83,258 @@ public class WebDriverManagerBuilder {
                 return WebDriverManager.firefoxdriver();
             case "Safari":
                 return WebDriverManager.safaridriver();
+            case FAKE:
+                throw new IllegalStateException("The fake browser has no driver binary.");
+        }
+    }
+
+    /**
+     * Starts a local browser. The driver binary must already have been
+     * resolved with {@code buildLocal().setup()}.
+     *
+     * @return the web driver
+     */
+    public WebDriver createLocal() {
+        switch (browserName) {
+            case "Chrome":
+            default:
+                return withDiskCache(cache -> withDevTools(new ChromeDriver(chromeOptions(cache)), null));
+            case "Edge":
+                return withWindowSize(new EdgeDriver(withPresetOptions(new EdgeOptions())));
+            case "Firefox":
+                return withDiskCache(cache -> new FirefoxDriver(firefoxOptions(cache)));
+            case "Safari":
+                return withWindowSize(new SafariDriver(withPresetOptions(new SafariOptions())));
+            case FAKE:
+                return new FakeWebDriver(settings.getFixtures() == null ? Fixtures.none()
+                        : Fixtures.fromClasspath(settings.getFixtures()));
+        }
+    }
+
+    /**
+     * Starts a browser on the least busy endpoint of the preset's grid,
+     * waiting up to capacity.admission-timeout for one to have a free
+     * session slot. Commands go over the endpoint's pool of keep-alive
+     * connections.
+     *
+     * @return the web driver; quitting it frees its slot
+     */
+    public WebDriver createRemote() {
+        if (FAKE.equals(browserName)) {
+            throw new IllegalStateException("The fake browser cannot run remotely.");
+        }
+        if (settings.getDiskCacheDir() != null) {
+            LOG.warn("Ignoring disk cache of preset '{}', it cannot be leased on a grid node.",
+                    settings.getPresetName());
+        }
+        MutableCapabilities options = remoteOptions();
+        GridEndpoint endpoint = GridEndpoint.acquire(settings.getGrid(), settings.getAdmissionTimeout());
+        RemoteSession driver;
+        try {
+            HttpCommandExecutor executor = new HttpCommandExecutor(Collections.emptyMap(), endpoint.getUrl(),
+                    endpoint.getHttpClients());
+            driver = new RemoteSession(executor, options, endpoint);
+        } catch (RuntimeException e) {
+            // No session started, so only the slot needs freeing
+            endpoint.release();
+            throw e;
+        }
+        try {
+            LOG.debug("Session {} on {} ({} active).", driver.getSessionId(), endpoint.getUrl(),
+                    endpoint.getActiveSessions());
+            if ("Chrome".equals(browserName)) {
+                return withDevTools(driver, endpoint.getHttpClients());
+            }
+            return "Firefox".equals(browserName) ? driver : withWindowSize(driver);
+        } catch (RuntimeException e) {
+            // Ends the session on the grid and frees its slot
+            quitQuietly(driver, e);
+            throw e;
+        }
+    }
+
+    private static void quitQuietly(WebDriver driver, RuntimeException cause) {
+        try {
+            driver.quit();
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private MutableCapabilities remoteOptions() {
+        switch (browserName) {
+            case "Chrome":
+            default:
+                return chromeOptions(null);
+            case "Edge":
+                return withPresetOptions(new EdgeOptions());
+            case "Firefox":
+                return firefoxOptions(null);
+            case "Safari":
+                return withPresetOptions(new SafariOptions());
+        }
+    }
+
+    /**
+     * Starts a browser on a leased slot of the preset's disk cache, if it
+     * has one. The slot is released when the pool quits the browser.
+     *
+     * @param start starts the browser given its cache directory, or null
+     * @return the web driver
+     */
+    private WebDriver withDiskCache(Function<Path, WebDriver> start) {
+        if (settings.getDiskCacheDir() == null) {
+            return start.apply(null);
+        }
+        DiskCacheLease lease = DiskCacheLease.acquire(settings.getDiskCacheDir());
+        try {
+            return lease.attach(start.apply(lease.getDirectory()));
+        } catch (RuntimeException e) {
+            lease.release();
+            throw e;
+        }
+    }
+
+    private ChromeOptions chromeOptions(Path diskCache) {
+        ChromeOptions options = withPresetOptions(new ChromeOptions());
+        options.setHeadless(settings.isHeadless());
+        List<String> arguments = new ArrayList<>(settings.getArguments());
+        if (settings.getWindowSize() != null) {
+            arguments.add("--window-size=" + settings.getWindowSize().getWidth() + ","
+                    + settings.getWindowSize().getHeight());
+        }
+        if (diskCache != null) {
+            arguments.add("--disk-cache-dir=" + diskCache);
+        }
+        Map<String, Object> prefs = new HashMap<>(settings.getPrefs());
+        ResourceBlocking blocking = settings.getBlocking();
+        if (blocking != null) {
+            if (blocking.blocksImages()) {
+                prefs.put("profile.managed_default_content_settings.images", 2);
+                arguments.add("--blink-settings=imagesEnabled=false");
+            }
+            if (blocking.blocksFonts()) {
+                arguments.add("--disable-remote-fonts");
+            }
+            if (blocking.blocksMedia()) {
+                arguments.add("--autoplay-policy=user-gesture-required");
+            }
+        }
+        options.addArguments(arguments);
+        if (!prefs.isEmpty()) {
+            options.setExperimentalOption("prefs", prefs);
+        }
+        return options;
+    }
+
+    private FirefoxOptions firefoxOptions(Path diskCache) {
+        FirefoxOptions options = withPresetOptions(new FirefoxOptions());
+        options.setHeadless(settings.isHeadless());
+        options.addArguments(settings.getArguments());
+        if (settings.getWindowSize() != null) {
+            options.addArguments("--width=" + settings.getWindowSize().getWidth(),
+                    "--height=" + settings.getWindowSize().getHeight());
+        }
+        Map<String, Object> prefs = new HashMap<>(settings.getPrefs());
+        if (diskCache != null) {
+            prefs.put("browser.cache.disk.parent_directory", diskCache.toString());
+        }
+        ResourceBlocking blocking = settings.getBlocking();
+        if (blocking != null) {
+            if (blocking.blocksImages()) {
+                prefs.put("permissions.default.image", 2);
+            }
+            if (blocking.blocksFonts()) {
+                prefs.put("browser.display.use_document_fonts", 0);
+                prefs.put("gfx.downloadable_fonts.enabled", false);
+            }
+            if (blocking.blocksMedia()) {
+                prefs.put("media.autoplay.default", 5);
+                prefs.put("media.preload.default", 0);
+            }
+        }
+        prefs.forEach((name, value) -> {
+            if (value instanceof Boolean) {
+                options.addPreference(name, (Boolean) value);
+            } else if (value instanceof Number) {
+                options.addPreference(name, ((Number) value).intValue());
+            } else {
+                options.addPreference(name, String.valueOf(value));
+            }
+        });
+        return options;
+    }
+
+    /**
+     * Applies the preset options every browser supports.
+     *
+     * @param options the browser's default options
+     * @return the same options
+     */
+    private <T extends MutableCapabilities> T withPresetOptions(T options) {
+        if (settings.getPageLoadStrategy() != null) {
+            options.setCapability(CapabilityType.PAGE_LOAD_STRATEGY, settings.getPageLoadStrategy().toString());
+        }
+        ResourceBlocking blocking = settings.getBlocking();
+        String pacUrl = blocking == null ? null : blocking.toPacUrl();
+        if (pacUrl != null) {
+            Proxy proxy = new Proxy();
+            proxy.setProxyAutoconfigUrl(pacUrl);
+            options.setCapability(CapabilityType.PROXY, proxy);
+        }
+        boolean chromeOrFirefox = "Chrome".equals(browserName) || "Firefox".equals(browserName);
+        if (!chromeOrFirefox && (!settings.getArguments().isEmpty() || !settings.getPrefs().isEmpty()
+                || settings.isHeadless() || settings.getDiskCacheDir() != null)) {
+            LOG.warn("Ignoring arguments, prefs, headless and disk cache of preset '{}', {} does not support them.",
+                    settings.getPresetName(), browserName);
+        }
+        return options;
+    }
+
+    /**
+     * Gives a Chrome session DevTools access, used to reset it for the next
+     * test, and fails its media requests. Chrome has no flag or preference
+     * that blocks audio and video, and the proxy auto-config script only
+     * sees the host of https URLs, so the media file patterns are blocked
+     * through DevTools. The block covers the session's first window; if it
+     * cannot be set, media is only kept from autoplaying.
+     *
+     * @param driver      the started driver
+     * @param httpClients the factory of the driver's HTTP clients, or null
+     *                    for the default
+     * @return the same driver
+     */
+    private RemoteWebDriver withDevTools(RemoteWebDriver driver, HttpClient.Factory httpClients) {
+        ChromeDevTools devTools;
+        try {
+            devTools = ChromeDevTools.attach(driver, (HttpCommandExecutor) driver.getCommandExecutor(),
+                    httpClients == null ? HttpClient.Factory.createDefault() : httpClients);
+        } catch (RuntimeException e) {
+            LOG.warn("No DevTools access to preset '{}' sessions: {}", settings.getPresetName(), e.toString());
+            return driver;
+        }
+        ResourceBlocking blocking = settings.getBlocking();
+        if (blocking == null || !blocking.blocksMedia()) {
+            return driver;
+        }
+        try {
+            devTools.blockUrls(blocking.getMediaUrls());
+        } catch (RuntimeException e) {
+            LOG.warn("Could not block media requests of preset '{}': {}", settings.getPresetName(), e.toString());
+        }
+        return driver;
+    }
+
+    /**
+     * Sizes the window of a browser that cannot be sized through its options.
+     *
+     * @param driver the started driver
+     * @return the same driver
+     */
+    private WebDriver withWindowSize(WebDriver driver) {
+        if (settings.getWindowSize() != null) {
+            driver.manage().window().setSize(settings.getWindowSize());
         }
+        return driver;
     }
 }
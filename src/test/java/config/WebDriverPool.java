@@ -0,0 +1,385 @@
+package config;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pageobjects.utility.AsyncBrowserUtil;
+import pageobjects.utility.DocumentTracker;
+import pageobjects.utility.Scripts;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+public final class WebDriverPool {
+    private static final Logger LOG = LoggerFactory.getLogger(WebDriverPool.class);
+    private static final String JUNIT_PROPERTIES = "junit-platform.properties";
+    private static final String BLANK_PAGE = "about:blank";
+    private static final WebDriverPool INSTANCE = new WebDriverPool(getConfiguredSize());
+
+    private final int maxSize;
+    private final Semaphore leases;
+    private final AtomicInteger live = new AtomicInteger();
+    private final ConcurrentMap<String, Deque<WebDriver>> idle = new ConcurrentHashMap<>();
+    private final ConcurrentMap<WebDriver, String> leased = new ConcurrentHashMap<>();
+    private final Lock capacityLock = new ReentrantLock();
+    private final Condition capacityChanged = capacityLock.newCondition();
+
+    /**
+     * Instantiates a new Web driver pool.
+     *
+     * @param maxSize the maximum number of live sessions across all presets
+     */
+    WebDriverPool(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.leases = new Semaphore(this.maxSize, true);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "webdriver-pool-shutdown"));
+        LOG.info("WebDriver pool sized to {} sessions.", this.maxSize);
+    }
+
+    /**
+     * Gets the JVM-wide pool.
+     *
+     * @return the web driver pool
+     */
+    public static WebDriverPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Leases a warm session for the given preset, creating one with the
+     * factory when no healthy idle session is available. Blocks while the
+     * pool is fully leased.
+     *
+     * @param preset  the key the session is pooled under, see {@link Settings#getSessionKey()}
+     * @param factory creates a new session for the preset
+     * @return the leased driver
+     */
+    public WebDriver lease(String preset, Supplier<WebDriver> factory) {
+        try {
+            leases.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a WebDriver session.", e);
+        }
+
+        try {
+            WebDriver driver = pollHealthy(preset);
+            if (driver == null) {
+                driver = create(factory);
+                LOG.info("Created new '{}' session ({} live).", preset, live.get());
+            }
+            leased.put(driver, preset);
+            return driver;
+        } catch (RuntimeException e) {
+            leases.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds up to the given number of idle sessions for the preset without
+     * blocking. Stops early once the pool is full.
+     *
+     * @param preset  the key the sessions are pooled under, see {@link Settings#getSessionKey()}
+     * @param count   the number of sessions to add
+     * @param factory starts a new session in the background
+     */
+    public void prewarm(String preset, int count, Supplier<CompletableFuture<WebDriver>> factory) {
+        for (int i = 0; i < count && tryReserve(); i++) {
+            factory.get().whenComplete((driver, e) -> {
+                if (e != null) {
+                    live.decrementAndGet();
+                    LOG.warn("Failed to prewarm '{}' session: {}", preset, e.getMessage());
+                } else {
+                    idleSessions(preset).offerLast(driver);
+                }
+                signalCapacity();
+            });
+        }
+    }
+
+    /**
+     * Cancels the session's pending asynchronous commands, resets it and
+     * returns it to the pool. Sessions that fail to reset are evicted.
+     *
+     * @param driver the leased driver
+     */
+    public void release(WebDriver driver) {
+        String preset = leased.remove(driver);
+        if (preset == null) {
+            LOG.warn("Released a session that was not leased from the pool, quitting it.");
+            quit(driver);
+            return;
+        }
+        AsyncBrowserUtil.cancelPending(driver);
+
+        try {
+            if (reset(driver)) {
+                idleSessions(preset).offerFirst(driver);
+                signalCapacity();
+            } else {
+                LOG.info("Recycling '{}' session that visited origins it cannot clear in place.", preset);
+                discard(driver);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Evicting '{}' session that failed to reset: {}", preset, e.getMessage());
+            discard(driver);
+        } finally {
+            leases.release();
+        }
+    }
+
+    /**
+     * Removes a leased session from the pool and quits it.
+     *
+     * @param driver the leased driver
+     */
+    public void evict(WebDriver driver) {
+        if (leased.remove(driver) != null) {
+            AsyncBrowserUtil.cancelPending(driver);
+            discard(driver);
+            leases.release();
+        }
+    }
+
+    /**
+     * Quits every session owned by the pool.
+     */
+    public void shutdown() {
+        List<WebDriver> drivers = new ArrayList<>(leased.keySet());
+        leased.clear();
+        for (Deque<WebDriver> sessions : idle.values()) {
+            WebDriver driver;
+            while ((driver = sessions.pollFirst()) != null) {
+                drivers.add(driver);
+            }
+        }
+        drivers.forEach(this::discard);
+    }
+
+    private WebDriver pollHealthy(String preset) {
+        Deque<WebDriver> sessions = idleSessions(preset);
+        WebDriver driver;
+        while ((driver = sessions.pollFirst()) != null) {
+            if (isHealthy(driver)) {
+                return driver;
+            }
+            LOG.warn("Evicting unhealthy '{}' session.", preset);
+            discard(driver);
+        }
+        return null;
+    }
+
+    private WebDriver create(Supplier<WebDriver> factory) {
+        BrowserCapacity.awaitAdmission(Configuration.getSettings(), live.get());
+        // A full pool may count prewarmed sessions that are still starting, so there is not always an idle
+        // session to evict; wait until one becomes idle or a slot frees up
+        while (!tryReserve()) {
+            if (!evictIdle()) {
+                awaitCapacity();
+            }
+        }
+
+        try {
+            return factory.get();
+        } catch (RuntimeException e) {
+            live.decrementAndGet();
+            signalCapacity();
+            throw e;
+        }
+    }
+
+    /**
+     * Blocks until a session is added to the idle sessions or a slot is
+     * freed, unless that already happened.
+     */
+    private void awaitCapacity() {
+        capacityLock.lock();
+        try {
+            // Checked under the lock, so a change signalled since the caller looked is not missed
+            if (live.get() >= maxSize && !hasIdle()) {
+                capacityChanged.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a WebDriver slot.", e);
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    private void signalCapacity() {
+        capacityLock.lock();
+        try {
+            capacityChanged.signalAll();
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    private boolean hasIdle() {
+        return idle.values().stream().anyMatch(sessions -> !sessions.isEmpty());
+    }
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = live.get();
+            if (current >= maxSize) {
+                return false;
+            }
+        } while (!live.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private boolean evictIdle() {
+        for (Map.Entry<String, Deque<WebDriver>> entry : idle.entrySet()) {
+            WebDriver driver = entry.getValue().pollLast();
+            if (driver != null) {
+                LOG.info("Evicting idle '{}' session to make room.", entry.getKey());
+                discard(driver);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Deque<WebDriver> idleSessions(String preset) {
+        return idle.computeIfAbsent(preset, key -> new ConcurrentLinkedDeque<>());
+    }
+
+    private static boolean isHealthy(WebDriver driver) {
+        try {
+            return !driver.getWindowHandles().isEmpty();
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the session to a blank state: extra windows closed, cookies and
+     * web storage cleared, and the remaining window on a blank page. The
+     * current document's cookies and storage are cleared in place. Chrome
+     * then clears the cookies of every origin and the storage of every
+     * visited origin through DevTools. Other browsers can only clear an
+     * origin from one of its documents, so a session that visited another
+     * origin is recycled rather than navigated back to it.
+     *
+     * @return false if the session cannot be reset without loading pages
+     *         and should be recycled instead
+     */
+    private static boolean reset(WebDriver driver) {
+        DocumentTracker tracker = DocumentTracker.of(driver);
+        Iterator<String> handles = driver.getWindowHandles().iterator();
+        String main = handles.next();
+        while (handles.hasNext()) {
+            driver.switchTo().window(handles.next()).close();
+        }
+        driver.switchTo().window(main);
+        String current = DocumentTracker.originOf(driver.getCurrentUrl());
+        tracker.visit(current);
+        List<String> origins = tracker.drainOrigins();
+        tracker.invalidate();
+
+        if (current != null) {
+            driver.manage().deleteAllCookies();
+            ((JavascriptExecutor) driver).executeScript(Scripts.CLEAR_STORAGE);
+        }
+        ChromeDevTools devTools = ChromeDevTools.of(driver);
+        if (devTools != null) {
+            devTools.clearCookies();
+            origins.forEach(devTools::clearStorage);
+        } else if (origins.stream().anyMatch(origin -> !origin.equals(current))) {
+            return false;
+        }
+        driver.get(BLANK_PAGE);
+        return true;
+    }
+
+    private void discard(WebDriver driver) {
+        live.decrementAndGet();
+        signalCapacity();
+        quit(driver);
+    }
+
+    private static void quit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            LOG.debug("Ignoring failure while quitting session: {}", e.getMessage());
+        } finally {
+            DiskCacheLease.releaseFor(driver);
+        }
+    }
+
+    /**
+     * Gets the configured pool size, falling back to JUnit parallelism.
+     *
+     * @return the pool size
+     */
+    private static int getConfiguredSize() {
+        int configured = Configuration.getSettings().getPoolMaxSize();
+        return configured > 0 ? configured : getJUnitParallelism();
+    }
+
+    /**
+     * Gets the worker count JUnit will use, as configured in
+     * junit-platform.properties or system properties.
+     *
+     * @return the parallelism
+     */
+    static int getJUnitParallelism() {
+        Properties properties = new Properties();
+        try (InputStream in = WebDriverPool.class.getClassLoader().getResourceAsStream(JUNIT_PROPERTIES)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not read {}: {}", JUNIT_PROPERTIES, e.getMessage());
+        }
+        properties.putAll(System.getProperties());
+
+        if (!Boolean.parseBoolean(properties.getProperty("junit.jupiter.execution.parallel.enabled", "false"))) {
+            return 1;
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        String strategy = properties.getProperty("junit.jupiter.execution.parallel.config.strategy", "dynamic");
+        switch (strategy) {
+            case "fixed":
+                return Integer.parseInt(properties.getProperty(
+                        "junit.jupiter.execution.parallel.config.fixed.parallelism", String.valueOf(cores)).trim());
+            case "dynamic":
+                double factor = Double.parseDouble(properties.getProperty(
+                        "junit.jupiter.execution.parallel.config.dynamic.factor", "1").trim());
+                return (int) Math.max(1, factor * cores);
+            case "custom":
+                String strategyClass = properties.getProperty(
+                        "junit.jupiter.execution.parallel.config.custom.class", "").trim();
+                if (strategyClass.equals(BrowserCapacityStrategy.class.getName())) {
+                    return BrowserCapacity.getParallelism();
+                }
+                return cores;
+            default:
+                return cores;
+        }
+    }
+}
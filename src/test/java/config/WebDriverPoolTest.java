@@ -0,0 +1,86 @@
+package config;
+
+import fakebrowser.FakeWebDriver;
+import fakebrowser.Fixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import pageobjects.utility.BrowserUtil;
+import pageobjects.utility.Readiness;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebDriverPoolTest {
+    private static final String PRESET = "fake";
+
+    private final WebDriverPool pool = new WebDriverPool(1);
+    private final AtomicInteger created = new AtomicInteger();
+    private final Supplier<WebDriver> factory = () -> {
+        created.incrementAndGet();
+        return new FakeWebDriver(Fixtures.fromClasspath("fixtures/google"));
+    };
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Released session is leased again instead of starting a new one")
+    void reusesReleasedSession() {
+        WebDriver first = pool.lease(PRESET, factory);
+        pool.release(first);
+
+        assertThat(pool.lease(PRESET, factory)).isSameAs(first);
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Reset clears the current origin's cookies in place and leaves a blank page")
+    void resetClearsCurrentOrigin() {
+        WebDriver driver = pool.lease(PRESET, factory);
+        driver.get("https://www.google.com/");
+        driver.manage().addCookie(new Cookie("consent", "yes"));
+
+        pool.release(driver);
+
+        assertThat(pool.lease(PRESET, factory)).isSameAs(driver);
+        assertThat(driver.manage().getCookies()).isEmpty();
+        assertThat(driver.getCurrentUrl()).isEqualTo("about:blank");
+    }
+
+    @Test
+    @DisplayName("Origin seen while syncing with a page the test reached on its own is reset too")
+    void recyclesSessionThatLeftAnOrigin() {
+        WebDriver driver = pool.lease(PRESET, factory);
+        driver.get("https://www.google.com/search?q=anagram");
+        new BrowserUtil(driver).waitUntilReady(Readiness.READY_STATE, null);
+        driver.get("https://en.wikipedia.org/wiki/Anagram");
+
+        pool.release(driver);
+
+        // Without DevTools the Google origin can only be cleared by loading one of its pages
+        assertThat(pool.lease(PRESET, factory)).isNotSameAs(driver);
+        assertThat(created).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Failed or evicted sessions free their slot")
+    void failuresFreeSlots() {
+        assertThatThrownBy(() -> pool.lease(PRESET, () -> {
+            throw new IllegalStateException("no browser");
+        })).hasMessage("no browser");
+
+        WebDriver driver = pool.lease(PRESET, factory);
+        pool.evict(driver);
+
+        assertThat(pool.lease(PRESET, factory)).isNotSameAs(driver);
+        assertThat(created).hasValue(2);
+    }
+}
@@ -0,0 +1,163 @@
+package execution;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import config.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Test and class durations from previous runs, keyed by JUnit unique id.
+ * Each new observation is averaged with the recorded one, so a single slow
+ * run does not dominate.
+ *
+ * <p>The shards of a split run all read a pinned copy of the history, taken
+ * by the first shard to start, so every shard computes the same assignment.
+ * Only {@link ShardReportMerger} records their durations.
+ */
+public final class DurationHistory {
+    private static final Logger LOG = LoggerFactory.getLogger(DurationHistory.class);
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Type MAP_TYPE = new TypeToken<Map<String, Long>>() { }.getType();
+    /**
+     * Weight of a new observation against the recorded duration.
+     */
+    private static final double NEW_WEIGHT = 0.5;
+    /**
+     * Name of the pinned copy in the shard report directory.
+     */
+    static final String PINNED_FILE = "durations-pinned.json";
+
+    private final Path file;
+    private final ConcurrentMap<String, Long> millis = new ConcurrentHashMap<>();
+
+    private DurationHistory(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Holds the history file configured in execution.history, or its pinned
+     * copy for a shard, loaded once per JVM on first use.
+     */
+    private static final class Holder {
+        private static final DurationHistory INSTANCE = Shard.fromSystemProperties().isSharded()
+                ? pin(Configuration.getSettings().getDurationHistory(),
+                        Configuration.getSettings().getShardReports().resolve(PINNED_FILE))
+                : load(Configuration.getSettings().getDurationHistory());
+    }
+
+    /**
+     * Gets the JVM-wide history.
+     *
+     * @return the history
+     */
+    public static DurationHistory getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Loads a history file. A missing or unreadable file gives an empty
+     * history.
+     *
+     * @param file the history file
+     * @return the history
+     */
+    public static DurationHistory load(Path file) {
+        DurationHistory history = new DurationHistory(file);
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file)) {
+                Map<String, Long> recorded = GSON.fromJson(reader, MAP_TYPE);
+                if (recorded != null) {
+                    history.millis.putAll(recorded);
+                }
+            } catch (IOException | JsonParseException e) {
+                LOG.warn("Ignoring unreadable duration history {}: {}", file, e.getMessage());
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Loads the pinned copy of a history file, copying the file first if
+     * there is no pinned copy yet. Shards never write the history, so
+     * shards pinning it at the same time write the same content.
+     *
+     * @param file   the history file
+     * @param pinned the pinned copy
+     * @return the history read from the pinned copy
+     */
+    static DurationHistory pin(Path file, Path pinned) {
+        if (!Files.exists(pinned)) {
+            load(file).write(pinned);
+        }
+        return load(pinned);
+    }
+
+    /**
+     * Gets the recorded duration of a test or container.
+     *
+     * @param uniqueId the JUnit unique id
+     * @return the duration in milliseconds, if recorded
+     */
+    public OptionalLong get(String uniqueId) {
+        Long recorded = millis.get(uniqueId);
+        return recorded == null ? OptionalLong.empty() : OptionalLong.of(recorded);
+    }
+
+    /**
+     * Whether no durations are recorded.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return millis.isEmpty();
+    }
+
+    /**
+     * Records an observed duration.
+     *
+     * @param uniqueId       the JUnit unique id
+     * @param observedMillis the duration in milliseconds
+     */
+    public void record(String uniqueId, long observedMillis) {
+        millis.merge(uniqueId, observedMillis,
+                (recorded, observed) -> Math.round(NEW_WEIGHT * observed + (1 - NEW_WEIGHT) * recorded));
+    }
+
+    /**
+     * Writes the history back to its file. The file is replaced in one step,
+     * so concurrent readers never see a partial file.
+     */
+    public void save() {
+        write(file);
+    }
+
+    private void write(Path target) {
+        try {
+            Path directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp)) {
+                GSON.toJson(new TreeMap<>(millis), writer);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.error("Could not write duration history {}: ", target, e);
+        }
+    }
+}
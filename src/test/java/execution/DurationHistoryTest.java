@@ -0,0 +1,70 @@
+package execution;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DurationHistoryTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Missing or unreadable history files load empty")
+    void missingOrUnreadable() throws IOException {
+        Path garbled = Files.writeString(directory.resolve("garbled.json"), "{not json");
+
+        assertThat(DurationHistory.load(directory.resolve("missing.json")).isEmpty()).isTrue();
+        assertThat(DurationHistory.load(garbled).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("New observations are averaged with the recorded duration")
+    void recordAverages() {
+        DurationHistory history = DurationHistory.load(directory.resolve("durations.json"));
+
+        history.record("[engine:junit-jupiter]/[class:tests.A]", 1_000);
+        assertThat(history.get("[engine:junit-jupiter]/[class:tests.A]")).hasValue(1_000);
+
+        history.record("[engine:junit-jupiter]/[class:tests.A]", 3_000);
+        assertThat(history.get("[engine:junit-jupiter]/[class:tests.A]")).hasValue(2_000);
+        assertThat(history.get("[engine:junit-jupiter]/[class:tests.B]")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Saved history loads back")
+    void saveAndLoad() {
+        Path file = directory.resolve("nested/durations.json");
+        DurationHistory history = DurationHistory.load(file);
+        history.record("a", 100);
+        history.record("b", 200);
+
+        history.save();
+
+        DurationHistory loaded = DurationHistory.load(file);
+        assertThat(loaded.get("a")).hasValue(100);
+        assertThat(loaded.get("b")).hasValue(200);
+    }
+
+    @Test
+    @DisplayName("Pinned copy is taken once and ignores later saves")
+    void pin() {
+        Path file = directory.resolve("durations.json");
+        Path pinned = directory.resolve("shards").resolve(DurationHistory.PINNED_FILE);
+        DurationHistory history = DurationHistory.load(file);
+        history.record("a", 100);
+        history.save();
+
+        assertThat(DurationHistory.pin(file, pinned).get("a")).hasValue(100);
+
+        history.record("a", 300);
+        history.save();
+        assertThat(DurationHistory.pin(file, pinned).get("a")).hasValue(100);
+        assertThat(DurationHistory.load(file).get("a")).hasValue(200);
+    }
+}
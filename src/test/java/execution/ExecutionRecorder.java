@@ -0,0 +1,98 @@
+package execution;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import config.Configuration;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records how long test classes and methods take into the
+ * {@link DurationHistory}, or, when the run is one shard of a split suite,
+ * into a {@link ShardReport} that {@link ShardReportMerger} records.
+ */
+public class ExecutionRecorder implements TestExecutionListener {
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutionRecorder.class);
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final Shard shard = Shard.fromSystemProperties();
+    private final ConcurrentMap<String, Long> starts = new ConcurrentHashMap<>();
+    private final Queue<ShardReport.Entry> entries = new ConcurrentLinkedQueue<>();
+    private long planStart;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        planStart = System.nanoTime();
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (isRecorded(testIdentifier)) {
+            starts.put(testIdentifier.getUniqueId(), System.nanoTime());
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        Long start = starts.remove(testIdentifier.getUniqueId());
+        if (start == null) {
+            return;
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        if (!shard.isSharded() && testExecutionResult.getStatus() != TestExecutionResult.Status.ABORTED) {
+            DurationHistory.getInstance().record(testIdentifier.getUniqueId(), millis);
+        }
+        entries.add(new ShardReport.Entry(testIdentifier.getUniqueId(), testIdentifier.getDisplayName(),
+                testIdentifier.isTest(), testExecutionResult.getStatus().name(), millis));
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (shard.isSharded()) {
+            writeReport();
+        } else {
+            DurationHistory.getInstance().save();
+        }
+    }
+
+    private void writeReport() {
+        ShardReport report = new ShardReport();
+        report.shardIndex = shard.getIndex();
+        report.shardCount = shard.getCount();
+        report.wallMillis = (System.nanoTime() - planStart) / 1_000_000;
+        report.entries.addAll(entries);
+
+        Path file = Configuration.getSettings().getShardReports()
+                .resolve("shard-" + shard.getIndex() + "-of-" + shard.getCount() + ".json");
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                GSON.toJson(report, writer);
+            }
+            LOG.info("Shard {} report written to {}", shard, file.toAbsolutePath());
+        } catch (IOException e) {
+            LOG.error("Could not write shard report: ", e);
+        }
+    }
+
+    private static boolean isRecorded(TestIdentifier testIdentifier) {
+        return testIdentifier.getSource()
+                .filter(source -> source instanceof ClassSource || source instanceof MethodSource)
+                .isPresent();
+    }
+}
@@ -0,0 +1,97 @@
+package execution;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sorts tests by their recorded duration, longest first. Shared by the
+ * class and method orderers.
+ */
+final class LongestFirst {
+    private static final String ENGINE_ID = "[engine:junit-jupiter]";
+
+    private LongestFirst() {
+    }
+
+    /**
+     * Sorts items longest first. Items without a recorded duration are
+     * assumed to take the average of the others; ties keep discovery order.
+     *
+     * @param <T>      the item type
+     * @param items    the items, sorted in place
+     * @param uniqueId gives the JUnit unique id of an item
+     */
+    static <T> void sort(List<T> items, Function<? super T, String> uniqueId) {
+        sort(items, uniqueId, DurationHistory.getInstance());
+    }
+
+    /**
+     * Sorts items longest first by the given history.
+     *
+     * @param <T>      the item type
+     * @param items    the items, sorted in place
+     * @param uniqueId gives the JUnit unique id of an item
+     * @param history  the recorded durations
+     */
+    static <T> void sort(List<T> items, Function<? super T, String> uniqueId, DurationHistory history) {
+        if (history.isEmpty() || items.size() < 2) {
+            return;
+        }
+        long[] recorded = new long[items.size()];
+        long knownTotal = 0;
+        int known = 0;
+        for (int i = 0; i < items.size(); i++) {
+            OptionalLong millis = history.get(uniqueId.apply(items.get(i)));
+            recorded[i] = millis.orElse(-1);
+            if (millis.isPresent()) {
+                knownTotal += millis.getAsLong();
+                known++;
+            }
+        }
+        if (known == 0) {
+            return;
+        }
+        long fallback = knownTotal / known;
+
+        Integer[] order = new Integer[items.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> recorded[i] < 0 ? fallback : recorded[i])
+                .reversed());
+        List<T> sorted = Arrays.stream(order).map(items::get).collect(Collectors.toList());
+        for (int i = 0; i < sorted.size(); i++) {
+            items.set(i, sorted.get(i));
+        }
+    }
+
+    /**
+     * Gets the unique id Jupiter gives a test class.
+     *
+     * @param type the test class
+     * @return the unique id
+     */
+    static String classId(Class<?> type) {
+        if (type.getEnclosingClass() != null && !Modifier.isStatic(type.getModifiers())) {
+            return classId(type.getEnclosingClass()) + "/[nested-class:" + type.getSimpleName() + "]";
+        }
+        return ENGINE_ID + "/[class:" + type.getName() + "]";
+    }
+
+    /**
+     * Gets the unique id Jupiter gives a test method.
+     *
+     * @param type   the test class
+     * @param method the test method
+     * @return the unique id
+     */
+    static String methodId(Class<?> type, Method method) {
+        String parameters = Arrays.stream(method.getParameterTypes()).map(Class::getName)
+                .collect(Collectors.joining(", "));
+        return classId(type) + "/[method:" + method.getName() + "(" + parameters + ")]";
+    }
+}
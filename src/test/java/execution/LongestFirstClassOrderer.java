@@ -0,0 +1,20 @@
+package execution;
+
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+/**
+ * Starts the test classes that took longest in previous runs first, so a
+ * slow class does not start last and stretch a parallel run. Durations come
+ * from the {@link DurationHistory}, which {@link ExecutionRecorder} updates
+ * after every run.
+ */
+public class LongestFirstClassOrderer implements ClassOrderer {
+
+    @Override
+    public void orderClasses(ClassOrdererContext context) {
+        LongestFirst.sort(context.getClassDescriptors(),
+                descriptor -> LongestFirst.classId(descriptor.getTestClass()));
+    }
+}
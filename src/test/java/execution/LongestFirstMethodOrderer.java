@@ -0,0 +1,29 @@
+package execution;
+
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.Optional;
+
+/**
+ * Starts the test methods that took longest in previous runs first.
+ * Durations come from the {@link DurationHistory}, which
+ * {@link ExecutionRecorder} updates after every run.
+ */
+public class LongestFirstMethodOrderer implements MethodOrderer {
+
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        Class<?> type = context.getTestClass();
+        LongestFirst.sort(context.getMethodDescriptors(),
+                descriptor -> LongestFirst.methodId(type, descriptor.getMethod()));
+    }
+
+    @Override
+    public Optional<ExecutionMode> getDefaultExecutionMode() {
+        // Ordering is only about start order; keep methods concurrent
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,66 @@
+package execution;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+class LongestFirstTest {
+    private static final Function<String, String> ID = name -> "[engine:junit-jupiter]/[class:tests." + name + "]";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Slowest tests start first and unknown ones are placed at the average")
+    void longestFirst() {
+        DurationHistory history = DurationHistory.load(directory.resolve("durations.json"));
+        history.record(ID.apply("Fast"), 100);
+        history.record(ID.apply("Slow"), 900);
+        history.record(ID.apply("Medium"), 400);
+        List<String> names = new ArrayList<>(Arrays.asList("Fast", "New", "Medium", "Slow"));
+
+        LongestFirst.sort(names, ID, history);
+
+        assertThat(names).containsExactly("Slow", "New", "Medium", "Fast");
+    }
+
+    @Test
+    @DisplayName("Discovery order is kept without history")
+    void noHistory() {
+        List<String> names = new ArrayList<>(Arrays.asList("Fast", "New", "Slow"));
+
+        LongestFirst.sort(names, ID, DurationHistory.load(directory.resolve("durations.json")));
+
+        assertThat(names).containsExactly("Fast", "New", "Slow");
+    }
+
+    @Test
+    @DisplayName("Computed ids are the ones Jupiter gives classes and methods")
+    void idsMatchJupiter() throws NoSuchMethodException {
+        TestPlan plan = LauncherFactory.create().discover(LauncherDiscoveryRequestBuilder.request()
+                .selectors(selectClass(LongestFirstTest.class)).build());
+        List<String> discovered = plan.getRoots().stream()
+                .flatMap(root -> plan.getDescendants(root).stream())
+                .map(TestIdentifier::getUniqueId)
+                .collect(Collectors.toList());
+        Method method = LongestFirstTest.class.getDeclaredMethod("longestFirst");
+
+        assertThat(discovered).contains(LongestFirst.classId(LongestFirstTest.class),
+                LongestFirst.methodId(LongestFirstTest.class, method));
+    }
+}
@@ -0,0 +1,69 @@
+package execution;
+
+/**
+ * The shard this JVM runs, from the shard.index and shard.count system
+ * properties. Without them the JVM runs everything as the only shard.
+ */
+public final class Shard {
+    static final String INDEX_PROPERTY = "shard.index";
+    static final String COUNT_PROPERTY = "shard.count";
+
+    private final int index;
+    private final int count;
+
+    /**
+     * Instantiates a new Shard.
+     *
+     * @param index the zero-based shard index
+     * @param count the number of shards
+     */
+    Shard(int index, int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count
+                    + "; " + INDEX_PROPERTY + " must be from 0 to " + COUNT_PROPERTY + " - 1.");
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * Gets the shard selected by system properties.
+     *
+     * @return the shard
+     */
+    public static Shard fromSystemProperties() {
+        return new Shard(Integer.getInteger(INDEX_PROPERTY, 0), Integer.getInteger(COUNT_PROPERTY, 1));
+    }
+
+    /**
+     * Gets the zero-based shard index.
+     *
+     * @return the index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the number of shards.
+     *
+     * @return the count
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Whether the suite is split into more than one shard.
+     *
+     * @return true if sharded
+     */
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    @Override
+    public String toString() {
+        return (index + 1) + "/" + count;
+    }
+}
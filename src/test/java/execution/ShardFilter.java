@@ -0,0 +1,157 @@
+package execution;
+
+import config.Configuration;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps only the tests of this JVM's {@link Shard}. Test classes, or test
+ * methods with execution.shard-by = "method", are spread over the shards
+ * longest first, each going to the shard with the least expected time so
+ * far. Durations come from the {@link DurationHistory}; units without one
+ * are assumed to take the average. With no history at all, units are
+ * assigned by hashing their unique id.
+ *
+ * <p>Every shard computes the same assignment, provided all shards see the
+ * same tests and the same history file.
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+    private static final Logger LOG = LoggerFactory.getLogger(ShardFilter.class);
+
+    private final Shard shard = Shard.fromSystemProperties();
+    private final boolean byMethod = Configuration.getSettings().isShardingByMethod();
+    private final Map<UniqueId, Set<UniqueId>> assignments = new ConcurrentHashMap<>();
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        // The launcher only asks about leaves and prunes emptied containers itself
+        TestDescriptor unit = unitOf(descriptor);
+        if (!shard.isSharded() || unit == null) {
+            return FilterResult.included(null);
+        }
+        TestDescriptor root = root(descriptor);
+        Set<UniqueId> mine = assignments.computeIfAbsent(root.getUniqueId(), id -> assign(root));
+        return mine.contains(unit.getUniqueId())
+                ? FilterResult.included("In shard " + shard)
+                : FilterResult.excluded("Not in shard " + shard);
+    }
+
+    private TestDescriptor unitOf(TestDescriptor descriptor) {
+        for (TestDescriptor current = descriptor; current != null; current = current.getParent().orElse(null)) {
+            if (isUnit(current)) {
+                return current;
+            }
+        }
+        return null;
+    }
+
+    private boolean isUnit(TestDescriptor descriptor) {
+        if (byMethod) {
+            return descriptor.getSource().filter(MethodSource.class::isInstance).isPresent()
+                    && !descriptor.getParent().flatMap(TestDescriptor::getSource)
+                    .filter(MethodSource.class::isInstance).isPresent();
+        }
+        return descriptor.getSource().filter(ClassSource.class::isInstance).isPresent()
+                && descriptor.getParent().map(TestDescriptor::isRoot).orElse(false);
+    }
+
+    private static TestDescriptor root(TestDescriptor descriptor) {
+        TestDescriptor root = descriptor;
+        while (root.getParent().isPresent()) {
+            root = root.getParent().get();
+        }
+        return root;
+    }
+
+    private Set<UniqueId> assign(TestDescriptor root) {
+        List<TestDescriptor> units = new ArrayList<>();
+        collectUnits(root, units);
+        return assign(units.stream().map(TestDescriptor::getUniqueId).collect(Collectors.toList()),
+                DurationHistory.getInstance(), shard);
+    }
+
+    /**
+     * Picks the units a shard runs.
+     *
+     * @param units   the unique ids of all units
+     * @param history the durations to balance the shards by
+     * @param shard   the shard
+     * @return the unique ids of the shard's units
+     */
+    static Set<UniqueId> assign(List<UniqueId> units, DurationHistory history, Shard shard) {
+        Map<UniqueId, Long> expected = new HashMap<>();
+        long knownTotal = 0;
+        int known = 0;
+        for (UniqueId unit : units) {
+            OptionalLong recorded = history.get(unit.toString());
+            if (recorded.isPresent()) {
+                expected.put(unit, recorded.getAsLong());
+                knownTotal += recorded.getAsLong();
+                known++;
+            }
+        }
+
+        Set<UniqueId> mine = new HashSet<>();
+        if (known == 0) {
+            for (UniqueId unit : units) {
+                if (Math.floorMod(unit.toString().hashCode(), shard.getCount()) == shard.getIndex()) {
+                    mine.add(unit);
+                }
+            }
+            LOG.info("Shard {} runs {} of {} units, assigned by hash (no duration history).", shard, mine.size(),
+                    units.size());
+            return mine;
+        }
+
+        long fallback = knownTotal / known;
+        units.forEach(unit -> expected.putIfAbsent(unit, fallback));
+        List<UniqueId> longestFirst = new ArrayList<>(units);
+        longestFirst.sort(Comparator.<UniqueId>comparingLong(expected::get).reversed()
+                .thenComparing(UniqueId::toString));
+
+        long[] loads = new long[shard.getCount()];
+        for (UniqueId unit : longestFirst) {
+            int lightest = 0;
+            for (int i = 1; i < loads.length; i++) {
+                if (loads[i] < loads[lightest]) {
+                    lightest = i;
+                }
+            }
+            loads[lightest] += expected.get(unit);
+            if (lightest == shard.getIndex()) {
+                mine.add(unit);
+            }
+        }
+        LOG.info("Shard {} runs {} of {} units, expected {} ms of {} ms in total.", shard, mine.size(),
+                units.size(), loads[shard.getIndex()], Arrays.stream(loads).sum());
+        return mine;
+    }
+
+    private void collectUnits(TestDescriptor descriptor, List<TestDescriptor> units) {
+        for (TestDescriptor child : descriptor.getChildren()) {
+            if (isUnit(child)) {
+                units.add(child);
+            } else {
+                collectUnits(child, units);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package execution;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.engine.UniqueId;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardFilterTest {
+    private static final List<UniqueId> UNITS = IntStream.range(0, 6)
+            .mapToObj(i -> UniqueId.forEngine("junit-jupiter").append("class", "tests.Test" + i))
+            .collect(Collectors.toList());
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Without history every unit goes to exactly one shard")
+    void hashAssignmentCoversEveryUnitOnce() {
+        DurationHistory history = DurationHistory.load(directory.resolve("durations.json"));
+
+        assertPartition(history, 3);
+    }
+
+    @Test
+    @DisplayName("With history units go longest first to the least loaded shard")
+    void balancedByDuration() {
+        DurationHistory history = DurationHistory.load(directory.resolve("durations.json"));
+        long[] millis = {600, 500, 400, 300, 200, 100};
+        for (int i = 0; i < UNITS.size(); i++) {
+            history.record(UNITS.get(i).toString(), millis[i]);
+        }
+
+        assertThat(ShardFilter.assign(UNITS, history, new Shard(0, 2)))
+                .containsExactlyInAnyOrder(UNITS.get(0), UNITS.get(3), UNITS.get(4));
+        assertThat(ShardFilter.assign(UNITS, history, new Shard(1, 2)))
+                .containsExactlyInAnyOrder(UNITS.get(1), UNITS.get(2), UNITS.get(5));
+        assertPartition(history, 4);
+    }
+
+    @Test
+    @DisplayName("Units without history are expected to take the average")
+    void unknownUnitsTakeAverage() {
+        DurationHistory history = DurationHistory.load(directory.resolve("durations.json"));
+        history.record(UNITS.get(0).toString(), 900);
+        history.record(UNITS.get(1).toString(), 100);
+
+        // 900, then four units of 500 and finally 100: shard 0 ends at 1500 ms, shard 1 at 1500 ms
+        assertThat(ShardFilter.assign(UNITS, history, new Shard(0, 2)))
+                .containsExactlyInAnyOrder(UNITS.get(0), UNITS.get(4), UNITS.get(1));
+        assertPartition(history, 2);
+    }
+
+    @Test
+    @DisplayName("Every shard computes the same assignment whatever the unit order")
+    void independentOfOrder() {
+        DurationHistory history = DurationHistory.load(directory.resolve("durations.json"));
+        history.record(UNITS.get(2).toString(), 250);
+        List<UniqueId> reversed = UNITS.stream().sorted((a, b) -> b.toString().compareTo(a.toString()))
+                .collect(Collectors.toList());
+
+        for (int index = 0; index < 3; index++) {
+            assertThat(ShardFilter.assign(reversed, history, new Shard(index, 3)))
+                    .isEqualTo(ShardFilter.assign(UNITS, history, new Shard(index, 3)));
+        }
+    }
+
+    private static void assertPartition(DurationHistory history, int count) {
+        Set<UniqueId> seen = new HashSet<>();
+        int total = 0;
+        for (int index = 0; index < count; index++) {
+            Set<UniqueId> mine = ShardFilter.assign(UNITS, history, new Shard(index, count));
+            total += mine.size();
+            seen.addAll(mine);
+        }
+        assertThat(total).isEqualTo(UNITS.size());
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(UNITS);
+    }
+}
@@ -0,0 +1,34 @@
+package execution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Results of one shard, written as JSON and merged by
+ * {@link ShardReportMerger}.
+ */
+public final class ShardReport {
+    int shardIndex;
+    int shardCount;
+    long wallMillis;
+    List<Entry> entries = new ArrayList<>();
+
+    /**
+     * Result of one test or container.
+     */
+    static final class Entry {
+        String uniqueId;
+        String displayName;
+        boolean test;
+        String status;
+        long durationMillis;
+
+        Entry(String uniqueId, String displayName, boolean test, String status, long durationMillis) {
+            this.uniqueId = uniqueId;
+            this.displayName = displayName;
+            this.test = test;
+            this.status = status;
+            this.durationMillis = durationMillis;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package execution;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import config.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges the shard reports of a split run into merged.json and records
+ * their durations into the duration history, so the next run is balanced
+ * on them, then drops the history copy the shards pinned. Run it once every
+ * shard has finished, with the report directory as the optional argument:
+ * {@code mvn exec:java -Dexec.classpathScope=test -Dexec.mainClass=execution.ShardReportMerger}.
+ */
+public final class ShardReportMerger {
+    private static final Logger LOG = LoggerFactory.getLogger(ShardReportMerger.class);
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String MERGED_FILE = "merged.json";
+
+    private ShardReportMerger() {
+    }
+
+    /**
+     * Merges the reports.
+     *
+     * @param args the report directory, defaulting to execution.shard-reports
+     * @throws IOException if the reports cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = args.length > 0 ? Paths.get(args[0]) : Configuration.getSettings().getShardReports();
+        List<ShardReport> reports = read(directory);
+        if (reports.isEmpty()) {
+            LOG.warn("No shard reports in {}", directory.toAbsolutePath());
+            return;
+        }
+
+        DurationHistory history = DurationHistory.getInstance();
+        Map<String, Object> merged = new LinkedHashMap<>();
+        List<Map<String, Object>> shards = new ArrayList<>();
+        List<ShardReport.Entry> entries = new ArrayList<>();
+        for (ShardReport report : reports) {
+            long tests = report.entries.stream().filter(entry -> entry.test).count();
+            long failed = report.entries.stream().filter(entry -> entry.test && "FAILED".equals(entry.status)).count();
+            Map<String, Object> shard = new LinkedHashMap<>();
+            shard.put("shardIndex", report.shardIndex);
+            shard.put("tests", tests);
+            shard.put("failed", failed);
+            shard.put("wallMillis", report.wallMillis);
+            shards.add(shard);
+            for (ShardReport.Entry entry : report.entries) {
+                entries.add(entry);
+                if (!"ABORTED".equals(entry.status)) {
+                    history.record(entry.uniqueId, entry.durationMillis);
+                }
+            }
+            LOG.info("Shard {}/{}: {} tests, {} failed, {} ms.", report.shardIndex + 1, report.shardCount, tests,
+                    failed, report.wallMillis);
+        }
+        merged.put("shardCount", reports.get(0).shardCount);
+        merged.put("shardsReported", reports.size());
+        merged.put("wallMillis", reports.stream().mapToLong(report -> report.wallMillis).max().orElse(0));
+        merged.put("shards", shards);
+        merged.put("entries", entries);
+
+        Path output = directory.resolve(MERGED_FILE);
+        try (Writer writer = Files.newBufferedWriter(output)) {
+            GSON.toJson(merged, writer);
+        }
+        history.save();
+        Files.deleteIfExists(directory.resolve(DurationHistory.PINNED_FILE));
+        Files.deleteIfExists(Configuration.getSettings().getShardReports().resolve(DurationHistory.PINNED_FILE));
+        if (reports.size() != reports.get(0).shardCount) {
+            LOG.warn("Only {} of {} shards reported.", reports.size(), reports.get(0).shardCount);
+        }
+        LOG.info("Merged {} shard reports into {}", reports.size(), output.toAbsolutePath());
+    }
+
+    private static List<ShardReport> read(Path directory) throws IOException {
+        List<ShardReport> reports = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return reports;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "shard-*-of-*.json")) {
+            for (Path file : files) {
+                try (Reader reader = Files.newBufferedReader(file)) {
+                    reports.add(GSON.fromJson(reader, ShardReport.class));
+                }
+            }
+        }
+        reports.sort(Comparator.comparingInt(report -> report.shardIndex));
+        return reports;
+    }
+}
@@ -0,0 +1,610 @@
+package fakebrowser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.logging.Logs;
+import pageobjects.utility.Scripts;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * In-memory WebDriver that serves HTML fixtures. It supports locating
+ * elements, visibility, clicking links and buttons, typing, form
+ * submission and cookies, and it understands the readyState, document id,
+ * click, scroll, storage, timing and DOM snapshot scripts the framework
+ * runs. Any other script is rejected as unsupported, so callers fall back
+ * to their non-script paths. Fixture scripting is available through the
+ * data-fake-click attribute, which holds actions separated by ";":
+ * "show css", "hide css" and "navigate url". Java hooks can be added with
+ * {@link #onClick(String, Consumer)}.
+ *
+ * <p>Like a real session, an instance must only be used by one thread at a
+ * time.
+ */
+public class FakeWebDriver implements WebDriver, JavascriptExecutor {
+    private static final String WINDOW_HANDLE = "fake-window";
+    private static final String BLANK_PAGE = "about:blank";
+
+    private final Fixtures fixtures;
+    private final Map<String, Cookie> cookies = new LinkedHashMap<>();
+    private final Map<String, Consumer<FakeWebDriver>> clickHooks = new LinkedHashMap<>();
+    private Document document;
+    private String currentUrl;
+    private boolean quit;
+
+    /**
+     * Instantiates a new Fake web driver serving the given fixtures.
+     *
+     * @param fixtures the fixtures
+     */
+    public FakeWebDriver(Fixtures fixtures) {
+        this.fixtures = fixtures;
+        open(URI.create(BLANK_PAGE));
+    }
+
+    /**
+     * Instantiates a new Fake web driver without fixtures.
+     */
+    public FakeWebDriver() {
+        this(Fixtures.none());
+    }
+
+    /**
+     * Replaces the current document with the given HTML.
+     *
+     * @param html the HTML
+     */
+    public void loadHtml(String html) {
+        checkSession();
+        document = Jsoup.parse(html, currentUrl);
+    }
+
+    /**
+     * Gets the live document, for tests that change the page directly.
+     *
+     * @return the document
+     */
+    public Document getDocument() {
+        return document;
+    }
+
+    /**
+     * Runs an action after any element matching the CSS selector is clicked.
+     *
+     * @param cssSelector the selector
+     * @param action      the action
+     */
+    public void onClick(String cssSelector, Consumer<FakeWebDriver> action) {
+        clickHooks.put(cssSelector, action);
+    }
+
+    @Override
+    public void get(String url) {
+        checkSession();
+        URI target = URI.create(url);
+        open(target.isAbsolute() ? target : URI.create(currentUrl).resolve(target));
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        checkSession();
+        return currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        checkSession();
+        return document.title();
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        checkSession();
+        return wrap(select(document, by));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        List<WebElement> found = findElements(by);
+        if (found.isEmpty()) {
+            throw new NoSuchElementException("No element matches " + by);
+        }
+        return found.get(0);
+    }
+
+    @Override
+    public String getPageSource() {
+        checkSession();
+        return document.outerHtml();
+    }
+
+    @Override
+    public void close() {
+        quit();
+    }
+
+    @Override
+    public void quit() {
+        quit = true;
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        checkSession();
+        return Collections.singleton(WINDOW_HANDLE);
+    }
+
+    @Override
+    public String getWindowHandle() {
+        checkSession();
+        return WINDOW_HANDLE;
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        checkSession();
+        return new FakeTargetLocator();
+    }
+
+    @Override
+    public Navigation navigate() {
+        checkSession();
+        return new Navigation() {
+            @Override
+            public void back() {
+                throw new UnsupportedCommandException("Fake driver keeps no history.");
+            }
+
+            @Override
+            public void forward() {
+                throw new UnsupportedCommandException("Fake driver keeps no history.");
+            }
+
+            @Override
+            public void to(String url) {
+                get(url);
+            }
+
+            @Override
+            public void to(URL url) {
+                get(url.toString());
+            }
+
+            @Override
+            public void refresh() {
+                open(URI.create(currentUrl));
+            }
+        };
+    }
+
+    @Override
+    public Options manage() {
+        checkSession();
+        return new FakeOptions();
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        checkSession();
+        switch (script) {
+            case Scripts.DOCUMENT_STATE:
+                return Arrays.asList(Integer.toHexString(System.identityHashCode(document)), Boolean.TRUE, origin());
+            case Scripts.READY_STATE:
+                return Boolean.TRUE;
+            case Scripts.CLICK:
+                click(unwrap(args[0]).element());
+                return null;
+            case Scripts.SCROLL_INTO_VIEW:
+                unwrap(args[0]);
+                return null;
+            case Scripts.CLEAR_STORAGE:
+                return null;
+            case Scripts.SNAPSHOT:
+                return snapshot();
+            case Scripts.TIMINGS:
+                return timings();
+            default:
+                // Callers fall back to WebDriver commands, as they would on a driver without scripting
+                throw new UnsupportedCommandException("Fake driver cannot run script: " + script);
+        }
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        throw new UnsupportedCommandException("Fake driver cannot run async scripts.");
+    }
+
+    /**
+     * Clicks an element: follows links, submits forms, toggles checkboxes and
+     * radio buttons, then runs fixture actions and click hooks.
+     */
+    void click(Element element) {
+        String type = element.attr("type").toLowerCase();
+        Element form = element.closest("form");
+        boolean submits = element.is("input[type=submit], input[type=image]")
+                || (element.is("button") && (type.isEmpty() || "submit".equals(type)));
+
+        if ("checkbox".equals(type)) {
+            toggle(element, "checked", !element.hasAttr("checked"));
+        } else if ("radio".equals(type)) {
+            if (form != null) {
+                form.select("input[type=radio][name=" + element.attr("name") + "]").removeAttr("checked");
+            }
+            toggle(element, "checked", true);
+        } else if (element.is("option")) {
+            Element select = element.closest("select");
+            if (select != null && !select.hasAttr("multiple")) {
+                select.select("option").removeAttr("selected");
+            }
+            toggle(element, "selected", true);
+        }
+
+        runFixtureActions(element);
+        for (Map.Entry<String, Consumer<FakeWebDriver>> hook : clickHooks.entrySet()) {
+            if (element.is(hook.getKey())) {
+                hook.getValue().accept(this);
+            }
+        }
+
+        Element link = element.closest("a[href]");
+        if (link != null) {
+            get(link.absUrl("href").isEmpty() ? link.attr("href") : link.absUrl("href"));
+        } else if (submits && form != null) {
+            submit(form, element);
+        }
+    }
+
+    /**
+     * Submits a form with GET, navigating to its action with the form's
+     * named values as the query string.
+     */
+    void submit(Element form, Element submitter) {
+        StringJoiner query = new StringJoiner("&");
+        for (Element field : form.select("input[name], select[name], textarea[name]")) {
+            String type = field.attr("type").toLowerCase();
+            boolean button = "submit".equals(type) || "image".equals(type) || "button".equals(type);
+            if ((button && field != submitter) || field.hasAttr("disabled")
+                    || (("checkbox".equals(type) || "radio".equals(type)) && !field.hasAttr("checked"))) {
+                continue;
+            }
+            query.add(encode(field.attr("name")) + "=" + encode(FakeWebElement.valueOf(field)));
+        }
+        String action = form.hasAttr("action") ? form.absUrl("action") : currentUrl;
+        URI target = URI.create(action.isEmpty() ? form.attr("action") : action);
+        get(URI.create(currentUrl).resolve(target).toString().replaceAll("\\?.*$", "") + "?" + query);
+    }
+
+    /**
+     * Finds elements under a root element, excluding the root itself.
+     */
+    Elements select(Element root, By by) {
+        String description = by.toString();
+        int separator = description.indexOf(": ");
+        if (!description.startsWith("By.") || separator < 0) {
+            throw new InvalidSelectorException("Fake driver cannot resolve locator: " + by);
+        }
+        String strategy = description.substring(3, separator);
+        String value = description.substring(separator + 2);
+
+        Elements found;
+        switch (strategy) {
+            case "id":
+                found = root.getElementsByAttributeValue("id", value);
+                break;
+            case "name":
+                found = root.getElementsByAttributeValue("name", value);
+                break;
+            case "className":
+                found = root.getElementsByClass(value);
+                break;
+            case "tagName":
+                found = root.getElementsByTag(value);
+                break;
+            case "cssSelector":
+                found = root.select(value);
+                break;
+            case "xpath":
+                found = root.selectXpath(value);
+                break;
+            case "linkText":
+                found = filterLinks(root, text -> text.equals(value));
+                break;
+            case "partialLinkText":
+                found = filterLinks(root, text -> text.contains(value));
+                break;
+            default:
+                throw new InvalidSelectorException("Fake driver cannot resolve locator: " + by);
+        }
+        if (!(root instanceof Document)) {
+            found.remove(root);
+        }
+        return found;
+    }
+
+    /**
+     * Whether the element belongs to the current document.
+     */
+    boolean isAttached(Element element) {
+        return !quit && element.ownerDocument() == document;
+    }
+
+    /**
+     * Answers the DOM snapshot script like a browser: the HTML of a copy of
+     * the document whose elements carry the visibility and form control value
+     * of their originals, and the number of elements outside templates.
+     */
+    private Map<String, Object> snapshot() {
+        Element root = document.child(0);
+        Element copy = root.clone();
+        List<Element> originals = root.getAllElements();
+        List<Element> copies = copy.getAllElements();
+        long count = 0;
+        for (int i = 0; i < originals.size(); i++) {
+            Element element = originals.get(i);
+            // Template contents are not elements of the document
+            if (element.parents().stream().anyMatch(parent -> parent.is("template"))) {
+                continue;
+            }
+            copies.get(i).attr(Scripts.SNAPSHOT_VISIBLE_MARK, new FakeWebElement(this, element).isDisplayed() ? "1" : "0");
+            if (element.is("input, textarea, select")) {
+                copies.get(i).attr(Scripts.SNAPSHOT_VALUE_MARK, FakeWebElement.valueOf(element));
+            }
+            count++;
+        }
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("html", copy.outerHtml());
+        snapshot.put("count", count);
+        return snapshot;
+    }
+
+    List<WebElement> wrap(Elements elements) {
+        List<WebElement> wrapped = new ArrayList<>(elements.size());
+        for (Element element : elements) {
+            wrapped.add(new FakeWebElement(this, element));
+        }
+        return wrapped;
+    }
+
+    void checkSession() {
+        if (quit) {
+            throw new NoSuchSessionException("Fake driver session has been quit.");
+        }
+    }
+
+    /**
+     * Gets the origin of the current document like location.origin: "null"
+     * for documents without a host.
+     */
+    /**
+     * Answers the timing script: no figures, and null for documents that
+     * were not loaded over http or https.
+     */
+    private Map<String, Object> timings() {
+        String scheme = URI.create(currentUrl).getScheme();
+        if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme)) {
+            return null;
+        }
+        Map<String, Object> timing = new LinkedHashMap<>();
+        timing.put("url", currentUrl);
+        timing.put("timeOrigin", (double) System.identityHashCode(document));
+        return timing;
+    }
+
+    private String origin() {
+        URI uri = URI.create(currentUrl);
+        return uri.getHost() == null ? "null" : uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+
+    private void open(URI url) {
+        currentUrl = url.toString();
+        document = fixtures.load(url);
+    }
+
+    private void runFixtureActions(Element element) {
+        Element scripted = element.closest("[data-fake-click]");
+        if (scripted == null) {
+            return;
+        }
+        for (String action : scripted.attr("data-fake-click").split(";")) {
+            String[] parts = action.trim().split("\\s+", 2);
+            if (parts.length < 2) {
+                continue;
+            }
+            switch (parts[0]) {
+                case "show":
+                    document.select(parts[1]).forEach(target -> setHidden(target, false));
+                    break;
+                case "hide":
+                    document.select(parts[1]).forEach(target -> setHidden(target, true));
+                    break;
+                case "navigate":
+                    get(parts[1]);
+                    return;
+                default:
+                    throw new UnsupportedCommandException("Unknown fixture action: " + action);
+            }
+        }
+    }
+
+    private static void setHidden(Element element, boolean hidden) {
+        toggle(element, "hidden", hidden);
+        element.attr("style", element.attr("style").replaceAll("(display|visibility)\\s*:[^;]*;?", ""));
+    }
+
+    private static void toggle(Element element, String attribute, boolean on) {
+        if (on) {
+            element.attr(attribute, "");
+        } else {
+            element.removeAttr(attribute);
+        }
+    }
+
+    private static Elements filterLinks(Element root, java.util.function.Predicate<String> matches) {
+        Elements links = new Elements();
+        for (Element link : root.getElementsByTag("a")) {
+            if (matches.test(link.text())) {
+                links.add(link);
+            }
+        }
+        return links;
+    }
+
+    private FakeWebElement unwrap(Object argument) {
+        Object element = argument instanceof WrapsElement ? ((WrapsElement) argument).getWrappedElement() : argument;
+        if (!(element instanceof FakeWebElement)) {
+            throw new UnsupportedCommandException("Fake driver cannot use script argument: " + argument);
+        }
+        FakeWebElement fake = (FakeWebElement) element;
+        fake.checkAttached();
+        return fake;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Options with working cookies; everything else is unsupported.
+     */
+    private final class FakeOptions implements Options {
+        @Override
+        public void addCookie(Cookie cookie) {
+            cookies.put(cookie.getName(), cookie);
+        }
+
+        @Override
+        public void deleteCookieNamed(String name) {
+            cookies.remove(name);
+        }
+
+        @Override
+        public void deleteCookie(Cookie cookie) {
+            cookies.remove(cookie.getName());
+        }
+
+        @Override
+        public void deleteAllCookies() {
+            cookies.clear();
+        }
+
+        @Override
+        public Set<Cookie> getCookies() {
+            return new java.util.LinkedHashSet<>(cookies.values());
+        }
+
+        @Override
+        public Cookie getCookieNamed(String name) {
+            return cookies.get(name);
+        }
+
+        @Override
+        public Timeouts timeouts() {
+            return new Timeouts() {
+                @Override
+                public Timeouts implicitlyWait(long time, TimeUnit unit) {
+                    return this;
+                }
+
+                @Override
+                public Timeouts setScriptTimeout(long time, TimeUnit unit) {
+                    return this;
+                }
+
+                @Override
+                public Timeouts pageLoadTimeout(long time, TimeUnit unit) {
+                    return this;
+                }
+            };
+        }
+
+        @Override
+        public ImeHandler ime() {
+            throw new UnsupportedCommandException("Fake driver has no IME.");
+        }
+
+        @Override
+        public Window window() {
+            throw new UnsupportedCommandException("Fake driver has no window manager.");
+        }
+
+        @Override
+        public Logs logs() {
+            throw new UnsupportedCommandException("Fake driver has no logs.");
+        }
+    }
+
+    /**
+     * Switches between the single window and its document only.
+     */
+    private final class FakeTargetLocator implements TargetLocator {
+        @Override
+        public WebDriver frame(int index) {
+            throw new UnsupportedCommandException("Fake driver has no frames.");
+        }
+
+        @Override
+        public WebDriver frame(String nameOrId) {
+            throw new UnsupportedCommandException("Fake driver has no frames.");
+        }
+
+        @Override
+        public WebDriver frame(WebElement frameElement) {
+            throw new UnsupportedCommandException("Fake driver has no frames.");
+        }
+
+        @Override
+        public WebDriver parentFrame() {
+            return FakeWebDriver.this;
+        }
+
+        @Override
+        public WebDriver window(String nameOrHandle) {
+            if (!WINDOW_HANDLE.equals(nameOrHandle)) {
+                throw new NoSuchWindowException("No window " + nameOrHandle);
+            }
+            return FakeWebDriver.this;
+        }
+
+        @Override
+        public WebDriver defaultContent() {
+            return FakeWebDriver.this;
+        }
+
+        @Override
+        public WebElement activeElement() {
+            return new FakeWebElement(FakeWebDriver.this, document.body());
+        }
+
+        @Override
+        public Alert alert() {
+            throw new UnsupportedCommandException("Fake driver has no alerts.");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package fakebrowser;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebElement;
+import pageobjects.utility.Scripts;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FakeWebDriverTest {
+    private static final String PAGE = "<html><head><title>Fake</title></head><body>"
+            + "<button id='open' data-fake-click='show #menu'>Open</button>"
+            + "<div id='menu' hidden>Menu</div>"
+            + "</body></html>";
+
+    @Test
+    @DisplayName("Framework scripts are answered by their exact text")
+    void runsFrameworkScripts() {
+        FakeWebDriver driver = new FakeWebDriver();
+        driver.get("https://example.com/start");
+        driver.loadHtml(PAGE);
+
+        driver.executeScript(Scripts.CLICK, driver.findElement(By.id("open")));
+
+        assertThat(driver.executeScript(Scripts.READY_STATE)).isEqualTo(Boolean.TRUE);
+        assertThat((List<?>) driver.executeScript(Scripts.DOCUMENT_STATE)).element(2).isEqualTo("https://example.com");
+        assertThat(driver.findElement(By.id("menu")).isDisplayed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Any other script is rejected, including near copies of framework scripts")
+    void rejectsOtherScripts() {
+        FakeWebDriver driver = new FakeWebDriver();
+        driver.loadHtml(PAGE);
+        WebElement button = driver.findElement(By.id("open"));
+
+        assertThatThrownBy(() -> driver.executeScript("arguments[0].click()", button))
+                .isInstanceOf(UnsupportedCommandException.class);
+        assertThatThrownBy(() -> driver.executeScript("return document.readyState"))
+                .isInstanceOf(UnsupportedCommandException.class);
+        assertThat(driver.findElement(By.id("menu")).isDisplayed()).isFalse();
+    }
+}
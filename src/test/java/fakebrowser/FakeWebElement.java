@@ -0,0 +1,265 @@
+package fakebrowser;
+
+import org.jsoup.nodes.Element;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Element of a {@link FakeWebDriver} document. It goes stale once the
+ * driver navigates away or the element is removed from the page.
+ */
+public class FakeWebElement implements WebElement, WrapsDriver {
+    private static final Set<String> NEVER_RENDERED = Set.of("head", "script", "style", "title", "meta", "link",
+            "template", "noscript");
+    private static final Set<String> BOOLEAN_ATTRIBUTES = Set.of("checked", "selected", "disabled", "readonly",
+            "required", "multiple", "hidden");
+
+    private final FakeWebDriver driver;
+    private final Element element;
+
+    /**
+     * Instantiates a new Fake web element.
+     *
+     * @param driver  the driver
+     * @param element the parsed element
+     */
+    FakeWebElement(FakeWebDriver driver, Element element) {
+        this.driver = driver;
+        this.element = element;
+    }
+
+    /**
+     * Gets the parsed element.
+     *
+     * @return the element
+     */
+    public Element element() {
+        return element;
+    }
+
+    @Override
+    public void click() {
+        checkInteractable();
+        driver.click(element);
+    }
+
+    @Override
+    public void submit() {
+        checkAttached();
+        Element form = element.closest("form");
+        if (form == null) {
+            throw new UnsupportedOperationException("Element is not in a form: " + this);
+        }
+        driver.submit(form, null);
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        checkInteractable();
+        StringBuilder value = new StringBuilder(valueOf(element));
+        for (CharSequence keys : keysToSend) {
+            for (int i = 0; i < keys.length(); i++) {
+                char key = keys.charAt(i);
+                if (key == Keys.ENTER.charAt(0) || key == Keys.RETURN.charAt(0)) {
+                    setValue(value.toString());
+                    Element form = element.closest("form");
+                    if (form != null) {
+                        driver.submit(form, null);
+                        return;
+                    }
+                } else if (key == Keys.BACK_SPACE.charAt(0)) {
+                    value.setLength(Math.max(0, value.length() - 1));
+                } else if (key < Keys.NULL.charAt(0) || key > Keys.ZENKAKU_HANKAKU.charAt(0)) {
+                    value.append(key);
+                }
+            }
+        }
+        setValue(value.toString());
+    }
+
+    @Override
+    public void clear() {
+        checkInteractable();
+        setValue("");
+    }
+
+    @Override
+    public String getTagName() {
+        checkAttached();
+        return element.tagName();
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        checkAttached();
+        String key = name.toLowerCase(Locale.ROOT);
+        if ("innertext".equals(key)) {
+            return isDisplayed() ? element.text() : "";
+        }
+        if ("textcontent".equals(key)) {
+            return element.wholeText();
+        }
+        if ("value".equals(key) && (element.is("input, textarea, select, option, button"))) {
+            return valueOf(element);
+        }
+        if (BOOLEAN_ATTRIBUTES.contains(key)) {
+            return element.hasAttr(key) ? "true" : null;
+        }
+        return element.hasAttr(name) ? element.attr(name) : null;
+    }
+
+    @Override
+    public boolean isSelected() {
+        checkAttached();
+        return element.hasAttr("checked") || element.hasAttr("selected");
+    }
+
+    @Override
+    public boolean isEnabled() {
+        checkAttached();
+        return element.closest("[disabled]") == null;
+    }
+
+    @Override
+    public String getText() {
+        checkAttached();
+        return isDisplayed() ? element.text() : "";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        checkAttached();
+        return driver.wrap(driver.select(element, by));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        List<WebElement> found = findElements(by);
+        if (found.isEmpty()) {
+            throw new NoSuchElementException("No child element matches " + by);
+        }
+        return found.get(0);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        checkAttached();
+        if ("hidden".equalsIgnoreCase(element.attr("type")) && element.is("input")) {
+            return false;
+        }
+        for (Element current = element; current != null; current = current.parent()) {
+            String style = current.attr("style").replace(" ", "").toLowerCase(Locale.ROOT);
+            if (NEVER_RENDERED.contains(current.tagName()) || current.hasAttr("hidden")
+                    || style.contains("display:none") || style.contains("visibility:hidden")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Point getLocation() {
+        checkAttached();
+        return new Point(0, 0);
+    }
+
+    @Override
+    public Dimension getSize() {
+        return isDisplayed() ? new Dimension(100, 20) : new Dimension(0, 0);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return new Rectangle(getLocation(), getSize());
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        checkAttached();
+        for (String declaration : element.attr("style").split(";")) {
+            int colon = declaration.indexOf(':');
+            if (colon > 0 && declaration.substring(0, colon).trim().equalsIgnoreCase(propertyName)) {
+                return declaration.substring(colon + 1).trim();
+            }
+        }
+        return "";
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        throw new UnsupportedOperationException("Fake elements cannot take screenshots.");
+    }
+
+    @Override
+    public WebDriver getWrappedDriver() {
+        return driver;
+    }
+
+    /**
+     * Gets the current value of a form control.
+     *
+     * @param element the control
+     * @return the value, empty if it has none
+     */
+    static String valueOf(Element element) {
+        if (element.is("textarea")) {
+            return element.hasAttr("value") ? element.attr("value") : element.wholeText();
+        }
+        if (element.is("select")) {
+            Element option = element.selectFirst("option[selected]");
+            option = option != null ? option : element.selectFirst("option");
+            return option == null ? "" : valueOf(option);
+        }
+        if (element.is("option") && !element.hasAttr("value")) {
+            return element.text();
+        }
+        return element.attr("value");
+    }
+
+    void checkAttached() {
+        driver.checkSession();
+        if (!driver.isAttached(element)) {
+            throw new StaleElementReferenceException("Element is no longer attached to the page: " + this);
+        }
+    }
+
+    private void checkInteractable() {
+        checkAttached();
+        if (!isDisplayed() || !isEnabled()) {
+            throw new ElementNotInteractableException("Element is not interactable: " + this);
+        }
+    }
+
+    private void setValue(String value) {
+        element.attr("value", value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof FakeWebElement && ((FakeWebElement) o).element == element;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(element);
+    }
+
+    @Override
+    public String toString() {
+        return "FakeWebElement<" + element.cssSelector() + ">";
+    }
+}
@@ -0,0 +1,85 @@
+package fakebrowser;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * HTML fixtures served by {@link FakeWebDriver}, loaded from a classpath
+ * directory. A URL path maps to a file in that directory: "/" is
+ * index.html and "/search" is search.html. Scheme, host and query string
+ * are ignored. Parsed fixtures are cached, and each navigation gets its own
+ * copy.
+ */
+public final class Fixtures {
+    private static final String NOT_FOUND = "<html><head><title>404</title></head>"
+            + "<body><h1>404 Not Found</h1></body></html>";
+    private static final ConcurrentMap<String, Optional<Document>> CACHE = new ConcurrentHashMap<>();
+
+    private final String root;
+
+    private Fixtures(String root) {
+        this.root = root;
+    }
+
+    /**
+     * Serves fixtures from a classpath directory.
+     *
+     * @param root the classpath directory, e.g. "fixtures/google"
+     * @return the fixtures
+     */
+    public static Fixtures fromClasspath(String root) {
+        return new Fixtures(root.endsWith("/") ? root.substring(0, root.length() - 1) : root);
+    }
+
+    /**
+     * Serves no fixtures; every page is a 404 unless content is loaded
+     * directly into the driver.
+     *
+     * @return the fixtures
+     */
+    public static Fixtures none() {
+        return new Fixtures(null);
+    }
+
+    /**
+     * Loads a fresh copy of the document for a URL.
+     *
+     * @param url the URL
+     * @return the document
+     */
+    Document load(URI url) {
+        if ("about".equals(url.getScheme())) {
+            return Jsoup.parse("<html><head></head><body></body></html>", url.toString());
+        }
+        Document document = root == null ? null : CACHE.computeIfAbsent(resourceFor(url), Fixtures::parse).orElse(null);
+        Document copy = document == null ? Jsoup.parse(NOT_FOUND) : document.clone();
+        copy.setBaseUri(url.toString());
+        return copy;
+    }
+
+    private String resourceFor(URI url) {
+        String path = url.getPath() == null ? "" : url.getPath();
+        path = path.replaceAll("^/+|/+$", "");
+        return root + "/" + (path.isEmpty() ? "index" : path) + ".html";
+    }
+
+    private static Optional<Document> parse(String resource) {
+        try (InputStream in = Fixtures.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                return Optional.empty();
+            }
+            return Optional.of(Jsoup.parse(in, StandardCharsets.UTF_8.name(), ""));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read fixture " + resource, e);
+        }
+    }
+}
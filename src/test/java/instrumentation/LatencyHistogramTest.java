@@ -0,0 +1,77 @@
+package instrumentation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Empty histogram reports zero")
+    void empty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getMaxMicros()).isZero();
+        assertThat(histogram.getPercentileMicros(50)).isZero();
+    }
+
+    @Test
+    @DisplayName("Values below 16 microseconds are exact")
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 10; micros++) {
+            histogram.record(micros * 1_000L);
+        }
+
+        assertThat(histogram.getPercentileMicros(50)).isEqualTo(5);
+        assertThat(histogram.getPercentileMicros(90)).isEqualTo(9);
+        assertThat(histogram.getPercentileMicros(100)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Percentiles are within the bucket precision and never above the max")
+    void percentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 1_000; millis++) {
+            histogram.record(millis * 1_000_000L);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(1_000);
+        assertThat(histogram.getMaxMicros()).isEqualTo(1_000_000);
+        assertThat(histogram.getPercentileMicros(50)).isCloseTo(500_000L, within(500_000L / 16));
+        assertThat(histogram.getPercentileMicros(99)).isCloseTo(990_000L, within(990_000L / 16));
+        assertThat(histogram.getPercentileMicros(100)).isEqualTo(1_000_000);
+    }
+
+    @Test
+    @DisplayName("Negative latencies count as zero")
+    void negativeIsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5_000);
+
+        assertThat(histogram.getCount()).isEqualTo(1);
+        assertThat(histogram.getPercentileMicros(100)).isZero();
+    }
+
+    @Test
+    @DisplayName("Adding a histogram merges counts and max")
+    void add() {
+        LatencyHistogram fast = new LatencyHistogram();
+        LatencyHistogram slow = new LatencyHistogram();
+        for (int i = 0; i < 9; i++) {
+            fast.record(1_000_000);
+        }
+        slow.record(50_000_000);
+
+        fast.add(slow);
+
+        assertThat(fast.getCount()).isEqualTo(10);
+        assertThat(fast.getMaxMicros()).isEqualTo(50_000);
+        assertThat(fast.getPercentileMicros(90)).isCloseTo(1_000L, within(1_000L / 16));
+        assertThat(fast.getPercentileMicros(95)).isEqualTo(50_000);
+        assertThat(slow.getCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,269 @@
+package instrumentation;
+
+import config.Configuration;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JVM-wide latency registry. Latencies are kept in one histogram per
+ * operation and locator. Per test only the count and total time of each
+ * operation are kept, so the registry does not grow a histogram for every
+ * test.
+ */
+public final class Metrics {
+    private static final Logger LOG = LoggerFactory.getLogger(Metrics.class);
+    private static final boolean ENABLED = Configuration.getSettings().isMetricsEnabled();
+    private static final String NO_TEST = "-";
+    private static final String PROXY_PREFIX = "Proxy element for: ";
+
+    private static final ConcurrentMap<Key, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ConcurrentMap<String, Totals>> TEST_TOTALS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> CURRENT_TEST = ThreadLocal.withInitial(() -> NO_TEST);
+
+    private Metrics() {
+    }
+
+    /**
+     * Sets the test that latencies recorded on this thread belong to.
+     *
+     * @param testName the test name, unique within the run, or null to
+     *                 clear it
+     */
+    public static void setCurrentTest(String testName) {
+        if (testName == null) {
+            CURRENT_TEST.remove();
+        } else {
+            CURRENT_TEST.set(testName);
+        }
+    }
+
+    /**
+     * Gets the test that latencies recorded on this thread belong to, so
+     * work handed to other threads can be attributed to it.
+     *
+     * @return the test name, or null if none is set
+     */
+    public static String getCurrentTest() {
+        String testName = CURRENT_TEST.get();
+        return NO_TEST.equals(testName) ? null : testName;
+    }
+
+    /**
+     * Gets a start timestamp for {@link #record(String, Object, long)}.
+     *
+     * @return the start time in nanoseconds
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time elapsed since the start timestamp.
+     *
+     * @param operation the operation name
+     * @param target    the WebElement, By or locator string the operation
+     *                  acted on, or null
+     * @param start     the start timestamp from {@link #start()}
+     */
+    public static void record(String operation, Object target, long start) {
+        if (ENABLED) {
+            recordNanos(operation, describe(target), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records the time elapsed since the start timestamp for the given test,
+     * from whichever thread the operation finished on.
+     *
+     * @param operation the operation name
+     * @param target    the WebElement, By or locator string the operation
+     *                  acted on, or null
+     * @param start     the start timestamp from {@link #start()}
+     * @param testName  the test from {@link #getCurrentTest()}, or null
+     */
+    public static void record(String operation, Object target, long start, String testName) {
+        if (ENABLED) {
+            recordNanos(operation, describe(target), System.nanoTime() - start,
+                    testName == null ? NO_TEST : testName);
+        }
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param operation the operation name
+     * @param locator   the locator the operation acted on, or null
+     * @param nanos     the latency in nanoseconds
+     */
+    static void recordNanos(String operation, String locator, long nanos) {
+        recordNanos(operation, locator, nanos, CURRENT_TEST.get());
+    }
+
+    private static void recordNanos(String operation, String locator, long nanos, String testName) {
+        Key key = new Key(operation, locator);
+        LatencyHistogram histogram = HISTOGRAMS.get(key);
+        if (histogram == null) {
+            histogram = HISTOGRAMS.computeIfAbsent(key, k -> new LatencyHistogram());
+        }
+        histogram.record(nanos);
+        if (!NO_TEST.equals(testName)) {
+            TEST_TOTALS.computeIfAbsent(testName, test -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(operation, op -> new Totals())
+                    .add(nanos);
+        }
+    }
+
+    /**
+     * Counts an event, e.g. a cache hit.
+     *
+     * @param counter the counter name
+     */
+    public static void count(String counter) {
+        if (ENABLED) {
+            COUNTERS.computeIfAbsent(counter, name -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Times every command the driver sends. Only drivers based on
+     * RemoteWebDriver can be instrumented; others are returned unchanged.
+     *
+     * @param driver the driver
+     * @return the same driver
+     */
+    public static WebDriver instrument(WebDriver driver) {
+        if (!ENABLED || !(driver instanceof RemoteWebDriver)) {
+            return driver;
+        }
+        RemoteWebDriver remote = (RemoteWebDriver) driver;
+        CommandExecutor executor = remote.getCommandExecutor();
+        if (executor instanceof TimedCommandExecutor) {
+            return driver;
+        }
+        try {
+            Method setter = RemoteWebDriver.class.getDeclaredMethod("setCommandExecutor", CommandExecutor.class);
+            setter.setAccessible(true);
+            setter.invoke(remote, new TimedCommandExecutor(executor));
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            LOG.warn("Could not instrument driver commands: {}", e.toString());
+        }
+        return driver;
+    }
+
+    /**
+     * Gets a copy of the recorded histograms.
+     *
+     * @return the histograms by key
+     */
+    static Map<Key, LatencyHistogram> snapshot() {
+        return new ConcurrentHashMap<>(HISTOGRAMS);
+    }
+
+    /**
+     * Gets the count and total time of each operation per test.
+     *
+     * @return the totals by operation by test, in name order
+     */
+    static Map<String, Map<String, Totals>> testTotals() {
+        Map<String, Map<String, Totals>> totals = new TreeMap<>();
+        TEST_TOTALS.forEach((test, operations) -> totals.put(test, new TreeMap<>(operations)));
+        return totals;
+    }
+
+    /**
+     * Gets the current counts.
+     *
+     * @return the counts by counter name, in name order
+     */
+    static Map<String, Long> counters() {
+        Map<String, Long> counts = new TreeMap<>();
+        COUNTERS.forEach((name, count) -> counts.put(name, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Whether latencies are being recorded.
+     *
+     * @return true if enabled
+     */
+    static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    private static String describe(Object target) {
+        if (target == null) {
+            return null;
+        }
+        if (target instanceof By || target instanceof String) {
+            return target.toString();
+        }
+        // PageFactory proxies describe their locator; raw elements only have a session-specific id
+        String description = target.toString();
+        return description.startsWith(PROXY_PREFIX) ? description.substring(PROXY_PREFIX.length()) : "element";
+    }
+
+    /**
+     * Histogram key.
+     */
+    static final class Key {
+        final String operation;
+        final String locator;
+
+        Key(String operation, String locator) {
+            this.operation = operation;
+            this.locator = locator;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return operation.equals(key.operation) && Objects.equals(locator, key.locator);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(operation, locator);
+        }
+    }
+
+    /**
+     * Count and total time of an operation in one test.
+     */
+    static final class Totals {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        void add(long latencyNanos) {
+            count.increment();
+            nanos.add(latencyNanos);
+        }
+
+        long getCount() {
+            return count.sum();
+        }
+
+        long getNanos() {
+            return nanos.sum();
+        }
+    }
+}
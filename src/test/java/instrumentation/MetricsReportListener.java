@@ -0,0 +1,105 @@
+package instrumentation;
+
+import config.Configuration;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes a latency summary with counts, p50, p99 and max per operation and
+ * locator, the count and mean per test, and the event counters at the end
+ * of the test run, and the page timings as JSON.
+ */
+public class MetricsReportListener implements TestExecutionListener {
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsReportListener.class);
+    private static final String SUMMARY_FILE = "latency-summary.txt";
+    private static final String TIMINGS_FILE = "page-timings.json";
+    private static final String TOTAL_FORMAT = "%-40s %8s %10s %10s %10s%n";
+    private static final String COUNTER_FORMAT = "%-40s %8d%n";
+    private static final String ROW_FORMAT = "%-40s %-50s %8s %10s %10s %10s%n";
+    private static final String TEST_FORMAT = "%-40s %8s %10s %10s  %s%n";
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (!Metrics.isEnabled()) {
+            return;
+        }
+        Path summary = Configuration.getSettings().getMetricsOutput().resolve(SUMMARY_FILE);
+        try {
+            Files.createDirectories(summary.getParent());
+            try (Writer writer = Files.newBufferedWriter(summary)) {
+                write(new PrintWriter(writer), Metrics.snapshot(), Metrics.testTotals(), Metrics.counters());
+            }
+            LOG.info("Latency summary written to {}", summary.toAbsolutePath());
+        } catch (IOException e) {
+            LOG.error("Could not write latency summary: ", e);
+        }
+        if (!PageTimings.isEmpty()) {
+            Path timings = summary.resolveSibling(TIMINGS_FILE);
+            try {
+                PageTimings.writeJson(timings);
+                LOG.info("Page timings written to {}", timings.toAbsolutePath());
+            } catch (IOException e) {
+                LOG.error("Could not write page timings: ", e);
+            }
+        }
+    }
+
+    private static void write(PrintWriter out, Map<Metrics.Key, LatencyHistogram> histograms,
+                              Map<String, Map<String, Metrics.Totals>> testTotals, Map<String, Long> counters) {
+        Map<String, LatencyHistogram> byOperation = new TreeMap<>();
+        histograms.forEach((key, histogram) ->
+                byOperation.computeIfAbsent(key.operation, operation -> new LatencyHistogram()).add(histogram));
+
+        out.println("# Totals per operation (ms)");
+        out.printf(TOTAL_FORMAT, "operation", "count", "p50", "p99", "max");
+        byOperation.forEach((operation, histogram) -> out.printf(TOTAL_FORMAT, operation, histogram.getCount(),
+                millis(histogram.getPercentileMicros(50)), millis(histogram.getPercentileMicros(99)),
+                millis(histogram.getMaxMicros())));
+
+        if (!counters.isEmpty()) {
+            out.println();
+            out.println("# Counters");
+            counters.forEach((name, count) -> out.printf(COUNTER_FORMAT, name, count));
+        }
+
+        out.println();
+        out.println("# Per operation and locator (ms)");
+        out.printf(ROW_FORMAT, "operation", "locator", "count", "p50", "p99", "max");
+        List<Map.Entry<Metrics.Key, LatencyHistogram>> rows = new ArrayList<>(histograms.entrySet());
+        rows.sort(Comparator.comparing((Map.Entry<Metrics.Key, LatencyHistogram> e) -> e.getKey().operation)
+                .thenComparing(e -> String.valueOf(e.getKey().locator)));
+        for (Map.Entry<Metrics.Key, LatencyHistogram> row : rows) {
+            LatencyHistogram histogram = row.getValue();
+            out.printf(ROW_FORMAT, row.getKey().operation, String.valueOf(row.getKey().locator),
+                    histogram.getCount(), millis(histogram.getPercentileMicros(50)),
+                    millis(histogram.getPercentileMicros(99)), millis(histogram.getMaxMicros()));
+        }
+
+        if (!testTotals.isEmpty()) {
+            out.println();
+            out.println("# Per test and operation (ms)");
+            out.printf(TEST_FORMAT, "operation", "count", "total", "mean", "test");
+            testTotals.forEach((test, operations) -> operations.forEach((operation, totals) ->
+                    out.printf(TEST_FORMAT, operation, totals.getCount(), millis(totals.getNanos() / 1_000),
+                            millis(totals.getNanos() / 1_000 / Math.max(1, totals.getCount())), test)));
+        }
+        out.flush();
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+}
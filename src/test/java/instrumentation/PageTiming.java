@@ -0,0 +1,91 @@
+package instrumentation;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Timing of one page load. Metrics the browser did not report, e.g. the
+ * load event while the page is still loading, are absent.
+ */
+public final class PageTiming {
+    private final String page;
+    private final String test;
+    private final String url;
+    private final double timeOrigin;
+    private final Map<TimingMetric, Long> metrics;
+
+    /**
+     * Instantiates a new Page timing.
+     *
+     * @param page       the page label, or null if not known yet
+     * @param test       the test that loaded the page, or null
+     * @param url        the page URL
+     * @param timeOrigin the browser's time origin of the document, which
+     *                   identifies it
+     * @param metrics    the reported metrics
+     */
+    public PageTiming(String page, String test, String url, double timeOrigin, Map<TimingMetric, Long> metrics) {
+        this.page = page;
+        this.test = test;
+        this.url = url;
+        this.timeOrigin = timeOrigin;
+        this.metrics = Collections.unmodifiableMap(metrics.isEmpty()
+                ? new EnumMap<>(TimingMetric.class) : new EnumMap<>(metrics));
+    }
+
+    /**
+     * Returns a copy labelled with the page.
+     *
+     * @param pageLabel the page label
+     * @return the labelled copy
+     */
+    public PageTiming withPage(String pageLabel) {
+        return new PageTiming(pageLabel, test, url, timeOrigin, metrics);
+    }
+
+    /**
+     * Gets the page label, e.g. the page object's class name.
+     *
+     * @return the page label, or null if not known
+     */
+    public String getPage() {
+        return page;
+    }
+
+    /**
+     * Gets the test that loaded the page.
+     *
+     * @return the test name, or null
+     */
+    public String getTest() {
+        return test;
+    }
+
+    /**
+     * Gets the page URL.
+     *
+     * @return the url
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Gets the browser's time origin of the document.
+     *
+     * @return the time origin in epoch milliseconds
+     */
+    public double getTimeOrigin() {
+        return timeOrigin;
+    }
+
+    /**
+     * Gets the reported metrics.
+     *
+     * @return the metrics
+     */
+    public Map<TimingMetric, Long> getMetrics() {
+        return metrics;
+    }
+}
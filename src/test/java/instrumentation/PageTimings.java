@@ -0,0 +1,166 @@
+package instrumentation;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * JVM-wide record of page load timings, queried per page and per test, and
+ * written as JSON at the end of the run for trend tracking.
+ */
+public final class PageTimings {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final double[] REPORTED_PERCENTILES = {50, 95};
+    private static final ConcurrentLinkedQueue<PageTiming> SAMPLES = new ConcurrentLinkedQueue<>();
+
+    private PageTimings() {
+    }
+
+    /**
+     * Records a page load.
+     *
+     * @param timing the timing
+     */
+    public static void record(PageTiming timing) {
+        if (Metrics.isEnabled()) {
+            SAMPLES.add(timing);
+        }
+    }
+
+    /**
+     * Replaces a recorded page load with a later sample of the same document,
+     * which may have more metrics or a page label.
+     *
+     * @param recorded the recorded timing
+     * @param timing   the replacement
+     */
+    public static void replace(PageTiming recorded, PageTiming timing) {
+        if (SAMPLES.remove(recorded)) {
+            SAMPLES.add(timing);
+        }
+    }
+
+    /**
+     * Gets a percentile of a metric over every recorded load of a page.
+     *
+     * @param page       the page label
+     * @param metric     the metric
+     * @param percentile the percentile, between 0 and 100
+     * @return the value, if the page was loaded and reported the metric
+     */
+    public static OptionalLong percentile(String page, TimingMetric metric, double percentile) {
+        return percentile(timing -> page.equals(timing.getPage()), metric, percentile);
+    }
+
+    /**
+     * Gets a percentile of a metric over the loads of a page in one test.
+     *
+     * @param page       the page label
+     * @param test       the test name
+     * @param metric     the metric
+     * @param percentile the percentile, between 0 and 100
+     * @return the value, if the test loaded the page and it reported the
+     *         metric
+     */
+    public static OptionalLong percentile(String page, String test, TimingMetric metric, double percentile) {
+        return percentile(timing -> page.equals(timing.getPage()) && test.equals(timing.getTest()), metric,
+                percentile);
+    }
+
+    /**
+     * Gets the number of recorded loads of a page.
+     *
+     * @param page the page label
+     * @return the sample count
+     */
+    public static long count(String page) {
+        return SAMPLES.stream().filter(timing -> page.equals(timing.getPage())).count();
+    }
+
+    /**
+     * Writes every page load, and percentiles per page and metric, as JSON.
+     *
+     * @param file the file
+     * @throws IOException if the file cannot be written
+     */
+    static void writeJson(Path file) throws IOException {
+        List<PageTiming> samples = new ArrayList<>(SAMPLES);
+        Map<String, Object> pages = new TreeMap<>();
+        samples.stream().map(PageTimings::pageOf).distinct().forEach(page -> {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            List<PageTiming> loads = samples.stream().filter(timing -> page.equals(pageOf(timing)))
+                    .collect(Collectors.toList());
+            summary.put("count", loads.size());
+            for (TimingMetric metric : TimingMetric.values()) {
+                List<Long> values = valuesOf(loads, metric);
+                if (!values.isEmpty()) {
+                    Map<String, Long> stats = new LinkedHashMap<>();
+                    for (double percentile : REPORTED_PERCENTILES) {
+                        stats.put("p" + (int) percentile, percentileOf(values, percentile));
+                    }
+                    stats.put("max", values.get(values.size() - 1));
+                    summary.put(metric.name(), stats);
+                }
+            }
+            pages.put(page, summary);
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("pages", pages);
+        report.put("loads", samples);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            GSON.toJson(report, writer);
+        }
+    }
+
+    /**
+     * Whether any page load was recorded.
+     *
+     * @return true if there are none
+     */
+    static boolean isEmpty() {
+        return SAMPLES.isEmpty();
+    }
+
+    private static OptionalLong percentile(Predicate<PageTiming> filter, TimingMetric metric, double percentile) {
+        List<Long> values = valuesOf(SAMPLES.stream().filter(filter).collect(Collectors.toList()), metric);
+        return values.isEmpty() ? OptionalLong.empty() : OptionalLong.of(percentileOf(values, percentile));
+    }
+
+    /**
+     * Gets the metric's values, sorted.
+     */
+    private static List<Long> valuesOf(List<PageTiming> loads, TimingMetric metric) {
+        List<Long> values = loads.stream().map(timing -> timing.getMetrics().get(metric))
+                .filter(value -> value != null).collect(Collectors.toList());
+        Collections.sort(values);
+        return values;
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values.
+     */
+    private static long percentileOf(List<Long> sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100 * sorted.size());
+        return sorted.get(Math.min(sorted.size() - 1, Math.max(0, rank - 1)));
+    }
+
+    private static String pageOf(PageTiming timing) {
+        return timing.getPage() == null ? timing.getUrl() : timing.getPage();
+    }
+}
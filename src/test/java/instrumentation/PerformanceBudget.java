@@ -0,0 +1,43 @@
+package instrumentation;
+
+import org.assertj.core.api.AbstractLongAssert;
+import org.assertj.core.api.SoftAssertions;
+
+/**
+ * Soft assertions on page load timings, e.g.
+ * {@code budget.expect("GoogleHomePage", TimingMetric.LOAD, 95).isLessThan(1500)}.
+ * Percentiles cover every load of the page recorded in this JVM so far, so
+ * they become meaningful once several tests have loaded it.
+ */
+public final class PerformanceBudget {
+    private final SoftAssertions softly;
+
+    /**
+     * Instantiates a new Performance budget.
+     *
+     * @param softly the soft assertions failures are collected in
+     */
+    public PerformanceBudget(SoftAssertions softly) {
+        this.softly = softly;
+    }
+
+    /**
+     * Starts an assertion on a percentile of a page's metric. A page that was
+     * never loaded, or never reported the metric, fails the assertion.
+     *
+     * @param page       the page label, the page object's class name
+     * @param metric     the metric
+     * @param percentile the percentile, between 0 and 100
+     * @return the assertion on the value in milliseconds, or bytes or a count
+     *         for the non-time metrics
+     */
+    public AbstractLongAssert<?> expect(String page, TimingMetric metric, double percentile) {
+        Long value = PageTimings.percentile(page, metric, percentile).stream().boxed().findFirst().orElse(null);
+        return softly.assertThat(value).as("%s %s p%s over %d loads", page, metric, format(percentile),
+                PageTimings.count(page));
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
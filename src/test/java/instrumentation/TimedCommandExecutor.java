@@ -0,0 +1,36 @@
+package instrumentation;
+
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.Response;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Records the latency of every command a driver sends, tagged with the
+ * command name and, for element lookups, the locator.
+ */
+final class TimedCommandExecutor implements CommandExecutor {
+    private final CommandExecutor delegate;
+
+    TimedCommandExecutor(CommandExecutor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(Command command) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return delegate.execute(command);
+        } finally {
+            Metrics.recordNanos("driver." + command.getName(), locatorOf(command), System.nanoTime() - start);
+        }
+    }
+
+    private static String locatorOf(Command command) {
+        Map<String, ?> parameters = command.getParameters();
+        Object using = parameters.get("using");
+        return using == null ? null : using + ": " + parameters.get("value");
+    }
+}
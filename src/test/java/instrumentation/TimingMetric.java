@@ -0,0 +1,40 @@
+package instrumentation;
+
+/**
+ * Page load figures taken from the browser's Navigation, Paint and Resource
+ * Timing APIs. Times are milliseconds from the start of the navigation.
+ */
+public enum TimingMetric {
+    /**
+     * Time to the first byte of the document response.
+     */
+    TTFB,
+    /**
+     * Time to the end of the DOMContentLoaded event.
+     */
+    DOM_CONTENT_LOADED,
+    /**
+     * Time to the end of the load event.
+     */
+    LOAD,
+    /**
+     * Time to the first paint.
+     */
+    FIRST_PAINT,
+    /**
+     * Time to the first paint with content.
+     */
+    FIRST_CONTENTFUL_PAINT,
+    /**
+     * Duration of the slowest resource the page loaded.
+     */
+    SLOWEST_RESOURCE,
+    /**
+     * Number of resources the page loaded; a count, not a time.
+     */
+    RESOURCE_COUNT,
+    /**
+     * Bytes transferred for the page's resources; a size, not a time.
+     */
+    TRANSFER_SIZE
+}
@@ -0,0 +1,24 @@
+package logging;
+
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Writes "[method:line] " for events whose caller data was captured, and
+ * nothing for the rest. Unlike %method and %line, it never captures caller
+ * data itself.
+ */
+public class CallSiteConverter extends ClassicConverter {
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        if (!event.hasCallerData()) {
+            return "";
+        }
+        StackTraceElement[] callerData = event.getCallerData();
+        if (callerData.length == 0) {
+            return "";
+        }
+        return "[" + callerData[0].getMethodName() + ":" + callerData[0].getLineNumber() + "] ";
+    }
+}
@@ -0,0 +1,33 @@
+package logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * AsyncAppender that captures caller data only for events at or below a
+ * level, DEBUG by default. Capturing caller data builds a stack trace, which
+ * is too slow for the INFO lines every page action logs, but is worth it
+ * when debugging.
+ */
+public class LevelAwareAsyncAppender extends AsyncAppender {
+    private Level callerDataLevel = Level.DEBUG;
+
+    /**
+     * Sets the most severe level that still gets caller data.
+     *
+     * @param callerDataLevel the level name, e.g. "DEBUG"
+     */
+    public void setCallerDataLevel(String callerDataLevel) {
+        this.callerDataLevel = Level.toLevel(callerDataLevel, Level.DEBUG);
+    }
+
+    @Override
+    protected void preprocess(ILoggingEvent eventObject) {
+        super.preprocess(eventObject);
+        if (callerDataLevel.isGreaterOrEqual(eventObject.getLevel())) {
+            // Must happen on the logging thread; the stack is gone once the event is queued
+            eventObject.getCallerData();
+        }
+    }
+}
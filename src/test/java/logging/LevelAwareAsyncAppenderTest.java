@@ -0,0 +1,40 @@
+package logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LevelAwareAsyncAppenderTest {
+
+    @Test
+    @DisplayName("Only events at the caller data level or below carry their call site")
+    void callerDataByLevel() {
+        LoggerContext context = new LoggerContext();
+        ListAppender<ILoggingEvent> events = new ListAppender<>();
+        events.setContext(context);
+        events.start();
+        LevelAwareAsyncAppender async = new LevelAwareAsyncAppender();
+        async.setContext(context);
+        async.setCallerDataLevel("DEBUG");
+        async.addAppender(events);
+        async.start();
+        Logger logger = context.getLogger(LevelAwareAsyncAppenderTest.class);
+        logger.setLevel(Level.DEBUG);
+        logger.addAppender(async);
+
+        logger.info("clicked");
+        logger.debug("probing");
+        async.stop();
+
+        CallSiteConverter callSite = new CallSiteConverter();
+        assertThat(events.list).extracting(ILoggingEvent::getMessage).containsExactly("clicked", "probing");
+        assertThat(callSite.convert(events.list.get(0))).isEmpty();
+        assertThat(callSite.convert(events.list.get(1))).startsWith("[callerDataByLevel:").endsWith("] ");
+    }
+}
@@ -0,0 +1,55 @@
+package logging;
+
+import ch.qos.logback.classic.ClassicConstants;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.lang.reflect.Method;
+
+/**
+ * Routes log lines to the current test's own file. The test id is kept in
+ * the MDC under {@link #TEST_ID}, which the sifting appender in logback.xml
+ * keys its files by. Register it on a test class with
+ * {@code @ExtendWith(TestLogs.class)}; lines logged by its before-each and
+ * after-each methods go to the test's file too.
+ */
+public class TestLogs implements BeforeEachCallback, AfterEachCallback {
+    /**
+     * MDC key of the test id.
+     */
+    public static final String TEST_ID = "testId";
+    private static final Logger LOG = LoggerFactory.getLogger(TestLogs.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        MDC.put(TEST_ID, toTestId(context));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (MDC.get(TEST_ID) != null) {
+            // The marker closes the test's file
+            LOG.info(ClassicConstants.FINALIZE_SESSION_MARKER, "Test finished: {}",
+                    context.getDisplayName().replace("()", ""));
+            MDC.remove(TEST_ID);
+        }
+    }
+
+    /**
+     * Gets the id of a test, safe to use as a file name. It is the class and
+     * method name followed by a hash of the JUnit unique id, so each
+     * invocation of a repeated or parameterized test gets its own id.
+     *
+     * @param context the test's context
+     * @return the test id
+     */
+    public static String toTestId(ExtensionContext context) {
+        String name = context.getRequiredTestClass().getSimpleName() + "."
+                + context.getTestMethod().map(Method::getName).orElse(context.getDisplayName());
+        return name.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + String.format("%08x", context.getUniqueId().hashCode());
+    }
+}
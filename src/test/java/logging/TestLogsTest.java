@@ -0,0 +1,31 @@
+package logging;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.MDC;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(TestLogs.class)
+class TestLogsTest {
+    private static final Set<String> IDS = ConcurrentHashMap.newKeySet();
+
+    @AfterAll
+    static void eachInvocationHasItsOwnFile() {
+        assertThat(IDS).hasSize(2);
+    }
+
+    @RepeatedTest(2)
+    @DisplayName("Test id names the test and is safe as a file name")
+    void testIdInMdc() {
+        String id = MDC.get(TestLogs.TEST_ID);
+
+        assertThat(id).startsWith("TestLogsTest.testIdInMdc-").matches("[A-Za-z0-9._-]+");
+        IDS.add(id);
+    }
+}
@@ -1,11 +1,12 @@
 package pageobjects;
 
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.support.PageFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pageobjects.binding.PageBinders;
 import pageobjects.utility.BrowserUtil;
 import pageobjects.utility.ElementUtil;
+import pageobjects.utility.Readiness;
 
 public abstract class BasePage {
     private static final Logger LOG = LoggerFactory.getLogger(BasePage.class);
@@ -16,9 +17,15 @@ public abstract class BasePage {
 
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(driver, this);
+        PageBinders.bind(this, driver);
         element = new ElementUtil(driver);
         browser = new BrowserUtil(driver);
-        browser.waitForJsToLoad();
+        PageReady ready = getClass().getAnnotation(PageReady.class);
+        if (ready == null) {
+            browser.waitUntilReady(Readiness.READY_STATE, null);
+        } else {
+            browser.waitUntilReady(ready.value(), ready.css());
+        }
+        browser.recordTiming(getClass().getSimpleName());
     }
 }
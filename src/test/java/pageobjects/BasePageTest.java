@@ -0,0 +1,86 @@
+package pageobjects;
+
+import com.typesafe.config.ConfigException;
+import config.Configuration;
+import fakebrowser.FakeWebDriver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebElement;
+import pageobjects.utility.Readiness;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BasePageTest {
+    private static final String PAGE = "<html><head><title>Ready</title></head><body>"
+            + "<main id='content'>Loaded</main>"
+            + "</body></html>";
+
+    private final AtomicInteger finds = new AtomicInteger();
+    private final FakeWebDriver driver = new FakeWebDriver() {
+        @Override
+        public List<WebElement> findElements(By by) {
+            finds.incrementAndGet();
+            return super.findElements(by);
+        }
+    };
+
+    @Test
+    @DisplayName("A page's readiness check is skipped until the document changes")
+    void readinessSkippedOnSameDocument() {
+        driver.loadHtml(PAGE);
+
+        new ContentPage(driver);
+        int firstCheck = finds.get();
+        new ContentPage(driver);
+        int secondCheck = finds.get() - firstCheck;
+        driver.loadHtml(PAGE);
+        new ContentPage(driver);
+
+        assertThat(firstCheck).isPositive();
+        assertThat(secondCheck).isZero();
+        assertThat(finds.get()).isGreaterThan(firstCheck);
+    }
+
+    @Test
+    @DisplayName("Pages that need nothing do not touch the driver")
+    void noReadiness() {
+        driver.loadHtml(PAGE);
+
+        new StaticPage(driver);
+
+        assertThat(finds).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Presets choose the page load strategy and reject unknown ones")
+    void pageLoadStrategy() {
+        assertThat(Configuration.withOverrides("L4", Collections.emptyMap()).getPageLoadStrategy()).isNull();
+        assertThat(Configuration.withOverrides("L4",
+                Collections.singletonMap("local.fake.page-load-strategy", "eager")).getPageLoadStrategy())
+                .isEqualTo(PageLoadStrategy.EAGER);
+        assertThatThrownBy(() -> Configuration.withOverrides("L4",
+                Collections.singletonMap("local.fake.page-load-strategy", "lazy")))
+                .isInstanceOf(ConfigException.BadValue.class);
+    }
+
+    @PageReady(value = Readiness.KEY_ELEMENT, css = "#content")
+    static class ContentPage extends BasePage {
+        ContentPage(FakeWebDriver driver) {
+            super(driver);
+        }
+    }
+
+    @PageReady(Readiness.NONE)
+    static class StaticPage extends BasePage {
+        StaticPage(FakeWebDriver driver) {
+            super(driver);
+        }
+    }
+}
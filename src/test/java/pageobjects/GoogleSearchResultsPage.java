@@ -5,7 +5,9 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pageobjects.utility.Readiness;
 
+@PageReady(value = Readiness.KEY_ELEMENT, css = "#search")
 public class GoogleSearchResultsPage extends BasePage {
     private static final Logger LOG = LoggerFactory.getLogger(GoogleSearchResultsPage.class);
 
@@ -0,0 +1,37 @@
+package pageobjects;
+
+import pageobjects.utility.Readiness;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares what a page waits for when it is constructed. Pages without it
+ * wait for {@link Readiness#READY_STATE}. The wait is skipped when the same
+ * check already passed and the page has not changed since.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface PageReady {
+
+    /**
+     * Gets the readiness check.
+     *
+     * @return the readiness
+     */
+    Readiness value() default Readiness.READY_STATE;
+
+    /**
+     * Gets the CSS selector of the key element for
+     * {@link Readiness#KEY_ELEMENT}.
+     *
+     * @return the selector
+     */
+    String css() default "";
+}
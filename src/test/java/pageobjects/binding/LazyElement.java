@@ -0,0 +1,161 @@
+package pageobjects.binding;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Coordinates;
+import org.openqa.selenium.interactions.Locatable;
+
+import java.util.List;
+
+/**
+ * Element that is found when it is used, like a PageFactory proxy. With
+ * cache lookup the first element found is reused.
+ */
+public final class LazyElement implements WebElement, WrapsElement, Locatable {
+    private static final String DESCRIPTION_PREFIX = "Proxy element for: ";
+
+    private final SearchContext context;
+    private final By by;
+    private final boolean cacheLookup;
+    private WebElement cached;
+
+    /**
+     * Instantiates a new Lazy element.
+     *
+     * @param context     the context to find the element in
+     * @param by          the locator
+     * @param cacheLookup true to find the element only once
+     */
+    public LazyElement(SearchContext context, By by, boolean cacheLookup) {
+        this.context = context;
+        this.by = by;
+        this.cacheLookup = cacheLookup;
+    }
+
+    /**
+     * Gets the locator when it is searched from the document and the element
+     * has not been found yet, so that a script can resolve it in the browser
+     * instead of a find command resolving it first.
+     *
+     * @return the locator, or null if it is searched within another element
+     *         or the element was already found
+     */
+    public By getDocumentLocator() {
+        return context instanceof WebDriver && cached == null ? by : null;
+    }
+
+    @Override
+    public WebElement getWrappedElement() {
+        if (cached != null) {
+            return cached;
+        }
+        WebElement found = context.findElement(by);
+        if (cacheLookup) {
+            cached = found;
+        }
+        return found;
+    }
+
+    @Override
+    public void click() {
+        getWrappedElement().click();
+    }
+
+    @Override
+    public void submit() {
+        getWrappedElement().submit();
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        getWrappedElement().sendKeys(keysToSend);
+    }
+
+    @Override
+    public void clear() {
+        getWrappedElement().clear();
+    }
+
+    @Override
+    public String getTagName() {
+        return getWrappedElement().getTagName();
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        return getWrappedElement().getAttribute(name);
+    }
+
+    @Override
+    public boolean isSelected() {
+        return getWrappedElement().isSelected();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return getWrappedElement().isEnabled();
+    }
+
+    @Override
+    public String getText() {
+        return getWrappedElement().getText();
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return getWrappedElement().findElements(by);
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return getWrappedElement().findElement(by);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return getWrappedElement().isDisplayed();
+    }
+
+    @Override
+    public Point getLocation() {
+        return getWrappedElement().getLocation();
+    }
+
+    @Override
+    public Dimension getSize() {
+        return getWrappedElement().getSize();
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return getWrappedElement().getRect();
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return getWrappedElement().getCssValue(propertyName);
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return getWrappedElement().getScreenshotAs(target);
+    }
+
+    @Override
+    public Coordinates getCoordinates() {
+        return ((Locatable) getWrappedElement()).getCoordinates();
+    }
+
+    @Override
+    public String toString() {
+        // Same shape as PageFactory proxies, which logs and metrics already understand
+        return DESCRIPTION_PREFIX + by;
+    }
+}
@@ -0,0 +1,58 @@
+package pageobjects.binding;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Element list that is found when it is used, like a PageFactory list
+ * proxy. With cache lookup the first list found is reused.
+ */
+public final class LazyElementList extends AbstractList<WebElement> {
+    private final SearchContext context;
+    private final By by;
+    private final boolean cacheLookup;
+    private List<WebElement> cached;
+
+    /**
+     * Instantiates a new Lazy element list.
+     *
+     * @param context     the context to find the elements in
+     * @param by          the locator
+     * @param cacheLookup true to find the elements only once
+     */
+    public LazyElementList(SearchContext context, By by, boolean cacheLookup) {
+        this.context = context;
+        this.by = by;
+        this.cacheLookup = cacheLookup;
+    }
+
+    @Override
+    public WebElement get(int index) {
+        return elements().get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements().size();
+    }
+
+    private List<WebElement> elements() {
+        if (cached != null) {
+            return cached;
+        }
+        List<WebElement> found = context.findElements(by);
+        if (cacheLookup) {
+            cached = found;
+        }
+        return found;
+    }
+
+    @Override
+    public String toString() {
+        return "Proxy element list for: " + by;
+    }
+}
@@ -0,0 +1,20 @@
+package pageobjects.binding;
+
+import org.openqa.selenium.SearchContext;
+
+/**
+ * Binds the element fields a page class declares. Implementations are
+ * generated at build time by {@link PageBinderProcessor}.
+ *
+ * @param <T> the page class
+ */
+public interface PageBinder<T> {
+
+    /**
+     * Assigns lazy elements to the page's fields.
+     *
+     * @param page    the page
+     * @param context the context elements are found in
+     */
+    void bind(T page, SearchContext context);
+}
@@ -0,0 +1,263 @@
+package pageobjects.binding;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@code <Page>_Binder} class for every class with {@code @FindBy}
+ * fields. The binder assigns lazy elements to the fields, so pages are bound
+ * without PageFactory's reflection and dynamic proxies. Package-private
+ * fields are assigned directly; private fields through a VarHandle the
+ * binder looks up once, when it is loaded.
+ *
+ * <p>Bound fields must not be static or final. Classes that break this rule,
+ * or that use {@code @FindBys} or {@code @FindAll}, get a warning and no
+ * binder, and are bound by PageFactory at runtime instead.
+ */
+@SupportedAnnotationTypes(PageBinderProcessor.FIND_BY)
+public class PageBinderProcessor extends AbstractProcessor {
+    static final String FIND_BY = "org.openqa.selenium.support.FindBy";
+    private static final String FIND_BYS = "org.openqa.selenium.support.FindBys";
+    private static final String FIND_ALL = "org.openqa.selenium.support.FindAll";
+    private static final String CACHE_LOOKUP = "org.openqa.selenium.support.CacheLookup";
+    private static final String WEB_ELEMENT = "org.openqa.selenium.WebElement";
+    private static final String LIST = "java.util.List";
+    private static final String BY_ID_OR_NAME = "org.openqa.selenium.support.ByIdOrName";
+    private static final String BINDER_SUFFIX = "_Binder";
+
+    /**
+     * By factory methods keyed by @FindBy attribute.
+     */
+    private static final Map<String, String> ATTRIBUTES = new HashMap<>();
+
+    /**
+     * By factory methods keyed by How constant.
+     */
+    private static final Map<String, String> HOWS = new HashMap<>();
+
+    static {
+        ATTRIBUTES.put("id", "By.id");
+        ATTRIBUTES.put("name", "By.name");
+        ATTRIBUTES.put("className", "By.className");
+        ATTRIBUTES.put("css", "By.cssSelector");
+        ATTRIBUTES.put("tagName", "By.tagName");
+        ATTRIBUTES.put("linkText", "By.linkText");
+        ATTRIBUTES.put("partialLinkText", "By.partialLinkText");
+        ATTRIBUTES.put("xpath", "By.xpath");
+
+        HOWS.put("CLASS_NAME", "By.className");
+        HOWS.put("CSS", "By.cssSelector");
+        HOWS.put("ID", "By.id");
+        HOWS.put("ID_OR_NAME", "new " + BY_ID_OR_NAME);
+        HOWS.put("LINK_TEXT", "By.linkText");
+        HOWS.put("NAME", "By.name");
+        HOWS.put("PARTIAL_LINK_TEXT", "By.partialLinkText");
+        HOWS.put("TAG_NAME", "By.tagName");
+        HOWS.put("XPATH", "By.xpath");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> pages = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element field : roundEnv.getElementsAnnotatedWith(annotation)) {
+                pages.add((TypeElement) field.getEnclosingElement());
+            }
+        }
+        for (TypeElement page : pages) {
+            generate(page);
+        }
+        return false;
+    }
+
+    private void generate(TypeElement page) {
+        List<String> constants = new ArrayList<>();
+        List<String> bindings = new ArrayList<>();
+        boolean hasPrivate = false;
+        for (VariableElement field : ElementFilter.fieldsIn(page.getEnclosedElements())) {
+            boolean annotated = mirror(field, FIND_BY) != null;
+            boolean list = isList(field.asType());
+            if (!list && !isWebElement(field.asType()) || list && !annotated) {
+                // PageFactory leaves these fields alone too
+                continue;
+            }
+            if (mirror(field, FIND_BYS) != null || mirror(field, FIND_ALL) != null) {
+                skip(page, field, "uses @FindBys or @FindAll");
+                return;
+            }
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)) {
+                skip(page, field, "is static or final");
+                return;
+            }
+
+            String name = field.getSimpleName().toString();
+            String by = annotated ? toBy(field, mirror(field, FIND_BY))
+                    : "new " + BY_ID_OR_NAME + "(" + literal(name) + ")";
+            if (by == null) {
+                return;
+            }
+            String constant = name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+            constants.add("    private static final By " + constant + " = " + by + ";");
+            String value = "new " + (list ? "LazyElementList" : "LazyElement")
+                    + "(context, " + constant + ", " + (mirror(field, CACHE_LOOKUP) != null) + ")";
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                hasPrivate = true;
+                constants.add("    private static final VarHandle " + constant + "_FIELD = field(" + literal(name)
+                        + ", " + (list ? "List" : "WebElement") + ".class);");
+                bindings.add("        " + constant + "_FIELD.set(page, " + value + ");");
+            } else {
+                bindings.add("        page." + name + " = " + value + ";");
+            }
+        }
+        write(page, constants, bindings, hasPrivate);
+    }
+
+    /**
+     * Builds the By expression for a @FindBy, or reports an error and returns
+     * null if it does not name exactly one locator.
+     */
+    private String toBy(VariableElement field, AnnotationMirror findBy) {
+        String how = null;
+        String using = "";
+        List<String> locators = new ArrayList<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : findBy.getElementValues().entrySet()) {
+            String attribute = entry.getKey().getSimpleName().toString();
+            Object value = entry.getValue().getValue();
+            if ("how".equals(attribute)) {
+                how = ((VariableElement) value).getSimpleName().toString();
+            } else if ("using".equals(attribute)) {
+                using = (String) value;
+            } else if (ATTRIBUTES.containsKey(attribute) && !((String) value).isEmpty()) {
+                locators.add(ATTRIBUTES.get(attribute) + "(" + literal((String) value) + ")");
+            }
+        }
+        if (how != null && !"UNSET".equals(how)) {
+            if (!HOWS.containsKey(how)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "@FindBy how = " + how + " is not supported", field, findBy);
+                return null;
+            }
+            locators.add(HOWS.get(how) + "(" + literal(using) + ")");
+        }
+        if (locators.size() != 1) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "@FindBy must set exactly one locator", field, findBy);
+            return null;
+        }
+        return locators.get(0);
+    }
+
+    private void write(TypeElement page, List<String> constants, List<String> bindings, boolean hasPrivate) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(page);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(page).toString();
+        String binderName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1)
+                .replace('$', '_') + BINDER_SUFFIX;
+        String pageType = page.getQualifiedName().toString();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import org.openqa.selenium.By;\n")
+                .append("import org.openqa.selenium.SearchContext;\n")
+                .append("import org.openqa.selenium.WebElement;\n")
+                .append("import pageobjects.binding.LazyElement;\n")
+                .append("import pageobjects.binding.LazyElementList;\n")
+                .append("import pageobjects.binding.PageBinder;\n\n")
+                .append("import javax.annotation.processing.Generated;\n")
+                .append("import java.lang.invoke.MethodHandles;\n")
+                .append("import java.lang.invoke.VarHandle;\n")
+                .append("import java.util.List;\n\n")
+                .append("@Generated(\"").append(PageBinderProcessor.class.getName()).append("\")\n")
+                .append("public final class ").append(binderName)
+                .append(" implements PageBinder<").append(pageType).append("> {\n");
+        constants.forEach(line -> source.append(line).append('\n'));
+        source.append("\n    @Override\n")
+                .append("    public void bind(").append(pageType).append(" page, SearchContext context) {\n");
+        bindings.forEach(line -> source.append(line).append('\n'));
+        source.append("    }\n");
+        if (hasPrivate) {
+            // The binder shares the page's package, so it may look into the page without setAccessible
+            source.append("\n    private static VarHandle field(String name, Class<?> type) {\n")
+                    .append("        try {\n")
+                    .append("            return MethodHandles.privateLookupIn(").append(pageType)
+                    .append(".class, MethodHandles.lookup())\n")
+                    .append("                    .findVarHandle(").append(pageType).append(".class, name, type);\n")
+                    .append("        } catch (ReflectiveOperationException e) {\n")
+                    .append("            throw new ExceptionInInitializerError(e);\n")
+                    .append("        }\n")
+                    .append("    }\n");
+        }
+        source.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, page).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + qualifiedName, e);
+        }
+    }
+
+    private void skip(TypeElement page, VariableElement field, String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Field " + field.getSimpleName()
+                + " " + reason + "; " + page.getSimpleName() + " will be bound by PageFactory at runtime", field);
+    }
+
+    private boolean isWebElement(TypeMirror type) {
+        return type.toString().equals(WEB_ELEMENT);
+    }
+
+    private boolean isList(TypeMirror type) {
+        if (!(type instanceof DeclaredType)) {
+            return false;
+        }
+        DeclaredType declared = (DeclaredType) type;
+        return declared.asElement().toString().equals(LIST) && declared.getTypeArguments().size() == 1
+                && isWebElement(declared.getTypeArguments().get(0));
+    }
+
+    private static AnnotationMirror mirror(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (mirror.getAnnotationType().toString().equals(annotation)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private String literal(String value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+}
@@ -0,0 +1,145 @@
+package pageobjects.binding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageBinderProcessorTest {
+    @TempDir
+    Path generated;
+
+    @Test
+    @DisplayName("Binder assigns package-private fields directly and private fields through a VarHandle")
+    void generatesBinder() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = process("sample.LoginPage",
+                "package sample;\n"
+                + "import java.util.List;\n"
+                + "import org.openqa.selenium.WebElement;\n"
+                + "import org.openqa.selenium.support.CacheLookup;\n"
+                + "import org.openqa.selenium.support.FindBy;\n"
+                + "import org.openqa.selenium.support.How;\n"
+                + "public class LoginPage {\n"
+                + "    @FindBy(id = \"user\") WebElement userName;\n"
+                + "    @CacheLookup @FindBy(how = How.CSS, using = \"#login\") private WebElement loginButton;\n"
+                + "    @FindBy(className = \"error\") private List<WebElement> errors;\n"
+                + "    private WebElement password;\n"
+                + "    private List<WebElement> ignored;\n"
+                + "    private String title;\n"
+                + "}\n");
+
+        assertThat(diagnostics).isEmpty();
+        String binder = Files.readString(generated.resolve("sample/LoginPage_Binder.java"));
+        assertThat(binder)
+                .contains("public final class LoginPage_Binder implements PageBinder<sample.LoginPage>")
+                .contains("private static final By USER_NAME = By.id(\"user\");")
+                .contains("page.userName = new LazyElement(context, USER_NAME, false);")
+                .contains("private static final By LOGIN_BUTTON = By.cssSelector(\"#login\");")
+                .contains("LOGIN_BUTTON_FIELD.set(page, new LazyElement(context, LOGIN_BUTTON, true));")
+                .contains("ERRORS_FIELD.set(page, new LazyElementList(context, ERRORS, false));")
+                .contains("PASSWORD = new org.openqa.selenium.support.ByIdOrName(\"password\");")
+                .contains("privateLookupIn")
+                .doesNotContain("IGNORED", "TITLE");
+    }
+
+    @Test
+    @DisplayName("Nested pages get a binder named after the outer class")
+    void nestedPage() throws IOException {
+        process("sample.Pages",
+                "package sample;\n"
+                + "import org.openqa.selenium.WebElement;\n"
+                + "import org.openqa.selenium.support.FindBy;\n"
+                + "public class Pages {\n"
+                + "    public static class Header {\n"
+                + "        @FindBy(linkText = \"Home\") WebElement home;\n"
+                + "    }\n"
+                + "}\n");
+
+        assertThat(generated.resolve("sample/Pages_Header_Binder.java")).exists();
+        assertThat(Files.readString(generated.resolve("sample/Pages_Header_Binder.java")))
+                .contains("implements PageBinder<sample.Pages.Header>")
+                .doesNotContain("privateLookupIn");
+    }
+
+    @Test
+    @DisplayName("Final fields and @FindAll leave the page to PageFactory with a warning")
+    void unsupportedPagesAreSkipped() {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = process("sample.LegacyPage",
+                "package sample;\n"
+                + "import org.openqa.selenium.WebElement;\n"
+                + "import org.openqa.selenium.support.FindAll;\n"
+                + "import org.openqa.selenium.support.FindBy;\n"
+                + "public class LegacyPage {\n"
+                + "    @FindBy(id = \"a\") final WebElement fixed = null;\n"
+                + "    @FindAll({@FindBy(id = \"b\"), @FindBy(id = \"c\")}) WebElement either;\n"
+                + "}\n");
+
+        assertThat(messages(diagnostics, Diagnostic.Kind.WARNING))
+                .anySatisfy(message -> assertThat(message).contains("fixed", "static or final", "PageFactory"));
+        assertThat(generated.resolve("sample/LegacyPage_Binder.java")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("@FindBy without exactly one locator is a compile error")
+    void ambiguousLocatorFails() {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = process("sample.BrokenPage",
+                "package sample;\n"
+                + "import org.openqa.selenium.WebElement;\n"
+                + "import org.openqa.selenium.support.FindBy;\n"
+                + "public class BrokenPage {\n"
+                + "    @FindBy(id = \"a\", css = \"#b\") WebElement both;\n"
+                + "}\n");
+
+        assertThat(messages(diagnostics, Diagnostic.Kind.ERROR))
+                .containsExactly("@FindBy must set exactly one locator");
+        assertThat(generated.resolve("sample/BrokenPage_Binder.java")).doesNotExist();
+    }
+
+    /**
+     * Runs the processor alone on one source file, writing generated sources
+     * to the temporary directory.
+     */
+    private List<Diagnostic<? extends JavaFileObject>> process(String className, String source) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaFileObject file = new SimpleJavaFileObject(
+                URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        List<String> options = Arrays.asList("-proc:only", "-s", generated.toString(),
+                "-classpath", System.getProperty("java.class.path"));
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null,
+                Collections.singletonList(file));
+        task.setProcessors(Collections.singletonList(new PageBinderProcessor()));
+        task.call();
+        return diagnostics.getDiagnostics();
+    }
+
+    private static List<String> messages(List<Diagnostic<? extends JavaFileObject>> diagnostics,
+                                         Diagnostic.Kind kind) {
+        return diagnostics.stream()
+                .filter(diagnostic -> diagnostic.getKind() == kind)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.toList());
+    }
+}
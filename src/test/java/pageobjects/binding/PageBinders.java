@@ -0,0 +1,89 @@
+package pageobjects.binding;
+
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds page element fields with the binders generated by
+ * {@link PageBinderProcessor}. The binders for a page class are looked up
+ * once; classes without a generated binder are bound by PageFactory.
+ */
+public final class PageBinders {
+    private static final Logger LOG = LoggerFactory.getLogger(PageBinders.class);
+    private static final String BINDER_SUFFIX = "_Binder";
+
+    private static final ClassValue<PageBinder<Object>> BINDERS = new ClassValue<PageBinder<Object>>() {
+        @Override
+        protected PageBinder<Object> computeValue(Class<?> type) {
+            return forHierarchy(type);
+        }
+    };
+
+    private PageBinders() {
+    }
+
+    /**
+     * Binds the element fields of a page and its superclasses.
+     *
+     * @param page    the page
+     * @param context the context elements are found in
+     */
+    public static void bind(Object page, SearchContext context) {
+        BINDERS.get(page.getClass()).bind(page, context);
+    }
+
+    private static PageBinder<Object> forHierarchy(Class<?> type) {
+        List<PageBinder<Object>> binders = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            PageBinder<Object> binder = generated(current);
+            if (binder != null) {
+                binders.add(binder);
+            } else if (declaresElements(current)) {
+                LOG.debug("No generated binder for {}, binding {} with PageFactory.", current.getName(),
+                        type.getName());
+                return (page, context) -> PageFactory.initElements(new DefaultElementLocatorFactory(context), page);
+            }
+        }
+        if (binders.size() == 1) {
+            return binders.get(0);
+        }
+        return (page, context) -> {
+            for (PageBinder<Object> binder : binders) {
+                binder.bind(page, context);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PageBinder<Object> generated(Class<?> type) {
+        // Nested classes get a top-level binder, e.g. Outer_Inner_Binder
+        String name = type.getName().replace('$', '_') + BINDER_SUFFIX;
+        try {
+            Class<?> binder = Class.forName(name, true, type.getClassLoader());
+            return (PageBinder<Object>) binder.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException
+                | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create page binder for " + type.getName(), e);
+        }
+    }
+
+    private static boolean declaresElements(Class<?> type) {
+        for (Field field : type.getDeclaredFields()) {
+            if (WebElement.class.isAssignableFrom(field.getType()) || List.class.isAssignableFrom(field.getType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
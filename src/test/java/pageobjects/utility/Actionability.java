@@ -0,0 +1,229 @@
+package pageobjects.utility;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Waits inside the browser until an element is ready for an action. Each
+ * probe checks in one pass that the element is attached, visible, enabled,
+ * has kept the same position since the previous probe and, for clicks, is
+ * not covered by another element at its center. Probes repeat every
+ * animation frame within one script call, so the caller can act as soon as
+ * it returns. Hidden windows get no animation frames, so a timer also runs
+ * the next probe and ends the call at its deadline.
+ */
+final class Actionability {
+    /**
+     * Longest single script call. Kept well under the W3C default script
+     * timeout of 30 seconds.
+     */
+    private static final long MAX_CHUNK_MILLIS = 5_000;
+    private static final int MAX_SCRIPT_ERRORS = 3;
+    /**
+     * Delay after which the next probe runs if no animation frame came.
+     */
+    private static final long FRAME_FALLBACK_MILLIS = 100;
+
+    private static final String SCRIPT =
+            "var action = arguments[0], target = arguments[1], deadline = Date.now() + arguments[2];"
+            + "var frameFallback = arguments[3], cached = arguments[4], locator = arguments[5];"
+            + "var done = arguments[arguments.length - 1];"
+            + Scripts.RESOLVE
+            + Scripts.REPLACED
+            + Scripts.VISIBLE
+            + "function describe(el) {"
+            + "  if (!el) { return 'nothing'; }"
+            + "  var name = el.tagName.toLowerCase() + (el.id ? '#' + el.id : '');"
+            + "  var classes = typeof el.className === 'string' ? el.className.trim() : '';"
+            + "  return classes ? name + '.' + classes.split(/\\s+/).join('.') : name;"
+            + "}"
+            + "function hits(el, hit) {"
+            + "  if (!hit) { return false; }"
+            + "  if (hit === el || el.contains(hit)) { return true; }"
+            + "  var label = hit.closest ? hit.closest('label') : null;"
+            + "  return !!label && label.control === el;"
+            + "}"
+            + "var lastRect = null;"
+            + "function probe() {"
+            + "  var el = resolve(target);"
+            + "  if (cached && replaced(el, locator)) { return '" + Scripts.REPLACED_MARK + "'; }"
+            + "  if (!el || !el.isConnected) { return 'not attached'; }"
+            + "  if (!visible(el)) { return 'not visible'; }"
+            + "  if (el.disabled) { return 'disabled'; }"
+            + "  if (action === 'TYPE' && el.readOnly) { return 'read-only'; }"
+            + "  var rect = el.getBoundingClientRect();"
+            + "  var x = rect.left + rect.width / 2, y = rect.top + rect.height / 2;"
+            + "  if (x < 0 || y < 0 || x >= window.innerWidth || y >= window.innerHeight) {"
+            + "    el.scrollIntoView({block: 'center', inline: 'center'});"
+            + "    lastRect = null;"
+            + "    return 'outside the viewport';"
+            + "  }"
+            + "  var position = [rect.left, rect.top, rect.width, rect.height].join();"
+            + "  if (position !== lastRect) { lastRect = position; return 'moving'; }"
+            + "  if (action === 'CLICK') {"
+            + "    var hit = document.elementFromPoint(x, y);"
+            + "    if (!hits(el, hit)) { return 'covered by ' + describe(hit); }"
+            + "  }"
+            + "  return el;"
+            + "}"
+            + "var finished = false, last = 'not probed';"
+            + "function finish(result) { if (!finished) { finished = true; done(result); } }"
+            + "setTimeout(function () { finish(last); }, Math.max(0, deadline - Date.now()));"
+            + "function nextFrame(callback) {"
+            + "  var called = false;"
+            + "  var once = function () { if (!called) { called = true; callback(); } };"
+            + "  if (window.requestAnimationFrame) { window.requestAnimationFrame(once); }"
+            + "  setTimeout(once, window.requestAnimationFrame ? frameFallback : 16);"
+            + "}"
+            + "function step() {"
+            + "  if (finished) { return; }"
+            + "  var result = probe();"
+            + "  last = result;"
+            + "  if (typeof result !== 'string' || result === '" + Scripts.REPLACED_MARK + "' || Date.now() >= deadline) {"
+            + "    finish(result);"
+            + "    return;"
+            + "  }"
+            + "  nextFrame(step);"
+            + "}"
+            + "step();";
+
+    /**
+     * Actions the probe knows the requirements of.
+     */
+    enum Action {
+        /**
+         * Clicking needs the element's center to receive the click.
+         */
+        CLICK,
+        /**
+         * Typing needs the element to accept input.
+         */
+        TYPE
+    }
+
+    private final WebDriver driver;
+    private final DocumentTracker tracker;
+
+    /**
+     * Instantiates a new Actionability probe.
+     *
+     * @param driver the driver
+     */
+    Actionability(WebDriver driver) {
+        this.driver = driver;
+        this.tracker = DocumentTracker.of(driver);
+    }
+
+    /**
+     * Waits for the element to be ready for the action.
+     *
+     * @param action  the action
+     * @param target  a WebElement or By locator
+     * @param timeout how long to wait
+     * @return the element
+     * @throws TimeoutException              if the element was not ready in
+     *                                       time, naming the last check that
+     *                                       failed
+     * @throws StaleElementReferenceException if the element is no longer
+     *                                       attached
+     * @throws FallbackRequired              if the browser cannot run the
+     *                                       probe
+     */
+    WebElement await(Action action, Object target, Duration timeout) throws FallbackRequired {
+        if (!tracker.canRunAsyncScripts(driver)) {
+            throw new FallbackRequired("Driver cannot run async scripts.");
+        }
+        Object scriptTarget = target;
+        if (target instanceof By) {
+            Map<String, String> locator = Locators.toScriptLocator((By) target);
+            if (locator == null) {
+                throw new FallbackRequired("Locator cannot be resolved in the browser: " + target);
+            }
+            scriptTarget = locator;
+        }
+        return run(action, target, scriptTarget, false, null, timeout);
+    }
+
+    /**
+     * Waits for the element a locator resolved to earlier to be ready for
+     * the action. The first probe also checks that the element is still
+     * attached and still the one the locator finds first, so reusing it
+     * costs no extra lookup.
+     *
+     * @param action  the action
+     * @param element the element the locator resolved to
+     * @param by      the locator
+     * @param timeout how long to wait
+     * @return the element
+     * @throws TimeoutException              if the element was not ready in
+     *                                       time
+     * @throws StaleElementReferenceException if the element is detached or
+     *                                       the locator now finds another
+     *                                       element first
+     * @throws FallbackRequired              if the browser cannot run the
+     *                                       probe
+     */
+    WebElement awaitCached(Action action, WebElement element, By by, Duration timeout) throws FallbackRequired {
+        if (!tracker.canRunAsyncScripts(driver)) {
+            throw new FallbackRequired("Driver cannot run async scripts.");
+        }
+        return run(action, by, element, true, Locators.toScriptLocator(by), timeout);
+    }
+
+    /**
+     * Runs the probe in chunks until the element is ready or the timeout
+     * passes.
+     *
+     * @param cached  whether scriptTarget is a remembered element to check
+     *                first
+     * @param locator the script locator a cached element must still be found
+     *                first by, or null to only check that it is attached
+     */
+    private WebElement run(Action action, Object target, Object scriptTarget, boolean cached,
+                           Map<String, String> locator, Duration timeout) throws FallbackRequired {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        int scriptErrors = 0;
+        Object reason = "not probed";
+        do {
+            long remaining = Math.max(0, (deadline - System.nanoTime()) / 1_000_000);
+            try {
+                Object result = ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT, action.name(), scriptTarget,
+                        Math.min(remaining, MAX_CHUNK_MILLIS), FRAME_FALLBACK_MILLIS, cached, locator);
+                if (result instanceof WebElement) {
+                    return (WebElement) result;
+                }
+                if (Scripts.REPLACED_MARK.equals(result)) {
+                    throw new StaleElementReferenceException("Element no longer found first by " + target);
+                }
+                reason = result;
+                scriptErrors = 0;
+            } catch (ScriptTimeoutException e) {
+                scriptErrors = 0;
+            } catch (NoSuchElementException e) {
+                throw new FallbackRequired("Element cannot be passed to the browser.", e);
+            } catch (UnsupportedCommandException e) {
+                tracker.markAsyncScriptsUnsupported();
+                throw new FallbackRequired("Driver cannot run async scripts.", e);
+            } catch (JavascriptException e) {
+                // The document may have unloaded mid-probe, so retry a few times before giving up
+                if (++scriptErrors >= MAX_SCRIPT_ERRORS) {
+                    throw new FallbackRequired("Actionability probe keeps failing.", e);
+                }
+            }
+        } while (System.nanoTime() < deadline);
+
+        throw new TimeoutException("Timed out after " + timeout.toMillis() + " ms waiting for " + target
+                + " to be ready for " + action + ": " + reason);
+    }
+}
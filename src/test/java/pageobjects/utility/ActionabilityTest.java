@@ -0,0 +1,76 @@
+package pageobjects.utility;
+
+import fakebrowser.FakeWebDriver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ActionabilityTest {
+    private static final String PAGE = "<html><head><title>Actions</title></head><body>"
+            + "<button id='open' data-fake-click='show #menu'>Open</button>"
+            + "<div id='menu' hidden><button id='close' data-fake-click='hide #menu'>Close</button></div>"
+            + "<button id='disabled' disabled>Disabled</button>"
+            + "</body></html>";
+
+    private final AtomicInteger asyncScripts = new AtomicInteger();
+    private final FakeWebDriver driver = new FakeWebDriver() {
+        @Override
+        public Object executeAsyncScript(String script, Object... args) {
+            asyncScripts.incrementAndGet();
+            return super.executeAsyncScript(script, args);
+        }
+    };
+    private ElementUtil element;
+
+    @BeforeEach
+    void loadPage() {
+        driver.loadHtml(PAGE);
+        element = new ElementUtil(driver, ElementUtilTest.settings());
+    }
+
+    @Test
+    @DisplayName("A driver that rejects the probe is asked once, then actions poll straight away")
+    void probeFallsBackOnce() {
+        Actionability actionability = new Actionability(driver);
+        Duration timeout = Duration.ofSeconds(1);
+
+        assertThatThrownBy(() -> actionability.await(Actionability.Action.CLICK, By.id("open"), timeout))
+                .isInstanceOf(FallbackRequired.class);
+        assertThatThrownBy(() -> actionability.await(Actionability.Action.TYPE, By.id("open"), timeout))
+                .isInstanceOf(FallbackRequired.class);
+        assertThat(asyncScripts).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Clicks on the polling fallback wait for an element the previous click revealed")
+    void clicksThroughFallback() {
+        element.click(By.id("open"));
+        element.click(By.id("close"));
+
+        assertThat(driver.findElement(By.id("menu")).isDisplayed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Disabled and hidden elements time out on a single element timeout")
+    void notActionableTimesOutOnce() {
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> element.click(By.id("disabled"))).isInstanceOf(TimeoutException.class);
+        Duration disabled = Duration.ofNanos(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        assertThatThrownBy(() -> element.click(By.id("close"))).isInstanceOf(TimeoutException.class);
+        Duration hidden = Duration.ofNanos(System.nanoTime() - start);
+
+        // Separate visibility and clickability waits would take two timeouts
+        assertThat(disabled).isLessThan(Duration.ofSeconds(2));
+        assertThat(hidden).isLessThan(Duration.ofSeconds(2));
+    }
+}
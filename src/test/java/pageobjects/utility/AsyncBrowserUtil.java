@@ -0,0 +1,198 @@
+package pageobjects.utility;
+
+import config.Configuration;
+import config.PollingStrategy;
+import config.Settings;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Asynchronous counterpart of {@link BrowserUtil}. Like
+ * {@link AsyncElementUtil}, it runs the driver's commands on its
+ * {@link CommandLane} and polls without holding a thread between probes.
+ */
+public final class AsyncBrowserUtil {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncBrowserUtil.class);
+    private final WebDriver driver;
+    private final Settings settings;
+    private final String baseUrl;
+    private final PollingStrategy pollingStrategy;
+    private final CommandLane lane;
+    private final DocumentTracker tracker;
+
+    /**
+     * Instantiates a new Async browser util.
+     *
+     * @param driver the driver
+     */
+    public AsyncBrowserUtil(WebDriver driver) {
+        this(driver, Configuration.getSettings());
+    }
+
+    /**
+     * Instantiates a new Async browser util with explicit settings.
+     *
+     * @param driver   the driver
+     * @param settings the settings
+     */
+    public AsyncBrowserUtil(WebDriver driver, Settings settings) {
+        this(driver, settings, settings.getPollingStrategy());
+    }
+
+    private AsyncBrowserUtil(WebDriver driver, Settings settings, PollingStrategy pollingStrategy) {
+        this.driver = driver;
+        this.settings = settings;
+        this.baseUrl = settings.getBaseUrl();
+        this.pollingStrategy = pollingStrategy;
+        this.lane = CommandLane.of(driver);
+        this.tracker = DocumentTracker.of(driver);
+    }
+
+    /**
+     * Cancels the driver's queued asynchronous commands and waits for the
+     * running one. Pending waits on the driver fail with a
+     * CancellationException. The pool calls this before a session is reset
+     * for its next lease.
+     *
+     * @param driver the driver
+     */
+    public static void cancelPending(WebDriver driver) {
+        CommandLane.close(driver);
+    }
+
+    /**
+     * Returns a copy of this util whose waits use the given strategy.
+     *
+     * @param pollingStrategy the polling strategy
+     * @return the async browser util copy
+     */
+    public AsyncBrowserUtil withPolling(PollingStrategy pollingStrategy) {
+        return new AsyncBrowserUtil(driver, settings, pollingStrategy);
+    }
+
+    /**
+     * Navigates to the path and waits for the document to load.
+     *
+     * @param path the path
+     * @return completes once the document is loaded
+     */
+    public CompletableFuture<Void> navigate(String path) {
+        return AsyncWait.timed("AsyncBrowserUtil.navigate", path, () -> lane.<Void>submit(() -> {
+            LOG.info("Loading URL: {}{}", baseUrl, path);
+            tracker.invalidate();
+            tracker.visit(baseUrl + path);
+            driver.get(baseUrl + path);
+            return null;
+        }).thenCompose(loaded -> waitForJsToLoad()));
+    }
+
+    /**
+     * Refreshes the page and waits for the document to load.
+     *
+     * @return completes once the document is loaded
+     */
+    public CompletableFuture<Void> refresh() {
+        return AsyncWait.timed("AsyncBrowserUtil.refresh", null, () -> lane.<Void>submit(() -> {
+            LOG.info("Refreshing the page.");
+            tracker.invalidate();
+            driver.navigate().refresh();
+            return null;
+        }).thenCompose(loaded -> waitForJsToLoad()));
+    }
+
+    /**
+     * Gets the current URL.
+     *
+     * @return the current url
+     */
+    public CompletableFuture<String> getCurrentUrl() {
+        return lane.submit(driver::getCurrentUrl);
+    }
+
+    /**
+     * Waits for the document to finish loading. Unlike
+     * {@link BrowserUtil#waitForJsToLoad()}, a document that does not load in
+     * time fails the future with a TimeoutException.
+     *
+     * @return completes once the document is loaded
+     */
+    public CompletableFuture<Void> waitForJsToLoad() {
+        return AsyncWait.timed("AsyncBrowserUtil.waitForJsToLoad", null, () -> lane.submit(() -> tracker.sync(driver))
+                .thenCompose(loaded -> loaded ? CompletableFuture.completedFuture(null)
+                        : until(script(Scripts.READY_STATE), "the document to load"))
+                .thenRun(() -> tracker.markPassed(Readiness.READY_STATE.name())));
+    }
+
+    /**
+     * Waits for the page to be ready, unless the same check already passed
+     * for the document the browser shows and the page has not changed since.
+     *
+     * @param readiness     what to wait for
+     * @param keyElementCss the key element selector for
+     *                      {@link Readiness#KEY_ELEMENT}, otherwise ignored
+     * @return completes once the page is ready, or a TimeoutException
+     */
+    public CompletableFuture<Void> waitUntilReady(Readiness readiness, String keyElementCss) {
+        if (readiness == Readiness.KEY_ELEMENT && (keyElementCss == null || keyElementCss.isEmpty())) {
+            throw new IllegalArgumentException("KEY_ELEMENT readiness needs a CSS selector.");
+        }
+        String check = readiness == Readiness.KEY_ELEMENT ? readiness + ":" + keyElementCss : readiness.name();
+        if (readiness == Readiness.NONE) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return lane.submit(() -> tracker.sync(driver)).thenCompose(loaded -> {
+            if (tracker.hasPassed(check) || readiness == Readiness.READY_STATE && loaded) {
+                tracker.markPassed(check);
+                return CompletableFuture.completedFuture(null);
+            }
+            return AsyncWait.timed("AsyncBrowserUtil.waitUntilReady", check,
+                    () -> startReadinessWait(readiness, keyElementCss).thenRun(() -> tracker.markPassed(check)));
+        });
+    }
+
+    /**
+     * Waits for the browser to have the given number of windows.
+     *
+     * @param count the number of windows
+     * @return the window handles, or a TimeoutException
+     */
+    public CompletableFuture<Set<String>> waitForWindowCount(int count) {
+        return AsyncWait.timed("AsyncBrowserUtil.waitForWindowCount", String.valueOf(count), () -> until(browser -> {
+            Set<String> handles = browser.getWindowHandles();
+            return handles.size() == count ? handles : null;
+        }, count + " windows"));
+    }
+
+    private CompletableFuture<?> startReadinessWait(Readiness readiness, String keyElementCss) {
+        switch (readiness) {
+            case KEY_ELEMENT:
+                return until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector(keyElementCss)),
+                        "key element " + keyElementCss);
+            case NETWORK_QUIET:
+                long quietMillis = settings.getNetworkQuietWindow().toMillis();
+                return until(script(Scripts.NETWORK_QUIET + "return networkQuiet(" + quietMillis + ");"),
+                        "the network to be quiet");
+            case READY_STATE:
+            default:
+                return until(script(Scripts.READY_STATE), "the document to load");
+        }
+    }
+
+    private <V> CompletableFuture<V> until(Function<WebDriver, V> condition, String description) {
+        return AsyncWait.until(driver, condition, settings.getPageLoadTimeout(), pollingStrategy, description);
+    }
+
+    private static Function<WebDriver, Boolean> script(String script) {
+        return browser -> (Boolean) ((JavascriptExecutor) browser).executeScript(script);
+    }
+}
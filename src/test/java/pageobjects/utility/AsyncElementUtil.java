@@ -0,0 +1,364 @@
+package pageobjects.utility;
+
+import config.Configuration;
+import config.PollingStrategy;
+import config.Settings;
+import org.openqa.selenium.By;
+import org.openqa.selenium.ElementClickInterceptedException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Asynchronous counterpart of {@link ElementUtil}. Every method returns at
+ * once with a CompletableFuture, so independent conditions can be awaited
+ * together, e.g. with {@code CompletableFuture.allOf}.
+ *
+ * <p>Commands for the driver run one at a time on its {@link CommandLane},
+ * and waits poll with the configured {@link PollingStrategy} without holding
+ * a thread between probes. Waits never run in the browser as in EVENT wait
+ * mode, since an in-browser wait would occupy the lane until it resolves.
+ * Do not call {@link ElementUtil} on the same driver while futures from
+ * this class are pending.
+ */
+public final class AsyncElementUtil {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncElementUtil.class);
+    private final WebDriver driver;
+    private final Settings settings;
+    private final PollingStrategy pollingStrategy;
+    private final CommandLane lane;
+    private final DocumentTracker tracker;
+
+    /**
+     * Instantiates a new Async element util.
+     *
+     * @param driver the driver
+     */
+    public AsyncElementUtil(WebDriver driver) {
+        this(driver, Configuration.getSettings());
+    }
+
+    /**
+     * Instantiates a new Async element util with explicit settings.
+     *
+     * @param driver   the driver
+     * @param settings the settings
+     */
+    public AsyncElementUtil(WebDriver driver, Settings settings) {
+        this(driver, settings, settings.getPollingStrategy());
+    }
+
+    private AsyncElementUtil(WebDriver driver, Settings settings, PollingStrategy pollingStrategy) {
+        this.driver = driver;
+        this.settings = settings;
+        this.pollingStrategy = pollingStrategy;
+        this.lane = CommandLane.of(driver);
+        this.tracker = DocumentTracker.of(driver);
+    }
+
+    /**
+     * Returns a copy of this util whose waits use the given strategy.
+     *
+     * @param pollingStrategy the polling strategy
+     * @return the async element util copy
+     */
+    public AsyncElementUtil withPolling(PollingStrategy pollingStrategy) {
+        return new AsyncElementUtil(driver, settings, pollingStrategy);
+    }
+
+    /**
+     * Waits for the element to be visible.
+     *
+     * @param element the element
+     * @return the visible element, or a TimeoutException
+     */
+    public CompletableFuture<WebElement> waitForVisible(WebElement element) {
+        return AsyncWait.timed("AsyncElementUtil.waitForVisible", element, () -> until(
+                ExpectedConditions.visibilityOf(element), "visibility of element: " + element));
+    }
+
+    /**
+     * Waits for the element matching the locator to be visible.
+     *
+     * @param by the locator
+     * @return the visible element, or a TimeoutException
+     */
+    public CompletableFuture<WebElement> waitForVisible(By by) {
+        return AsyncWait.timed("AsyncElementUtil.waitForVisible", by, () -> until(
+                ExpectedConditions.visibilityOfElementLocated(by), "visibility of element: " + by));
+    }
+
+    /**
+     * Waits for the element to be clickable.
+     *
+     * @param element the element
+     * @return the clickable element, or a TimeoutException
+     */
+    public CompletableFuture<WebElement> waitForClickable(WebElement element) {
+        return AsyncWait.timed("AsyncElementUtil.waitForClickable", element, () -> until(
+                ExpectedConditions.elementToBeClickable(element), "element to be clickable: " + element));
+    }
+
+    /**
+     * Waits for the element matching the locator to be clickable.
+     *
+     * @param by the locator
+     * @return the clickable element, or a TimeoutException
+     */
+    public CompletableFuture<WebElement> waitForClickable(By by) {
+        return AsyncWait.timed("AsyncElementUtil.waitForClickable", by, () -> until(
+                ExpectedConditions.elementToBeClickable(by), "element to be clickable: " + by));
+    }
+
+    /**
+     * Waits for the element to be clickable and then clicks it, falling back
+     * to a JavaScript click when the click is intercepted.
+     *
+     * @param element the element
+     * @return completes once clicked
+     */
+    public CompletableFuture<Void> click(WebElement element) {
+        return AsyncWait.timed("AsyncElementUtil.click", element, () -> click(waitForClickable(element)));
+    }
+
+    /**
+     * Waits for the element matching the locator to be clickable and then
+     * clicks it, falling back to a JavaScript click when the click is
+     * intercepted.
+     *
+     * @param by the locator
+     * @return completes once clicked
+     */
+    public CompletableFuture<Void> click(By by) {
+        return AsyncWait.timed("AsyncElementUtil.click", by, () -> click(waitForClickable(by)));
+    }
+
+    /**
+     * Waits for the element to be visible and enters the keys in it.
+     *
+     * @param element the element
+     * @param keys    the keys to send
+     * @return completes once the keys are sent
+     */
+    public CompletableFuture<Void> sendKeys(WebElement element, CharSequence... keys) {
+        return AsyncWait.timed("AsyncElementUtil.sendKeys", element,
+                () -> sendKeys(waitForVisible(element), false, keys));
+    }
+
+    /**
+     * Waits for the element matching the locator to be visible and enters the
+     * keys in it.
+     *
+     * @param by   the locator
+     * @param keys the keys to send
+     * @return completes once the keys are sent
+     */
+    public CompletableFuture<Void> sendKeys(By by, CharSequence... keys) {
+        return AsyncWait.timed("AsyncElementUtil.sendKeys", by, () -> sendKeys(waitForVisible(by), false, keys));
+    }
+
+    /**
+     * Waits for the element to be visible, clears it and enters the keys as
+     * its new value.
+     *
+     * @param element the element
+     * @param keys    the keys to send
+     * @return completes once the keys are sent
+     */
+    public CompletableFuture<Void> clearAndSendKeys(WebElement element, CharSequence... keys) {
+        return AsyncWait.timed("AsyncElementUtil.clearAndSendKeys", element,
+                () -> sendKeys(waitForVisible(element), true, keys));
+    }
+
+    /**
+     * Waits for the element matching the locator to be visible, clears it and
+     * enters the keys as its new value.
+     *
+     * @param by   the locator
+     * @param keys the keys to send
+     * @return completes once the keys are sent
+     */
+    public CompletableFuture<Void> clearAndSendKeys(By by, CharSequence... keys) {
+        return AsyncWait.timed("AsyncElementUtil.clearAndSendKeys", by, () -> sendKeys(waitForVisible(by), true, keys));
+    }
+
+    /**
+     * Waits for the element to be visible and gets its text.
+     *
+     * @param element the element
+     * @return the text
+     */
+    public CompletableFuture<String> getText(WebElement element) {
+        return AsyncWait.timed("AsyncElementUtil.getText", element,
+                () -> waitForVisible(element).thenCompose(visible -> lane.submit(visible::getText)));
+    }
+
+    /**
+     * Waits for the element matching the locator to be visible and gets its
+     * text.
+     *
+     * @param by the locator
+     * @return the text
+     */
+    public CompletableFuture<String> getText(By by) {
+        return AsyncWait.timed("AsyncElementUtil.getText", by,
+                () -> waitForVisible(by).thenCompose(visible -> lane.submit(visible::getText)));
+    }
+
+    /**
+     * Waits for the element to contain the text.
+     *
+     * @param element the element
+     * @param text    the text
+     * @return completes once the text is present, or a TimeoutException
+     */
+    public CompletableFuture<Void> waitForTextToBePresent(WebElement element, String text) {
+        return AsyncWait.timed("AsyncElementUtil.waitForTextToBePresent", element, () -> until(
+                ExpectedConditions.textToBePresentInElement(element, text),
+                "text to be present in element: " + element).thenApply(present -> null));
+    }
+
+    /**
+     * Waits for the element matching the locator to contain the text.
+     *
+     * @param by   the locator
+     * @param text the text
+     * @return completes once the text is present, or a TimeoutException
+     */
+    public CompletableFuture<Void> waitForTextToBePresent(By by, String text) {
+        return AsyncWait.timed("AsyncElementUtil.waitForTextToBePresent", by, () -> until(
+                ExpectedConditions.textToBePresentInElementLocated(by, text),
+                "text to be present in element: " + by).thenApply(present -> null));
+    }
+
+    /**
+     * Determines whether an element matching the locator appears within the
+     * timeout.
+     *
+     * @param by      the locator
+     * @param timeout how long to wait
+     * @return true if present, false on timeout
+     */
+    public CompletableFuture<Boolean> isPresent(By by, Duration timeout) {
+        return AsyncWait.timed("AsyncElementUtil.isPresent", by, () -> orFalse(
+                until(ExpectedConditions.presenceOfElementLocated(by), timeout, "presence of element: " + by)));
+    }
+
+    /**
+     * Determines whether an element matching the locator appears within the
+     * configured presence timeout.
+     *
+     * @param by the locator
+     * @return true if present, false on timeout
+     */
+    public CompletableFuture<Boolean> isPresent(By by) {
+        return isPresent(by, settings.getPresenceTimeout());
+    }
+
+    /**
+     * Determines whether the element becomes visible within the timeout.
+     *
+     * @param element the element
+     * @param timeout how long to wait
+     * @return true if visible, false on timeout
+     */
+    public CompletableFuture<Boolean> isVisible(WebElement element, Duration timeout) {
+        return AsyncWait.timed("AsyncElementUtil.isVisible", element, () -> orFalse(
+                until(ExpectedConditions.visibilityOf(element), timeout, "visibility of element: " + element)));
+    }
+
+    /**
+     * Determines whether the element becomes visible within the configured
+     * presence timeout.
+     *
+     * @param element the element
+     * @return true if visible, false on timeout
+     */
+    public CompletableFuture<Boolean> isVisible(WebElement element) {
+        return isVisible(element, settings.getPresenceTimeout());
+    }
+
+    /**
+     * Determines whether an element matching the locator becomes visible
+     * within the timeout.
+     *
+     * @param by      the locator
+     * @param timeout how long to wait
+     * @return true if visible, false on timeout
+     */
+    public CompletableFuture<Boolean> isVisible(By by, Duration timeout) {
+        return AsyncWait.timed("AsyncElementUtil.isVisible", by, () -> orFalse(
+                until(ExpectedConditions.visibilityOfElementLocated(by), timeout, "visibility of element: " + by)));
+    }
+
+    /**
+     * Determines whether an element matching the locator becomes visible
+     * within the configured presence timeout.
+     *
+     * @param by the locator
+     * @return true if visible, false on timeout
+     */
+    public CompletableFuture<Boolean> isVisible(By by) {
+        return isVisible(by, settings.getPresenceTimeout());
+    }
+
+    private CompletableFuture<Void> click(CompletableFuture<WebElement> clickable) {
+        return clickable.thenCompose(element -> lane.submit(() -> {
+            try {
+                element.click();
+            } catch (ElementClickInterceptedException e) {
+                LOG.info("Element click intercepted, trying JS click.");
+                ((JavascriptExecutor) driver).executeScript(Scripts.CLICK, element);
+            } finally {
+                tracker.interacted();
+            }
+            return null;
+        }));
+    }
+
+    private CompletableFuture<Void> sendKeys(CompletableFuture<WebElement> visible, boolean clear,
+                                             CharSequence... keys) {
+        return visible.thenCompose(element -> lane.submit(() -> {
+            try {
+                if (clear) {
+                    element.clear();
+                }
+                element.sendKeys(keys);
+            } finally {
+                tracker.interacted();
+            }
+            return null;
+        }));
+    }
+
+    private <V> CompletableFuture<V> until(Function<WebDriver, V> condition, String description) {
+        return until(condition, settings.getElementTimeout(), description);
+    }
+
+    private <V> CompletableFuture<V> until(Function<WebDriver, V> condition, Duration timeout,
+                                           String description) {
+        return AsyncWait.until(driver, condition, timeout, pollingStrategy, description);
+    }
+
+    private static CompletableFuture<Boolean> orFalse(CompletableFuture<?> wait) {
+        return wait.handle((value, error) -> {
+            if (error == null) {
+                return true;
+            }
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause instanceof TimeoutException) {
+                return false;
+            }
+            throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package pageobjects.utility;
+
+import fakebrowser.FakeWebDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncElementUtilTest {
+    private static final String PAGE = "<html><head><title>Widgets</title></head><body>"
+            + "<button id='open' data-fake-click='show #menu'>Open</button>"
+            + "<div id='menu' hidden>Menu</div>"
+            + "<p id='first'>One</p><p id='second'>Two</p><p id='third' hidden>Three</p>"
+            + "</body></html>";
+
+    private FakeWebDriver driver;
+    private AsyncElementUtil element;
+
+    @BeforeEach
+    void loadPage() {
+        driver = new FakeWebDriver();
+        driver.loadHtml(PAGE);
+        element = new AsyncElementUtil(driver, ElementUtilTest.settings());
+    }
+
+    @AfterEach
+    void cancel() {
+        AsyncBrowserUtil.cancelPending(driver);
+    }
+
+    @Test
+    @DisplayName("Independent checks are awaited together")
+    void checksTogether() {
+        CompletableFuture<Boolean> first = element.isVisible(By.id("first"));
+        CompletableFuture<Boolean> second = element.isVisible(By.id("second"));
+        CompletableFuture<Boolean> third = element.isVisible(By.id("third"), Duration.ofMillis(200));
+
+        CompletableFuture.allOf(first, second, third).join();
+
+        assertThat(first.join()).isTrue();
+        assertThat(second.join()).isTrue();
+        assertThat(third.join()).isFalse();
+    }
+
+    @Test
+    @DisplayName("A click and the wait it unblocks complete in order")
+    void clickThenWait() {
+        String text = element.click(By.id("open"))
+                .thenCompose(clicked -> element.waitForVisible(By.id("menu")))
+                .thenCompose(menu -> element.getText(By.id("menu")))
+                .join();
+
+        assertThat(text).isEqualTo("Menu");
+    }
+
+    @Test
+    @DisplayName("Waits fail with a TimeoutException")
+    void timesOut() {
+        assertThatThrownBy(() -> element.waitForTextToBePresent(By.id("third"), "Three").join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    @DisplayName("Pending waits are cancelled when the session goes back to the pool")
+    void cancelledOnRelease() {
+        CompletableFuture<Void> pending = element.waitForTextToBePresent(By.id("third"), "Three");
+
+        AsyncBrowserUtil.cancelPending(driver);
+
+        assertThatThrownBy(pending::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(CancellationException.class);
+    }
+}
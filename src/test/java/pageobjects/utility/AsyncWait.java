@@ -0,0 +1,105 @@
+package pageobjects.utility;
+
+import config.PollingStrategy;
+import instrumentation.Metrics;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Waits for a condition without holding a thread between probes. Each probe
+ * is one command on the driver's {@link CommandLane}, and the next probe is
+ * scheduled after the {@link PollingStrategy}'s delay, so any number of
+ * waits on the same or different drivers can be pending at once.
+ */
+final class AsyncWait {
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "async-wait-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private AsyncWait() {
+    }
+
+    /**
+     * Waits until the condition returns a value that is neither null nor
+     * false. Missing and stale elements count as not yet true, as in
+     * FluentWait. Cancelling the returned future stops the probes.
+     *
+     * @param driver      the driver
+     * @param condition   the condition, run on the driver's lane
+     * @param timeout     the timeout
+     * @param strategy    the polling strategy
+     * @param description what is awaited, for the timeout message
+     * @param <V>         the condition's value type
+     * @return the first truthy value, or a TimeoutException
+     */
+    static <V> CompletableFuture<V> until(WebDriver driver, Function<WebDriver, V> condition, Duration timeout,
+                                          PollingStrategy strategy, String description) {
+        CompletableFuture<V> result = new CompletableFuture<>();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        probe(CommandLane.of(driver), driver, condition, 1, deadline, strategy, result, () ->
+                "Timed out after " + timeout.toMillis() + " ms waiting for " + description);
+        return result;
+    }
+
+    /**
+     * Starts an operation and records its latency when it completes, for the
+     * test that started it.
+     *
+     * @param operation      the operation name
+     * @param target         the WebElement, By or locator string the
+     *                       operation acts on, or null
+     * @param operationStart starts the operation
+     * @param <T>            the result type
+     * @return the operation's result
+     */
+    static <T> CompletableFuture<T> timed(String operation, Object target,
+                                          Supplier<CompletableFuture<T>> operationStart) {
+        long start = Metrics.start();
+        String testName = Metrics.getCurrentTest();
+        return operationStart.get().whenComplete((value, error) -> Metrics.record(operation, target, start, testName));
+    }
+
+    private static <V> void probe(CommandLane lane, WebDriver driver, Function<WebDriver, V> condition, int probe,
+                                  long deadline, PollingStrategy strategy, CompletableFuture<V> result,
+                                  Supplier<String> timeoutMessage) {
+        if (result.isDone()) {
+            return;
+        }
+        lane.submit(() -> {
+            try {
+                return condition.apply(driver);
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                return null;
+            }
+        }).whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            if (value != null && !Boolean.FALSE.equals(value)) {
+                result.complete(value);
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                result.completeExceptionally(new TimeoutException(timeoutMessage.get()));
+                return;
+            }
+            long delay = Math.min(strategy.delayBefore(probe + 1).toNanos(), remaining);
+            SCHEDULER.schedule(() -> probe(lane, driver, condition, probe + 1, deadline, strategy, result,
+                    timeoutMessage), delay, TimeUnit.NANOSECONDS);
+        });
+    }
+}
@@ -1,10 +1,17 @@
 package pageobjects.utility;
 
 import config.Configuration;
+import config.PollingStrategy;
+import config.Settings;
+import config.WaitMode;
+import instrumentation.Metrics;
+import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.FluentWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,8 +20,12 @@ import java.time.Duration;
 
 public final class BrowserUtil {
     private static final Logger LOG = LoggerFactory.getLogger(BrowserUtil.class);
-    private final String baseUrl = Configuration.getBaseUrl();
     private final WebDriver driver;
+    private final Settings settings;
+    private final String baseUrl;
+    private final PollingStrategy pollingStrategy;
+    private final ScriptWait scriptWait;
+    private final DocumentTracker tracker;
 
     /**
      * Instantiates a new Browser util.
@@ -22,7 +33,36 @@ public final class BrowserUtil {
      * @param driver the driver
      */
     public BrowserUtil(WebDriver driver) {
+        this(driver, Configuration.getSettings());
+    }
+
+    /**
+     * Instantiates a new Browser util with explicit settings.
+     *
+     * @param driver   the driver
+     * @param settings the settings
+     */
+    public BrowserUtil(WebDriver driver, Settings settings) {
+        this(driver, settings, settings.getPollingStrategy());
+    }
+
+    private BrowserUtil(WebDriver driver, Settings settings, PollingStrategy pollingStrategy) {
         this.driver = driver;
+        this.settings = settings;
+        this.baseUrl = settings.getBaseUrl();
+        this.pollingStrategy = pollingStrategy;
+        this.scriptWait = new ScriptWait(driver);
+        this.tracker = DocumentTracker.of(driver);
+    }
+
+    /**
+     * Returns a copy of this util whose polling waits use the given strategy.
+     *
+     * @param pollingStrategy the polling strategy
+     * @return the browser util copy
+     */
+    public BrowserUtil withPolling(PollingStrategy pollingStrategy) {
+        return new BrowserUtil(driver, settings, pollingStrategy);
     }
 
     /**
@@ -31,18 +71,33 @@ public final class BrowserUtil {
      * @param path the path
      */
     public void navigate(String path) {
-        LOG.info("Loading URL: {}{}", baseUrl, path);
-        driver.get(baseUrl + path);
-        waitForJsToLoad();
+        long start = Metrics.start();
+        try {
+            LOG.info("Loading URL: {}{}", baseUrl, path);
+            tracker.invalidate();
+            tracker.visit(baseUrl + path);
+            driver.get(baseUrl + path);
+            waitForJsToLoad();
+            recordTiming(null);
+        } finally {
+            Metrics.record("BrowserUtil.navigate", path, start);
+        }
     }
 
     /**
      * Refresh the page.
      */
     public void refresh() {
-        LOG.info("Refreshing the page.");
-        driver.navigate().refresh();
-        waitForJsToLoad();
+        long start = Metrics.start();
+        try {
+            LOG.info("Refreshing the page.");
+            tracker.invalidate();
+            driver.navigate().refresh();
+            waitForJsToLoad();
+            recordTiming(null);
+        } finally {
+            Metrics.record("BrowserUtil.refresh", null, start);
+        }
     }
 
     /**
@@ -70,30 +125,137 @@ public final class BrowserUtil {
         }
     }
 
+    /**
+     * Records the browser's timing of the current page in
+     * {@link instrumentation.PageTimings}, one sample per document.
+     * Navigations record unlabelled timings; page objects label them.
+     *
+     * @param page the page label, or null if not known
+     */
+    public void recordTiming(String page) {
+        if (settings.isMetricsEnabled()) {
+            NavigationTiming.capture(driver, page);
+        }
+    }
+
     /**
      * Waits for JavaScript to load.
      */
     public void waitForJsToLoad() {
+        long start = Metrics.start();
         try {
-            ExpectedCondition<Boolean> jsLoad = driver -> {
-                assert driver != null;
-                return (Boolean) ((JavascriptExecutor) driver)
-                        .executeScript("return document.readyState === 'complete'");
-            };
-            getFluentWait(10).until(jsLoad);
-        } catch (Exception e) {
-            LOG.error("JavaScript may have failed to load for {}", getCurrentUrl());
+            if (tracker.sync(driver) || awaitReadyState()) {
+                tracker.markPassed(Readiness.READY_STATE.name());
+            } else {
+                LOG.error("JavaScript may have failed to load for {}", getCurrentUrl());
+            }
+        } finally {
+            Metrics.record("BrowserUtil.waitForJsToLoad", null, start);
         }
     }
 
+    /**
+     * Waits for the page to be ready, unless the same check already passed
+     * for the document the browser shows and the page has not changed since.
+     *
+     * @param readiness      what to wait for
+     * @param keyElementCss  the key element selector for
+     *                       {@link Readiness#KEY_ELEMENT}, otherwise ignored
+     */
+    public void waitUntilReady(Readiness readiness, String keyElementCss) {
+        if (readiness == Readiness.NONE) {
+            return;
+        }
+        if (readiness == Readiness.KEY_ELEMENT && (keyElementCss == null || keyElementCss.isEmpty())) {
+            throw new IllegalArgumentException("KEY_ELEMENT readiness needs a CSS selector.");
+        }
+        String check = readiness == Readiness.KEY_ELEMENT ? readiness + ":" + keyElementCss : readiness.name();
+        // The same script tells which document is shown and whether it loaded, so a mark is never trusted
+        // for a document the page navigated to on its own
+        boolean loaded = tracker.sync(driver);
+        if (tracker.hasPassed(check)) {
+            LOG.debug("Skipping {} check, the page has not changed.", check);
+            return;
+        }
+        if (readiness == Readiness.READY_STATE && loaded) {
+            tracker.markPassed(check);
+            return;
+        }
+
+        long start = Metrics.start();
+        try {
+            boolean ready;
+            switch (readiness) {
+                case KEY_ELEMENT:
+                    By keyElement = By.cssSelector(keyElementCss);
+                    ready = await(ScriptWait.Condition.VISIBLE, keyElement, null,
+                            ExpectedConditions.visibilityOfElementLocated(keyElement));
+                    break;
+                case NETWORK_QUIET:
+                    long quietMillis = settings.getNetworkQuietWindow().toMillis();
+                    ready = await(ScriptWait.Condition.NETWORK_QUIET, null, String.valueOf(quietMillis),
+                            script(Scripts.NETWORK_QUIET + "return networkQuiet(" + quietMillis + ");"));
+                    break;
+                case READY_STATE:
+                default:
+                    ready = awaitReadyState();
+                    break;
+            }
+            if (ready) {
+                tracker.markPassed(check);
+            } else {
+                LOG.error("Page did not become ready ({}) for {}", check, getCurrentUrl());
+            }
+        } finally {
+            Metrics.record("BrowserUtil.waitUntilReady", check, start);
+        }
+    }
+
+    private boolean awaitReadyState() {
+        return await(ScriptWait.Condition.READY_STATE, null, null, script(Scripts.READY_STATE));
+    }
+
+    /**
+     * Waits up to the page load timeout, in the browser when the wait mode is
+     * EVENT, otherwise by polling the fallback condition. Polling after the
+     * browser could not run the wait only gets the time left.
+     *
+     * @return true if the condition held in time
+     */
+    private boolean await(ScriptWait.Condition condition, Object target, String text,
+                          ExpectedCondition<?> fallback) {
+        long deadline = System.nanoTime() + settings.getPageLoadTimeout().toNanos();
+        try {
+            if (settings.getWaitMode() == WaitMode.EVENT) {
+                try {
+                    scriptWait.until(condition, target, text, settings.getPageLoadTimeout());
+                    return true;
+                } catch (FallbackRequired e) {
+                    LOG.debug("Falling back to polling: {}", e.getMessage());
+                }
+            }
+            getFluentWait(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())))
+                    .ignoring(NoSuchElementException.class).until(fallback);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    private static ExpectedCondition<Boolean> script(String script) {
+        return driver -> {
+            assert driver != null;
+            return (Boolean) ((JavascriptExecutor) driver).executeScript(script);
+        };
+    }
+
     /**
      * Gets fluent wait object.
      *
-     * @param secondsToWait the seconds to wait
+     * @param timeout the time to wait
      * @return the fluent wait
      */
-    private FluentWait<WebDriver> getFluentWait(int secondsToWait) {
-        return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(secondsToWait))
-                .pollingEvery(Duration.ofMillis(500));
+    private FluentWait<WebDriver> getFluentWait(Duration timeout) {
+        return StrategyWait.create(driver, timeout, pollingStrategy);
     }
 }
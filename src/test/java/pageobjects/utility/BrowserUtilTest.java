@@ -0,0 +1,85 @@
+package pageobjects.utility;
+
+import config.Configuration;
+import config.Settings;
+import fakebrowser.FakeWebDriver;
+import fakebrowser.Fixtures;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.UnsupportedCommandException;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BrowserUtilTest {
+
+    @Test
+    @DisplayName("Navigation waits for the page and records its origin")
+    void navigate() {
+        FakeWebDriver driver = new FakeWebDriver(Fixtures.fromClasspath("fixtures/google"));
+        BrowserUtil browser = new BrowserUtil(driver, settings("2s"));
+
+        browser.navigate("/search?q=anagram");
+
+        assertThat(driver.getTitle()).isEqualTo("anagram - Google Search");
+        assertThat(DocumentTracker.of(driver).drainOrigins()).containsExactly("https://www.google.com");
+    }
+
+    @Test
+    @DisplayName("Key element readiness polls when the browser cannot wait for it")
+    void keyElementFallsBackToPolling() {
+        FakeWebDriver driver = new FakeWebDriver(Fixtures.fromClasspath("fixtures/google"));
+        driver.get("https://www.google.com/search?q=anagram");
+
+        new BrowserUtil(driver, settings("2s")).waitUntilReady(Readiness.KEY_ELEMENT, "#search");
+
+        assertThat(DocumentTracker.of(driver).hasPassed(Readiness.KEY_ELEMENT + ":#search")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Polling after a failed browser wait gets only the time left")
+    void fallbackSharesDeadline() {
+        FakeWebDriver driver = new FakeWebDriver(Fixtures.fromClasspath("fixtures/google")) {
+            @Override
+            public Object executeAsyncScript(String script, Object... args) {
+                try {
+                    Thread.sleep(1_500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new UnsupportedCommandException("slow to refuse");
+            }
+        };
+        driver.get("https://www.google.com/");
+
+        long start = System.nanoTime();
+        new BrowserUtil(driver, settings("2s")).waitUntilReady(Readiness.KEY_ELEMENT, "#missing");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(3_000));
+        assertThat(DocumentTracker.of(driver).hasPassed(Readiness.KEY_ELEMENT + ":#missing")).isFalse();
+    }
+
+    @Test
+    @DisplayName("A lost session fails the wait instead of reading as not ready")
+    void sessionLossPropagates() {
+        FakeWebDriver driver = new FakeWebDriver(Fixtures.fromClasspath("fixtures/google"));
+        driver.get("https://www.google.com/");
+        driver.quit();
+
+        assertThatThrownBy(() -> new BrowserUtil(driver, settings("2s"))
+                .waitUntilReady(Readiness.KEY_ELEMENT, "#search"))
+                .isInstanceOf(NoSuchSessionException.class);
+    }
+
+    private static Settings settings(String pageLoadTimeout) {
+        Map<String, String> overrides = new HashMap<>();
+        overrides.put("timeouts.page-load", pageLoadTimeout);
+        overrides.put("waits.mode", "EVENT");
+        return Configuration.withOverrides("L4", overrides);
+    }
+}
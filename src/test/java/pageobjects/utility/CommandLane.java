@@ -0,0 +1,174 @@
+package pageobjects.utility;
+
+import instrumentation.Metrics;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.MDC;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs one driver's commands one at a time, in submission order, on a
+ * shared worker pool. A driver is not thread-safe, so every asynchronous
+ * command for it goes through its lane; a worker is only taken while a
+ * command runs, not while a wait sleeps between probes.
+ *
+ * <p>A lane lasts until its driver goes back to the pool. Closing it cancels
+ * the queued commands, and commands submitted to it later, such as the next
+ * probe of a pending wait, are cancelled instead of reaching the session the
+ * next test leases.
+ */
+final class CommandLane {
+    private static final Map<WebDriver, CommandLane> LANES = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final ExecutorService WORKERS;
+
+    static {
+        AtomicInteger threads = new AtomicInteger();
+        WORKERS = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "command-lane-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final Queue<Queued> commands = new ArrayDeque<>();
+    private boolean draining;
+    private boolean running;
+    private boolean closed;
+
+    private CommandLane() {
+    }
+
+    /**
+     * Gets the lane for a driver.
+     *
+     * @param driver the driver
+     * @return the command lane
+     */
+    static CommandLane of(WebDriver driver) {
+        return LANES.computeIfAbsent(driver, key -> new CommandLane());
+    }
+
+    /**
+     * Closes the driver's lane, if it has one: queued commands are cancelled
+     * and the running one, if any, is waited for. The driver's next user gets
+     * a new lane.
+     *
+     * @param driver the driver
+     */
+    static void close(WebDriver driver) {
+        CommandLane lane = LANES.remove(driver);
+        if (lane != null) {
+            lane.close();
+        }
+    }
+
+    /**
+     * Queues a command. The command runs with the submitting thread's current
+     * test set for metrics and its MDC for logging. The future completes on a worker outside the lane,
+     * so callbacks may wait on other commands of the same driver.
+     *
+     * @param command the command
+     * @param <T>     the result type
+     * @return the command's result
+     */
+    <T> CompletableFuture<T> submit(Supplier<T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        String testName = Metrics.getCurrentTest();
+        Map<String, String> logContext = MDC.getCopyOfContextMap();
+        enqueue(result, () -> {
+            if (result.isDone()) {
+                // Cancelled while queued
+                return;
+            }
+            Metrics.setCurrentTest(testName);
+            if (logContext != null) {
+                MDC.setContextMap(logContext);
+            }
+            try {
+                T value = command.get();
+                WORKERS.execute(() -> result.complete(value));
+            } catch (Throwable e) {
+                WORKERS.execute(() -> result.completeExceptionally(e));
+            } finally {
+                Metrics.setCurrentTest(null);
+                MDC.clear();
+            }
+        });
+        return result;
+    }
+
+    private synchronized void enqueue(CompletableFuture<?> result, Runnable command) {
+        if (closed) {
+            result.cancel(false);
+            return;
+        }
+        commands.add(new Queued(result, command));
+        if (!draining) {
+            draining = true;
+            WORKERS.execute(this::drain);
+        }
+    }
+
+    private synchronized void close() {
+        closed = true;
+        Queued queued;
+        while ((queued = commands.poll()) != null) {
+            queued.result.cancel(false);
+        }
+        boolean interrupted = false;
+        while (running) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Queued queued;
+            synchronized (this) {
+                queued = commands.poll();
+                if (queued == null) {
+                    draining = false;
+                    return;
+                }
+                running = true;
+            }
+            try {
+                queued.command.run();
+            } finally {
+                synchronized (this) {
+                    running = false;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * A command waiting in the lane, with the future it completes.
+     */
+    private static final class Queued {
+        private final CompletableFuture<?> result;
+        private final Runnable command;
+
+        private Queued(CompletableFuture<?> result, Runnable command) {
+            this.result = result;
+            this.command = command;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package pageobjects.utility;
+
+import fakebrowser.FakeWebDriver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CommandLaneTest {
+
+    @Test
+    @DisplayName("One driver's commands run one at a time in submission order")
+    void serializesCommands() {
+        FakeWebDriver driver = new FakeWebDriver();
+        CommandLane lane = CommandLane.of(driver);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        try {
+            List<CompletableFuture<Integer>> results = IntStream.range(0, 20)
+                    .mapToObj(i -> lane.submit(() -> {
+                        if (running.incrementAndGet() > 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        order.add(i);
+                        sleep(2);
+                        running.decrementAndGet();
+                        return i;
+                    }))
+                    .collect(Collectors.toList());
+
+            List<Integer> values = results.stream().map(CompletableFuture::join).collect(Collectors.toList());
+
+            assertThat(order).isEqualTo(values).isSorted().hasSize(20);
+            assertThat(overlaps).hasValue(0);
+        } finally {
+            CommandLane.close(driver);
+        }
+    }
+
+    @Test
+    @DisplayName("Different drivers' commands run at the same time")
+    void lanesRunInParallel() throws InterruptedException {
+        FakeWebDriver first = new FakeWebDriver();
+        FakeWebDriver second = new FakeWebDriver();
+        CountDownLatch both = new CountDownLatch(2);
+        try {
+            CommandLane.of(first).submit(() -> meet(both));
+            CommandLane.of(second).submit(() -> meet(both));
+
+            assertThat(both.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            CommandLane.close(first);
+            CommandLane.close(second);
+        }
+    }
+
+    @Test
+    @DisplayName("Closing a lane cancels queued and later commands and waits for the running one")
+    void closeCancels() throws InterruptedException {
+        FakeWebDriver driver = new FakeWebDriver();
+        CommandLane lane = CommandLane.of(driver);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger finished = new AtomicInteger();
+
+        CompletableFuture<Integer> running = lane.submit(() -> {
+            started.countDown();
+            sleep(200);
+            return finished.incrementAndGet();
+        });
+        CompletableFuture<Integer> queued = lane.submit(finished::incrementAndGet);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CommandLane.close(driver);
+        CompletableFuture<Integer> late = lane.submit(finished::incrementAndGet);
+
+        assertThat(finished).hasValue(1);
+        assertThat(running.join()).isEqualTo(1);
+        assertThatThrownBy(queued::join).isInstanceOf(CancellationException.class);
+        assertThatThrownBy(late::join).isInstanceOf(CancellationException.class);
+        assertThat(CommandLane.of(driver)).isNotSameAs(lane);
+        CommandLane.close(driver);
+    }
+
+    private static boolean meet(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
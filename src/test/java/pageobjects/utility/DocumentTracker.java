@@ -0,0 +1,237 @@
+package pageobjects.utility;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers which readiness checks have passed for a driver's current
+ * document, identified by the id the browser reports for it, the elements its locators resolved to and its latest
+ * {@link DomSnapshot}. The framework forgets them whenever it navigates or
+ * switches frames, so a check that already passed is not repeated, an
+ * element is not looked up again and a snapshot is not taken again until
+ * the document changes. Interactions only forget the checks and the
+ * snapshot: the waits that reuse an element check in the browser that it is
+ * still the one its locator finds first. It also remembers
+ * the origins the driver visited, whether navigated to or found on a
+ * document it synced with, so a pooled session can be cleaned for each of
+ * them, and whether the driver can run async scripts at all.
+ */
+public final class DocumentTracker {
+    private static final Map<WebDriver, DocumentTracker> TRACKERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Set<String> passed = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<By, WebElement> elements = new ConcurrentHashMap<>();
+    private final Set<String> origins = ConcurrentHashMap.newKeySet();
+    private volatile DomSnapshot snapshot;
+    private volatile String documentId;
+    private volatile boolean asyncScriptsUnsupported;
+
+    private DocumentTracker() {
+    }
+
+    /**
+     * Gets the tracker for a driver.
+     *
+     * @param driver the driver
+     * @return the tracker
+     */
+    public static DocumentTracker of(WebDriver driver) {
+        return TRACKERS.computeIfAbsent(driver, key -> new DocumentTracker());
+    }
+
+    /**
+     * Forgets every passed check, resolved element and snapshot, because the
+     * document may have changed.
+     */
+    public void invalidate() {
+        passed.clear();
+        elements.clear();
+        snapshot = null;
+        documentId = null;
+    }
+
+    /**
+     * Forgets every passed check and the snapshot, because an interaction
+     * may have changed the page, but keeps the resolved elements, which are
+     * checked again whenever they are reused.
+     */
+    void interacted() {
+        passed.clear();
+        snapshot = null;
+    }
+
+    /**
+     * Ties the tracker to the document the browser shows, forgetting
+     * everything remembered about any other document, e.g. one the page
+     * replaced by navigating on its own. One script reads both the
+     * document's id, whether it finished loading and its origin, which is
+     * recorded as visited.
+     *
+     * @param driver the driver this tracker belongs to
+     * @return true if the document finished loading
+     */
+    boolean sync(WebDriver driver) {
+        String currentId = null;
+        boolean loaded = false;
+        try {
+            List<?> state = (List<?>) ((JavascriptExecutor) driver).executeScript(Scripts.DOCUMENT_STATE);
+            currentId = String.valueOf(state.get(0));
+            loaded = Boolean.TRUE.equals(state.get(1));
+            if (state.size() > 2) {
+                visit(String.valueOf(state.get(2)));
+            }
+        } catch (WebDriverException | ClassCastException e) {
+            // Without an id, nothing remembered about the document can be trusted
+        }
+        if (currentId == null || !currentId.equals(documentId)) {
+            invalidate();
+            documentId = currentId;
+        }
+        return loaded;
+    }
+
+    /**
+     * Records the origin of a URL the driver is visiting.
+     *
+     * @param url the URL, ignored unless it is http or https
+     */
+    public void visit(String url) {
+        String origin = originOf(url);
+        if (origin != null) {
+            origins.add(origin);
+        }
+    }
+
+    /**
+     * Gets the origin of a URL.
+     *
+     * @param url the URL
+     * @return the origin, e.g. https://example.com:8443, or null unless the
+     *         URL is http or https
+     */
+    public static String originOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            URI uri = URI.create(url);
+            String scheme = uri.getScheme();
+            if (("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme)) && uri.getHost() != null) {
+                return scheme.toLowerCase() + "://" + uri.getRawAuthority().replaceFirst("^.*@", "");
+            }
+        } catch (IllegalArgumentException e) {
+            // not a URL a session can hold state for
+        }
+        return null;
+    }
+
+    /**
+     * Gets and forgets the visited origins.
+     *
+     * @return the origins, e.g. https://example.com:8443
+     */
+    public List<String> drainOrigins() {
+        List<String> drained = new ArrayList<>(origins);
+        origins.removeAll(drained);
+        return drained;
+    }
+
+    /**
+     * Whether the driver may run async scripts: it executes scripts and has
+     * not rejected an async one yet.
+     *
+     * @param driver the driver this tracker belongs to
+     * @return true if in-browser waits are worth trying
+     */
+    boolean canRunAsyncScripts(WebDriver driver) {
+        return driver instanceof JavascriptExecutor && !asyncScriptsUnsupported;
+    }
+
+    /**
+     * Records that the driver rejected an async script, so later waits poll
+     * straight away.
+     */
+    void markAsyncScriptsUnsupported() {
+        asyncScriptsUnsupported = true;
+    }
+
+    /**
+     * Whether the check passed since the document last changed. Only
+     * meaningful right after {@link #sync(WebDriver)}.
+     *
+     * @param check the check key
+     * @return true if it passed
+     */
+    boolean hasPassed(String check) {
+        return passed.contains(check);
+    }
+
+    /**
+     * Records that the check passed for the current document.
+     *
+     * @param check the check key
+     */
+    void markPassed(String check) {
+        passed.add(check);
+    }
+
+    /**
+     * Gets the element a locator resolved to in the current document.
+     *
+     * @param by the locator
+     * @return the element, or null if it was not resolved yet
+     */
+    WebElement getElement(By by) {
+        return elements.get(by);
+    }
+
+    /**
+     * Records the element a locator resolved to in the current document.
+     *
+     * @param by      the locator
+     * @param element the element
+     */
+    void putElement(By by, WebElement element) {
+        elements.put(by, element);
+    }
+
+    /**
+     * Forgets the element a locator resolved to, e.g. because it went stale.
+     *
+     * @param by the locator
+     */
+    void removeElement(By by) {
+        elements.remove(by);
+    }
+
+    /**
+     * Gets the snapshot taken of the current document.
+     *
+     * @return the snapshot, or null if none was taken yet
+     */
+    DomSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Records the snapshot taken of the current document.
+     *
+     * @param snapshot the snapshot
+     */
+    void setSnapshot(DomSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+}
@@ -0,0 +1,216 @@
+package pageobjects.utility;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Copy of a document taken in one script call, with each element's
+ * visibility and form control values, that answers presence, visibility,
+ * text and attribute queries in the JVM without further driver calls. It
+ * does not change when the page does: take it once the page is ready and
+ * take a new one after interacting.
+ */
+public final class DomSnapshot {
+    private static final String VISIBLE_MARK = Scripts.SNAPSHOT_VISIBLE_MARK;
+    private static final String VALUE_MARK = Scripts.SNAPSHOT_VALUE_MARK;
+
+    private final Document document;
+    private final Set<Element> hidden = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<Element, String> values = new IdentityHashMap<>();
+
+    private DomSnapshot(Document document) {
+        this.document = document;
+    }
+
+    /**
+     * Takes a snapshot of the driver's current document.
+     *
+     * @param driver the driver
+     * @return the snapshot
+     * @throws org.openqa.selenium.WebDriverException if the driver cannot run
+     *                                                the snapshot script
+     * @throws IllegalStateException                  if the page's HTML does
+     *                                                not parse back into its
+     *                                                elements
+     */
+    static DomSnapshot take(WebDriver driver) {
+        Map<?, ?> result = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(Scripts.SNAPSHOT);
+        DomSnapshot snapshot = new DomSnapshot(Jsoup.parse(String.valueOf(result.get("html")),
+                driver.getCurrentUrl()));
+
+        int marked = 0;
+        List<Element> unmarked = new ArrayList<>();
+        for (Element element : snapshot.document.getAllElements()) {
+            if (element instanceof Document) {
+                continue;
+            }
+            if (!element.hasAttr(VISIBLE_MARK)) {
+                unmarked.add(element);
+                continue;
+            }
+            marked++;
+            if ("0".equals(element.attr(VISIBLE_MARK))) {
+                snapshot.hidden.add(element);
+            }
+            if (element.hasAttr(VALUE_MARK)) {
+                snapshot.values.put(element, element.attr(VALUE_MARK));
+            }
+            element.removeAttr(VISIBLE_MARK).removeAttr(VALUE_MARK);
+        }
+        long count = ((Number) result.get("count")).longValue();
+        if (marked != count) {
+            throw new IllegalStateException("Snapshot of " + driver.getCurrentUrl()
+                    + " does not line up with the page: " + count + " elements, " + marked + " parsed back.");
+        }
+        // Elements the parser made up that the page does not have, such as template contents or an implied tbody
+        unmarked.forEach(Element::unwrap);
+        return snapshot;
+    }
+
+    /**
+     * Whether any element matches the locator.
+     *
+     * @param by the locator
+     * @return true if present
+     */
+    public boolean isPresent(By by) {
+        return !select(by).isEmpty();
+    }
+
+    /**
+     * Whether any element matching the locator is visible.
+     *
+     * @param by the locator
+     * @return true if visible
+     */
+    public boolean isVisible(By by) {
+        return select(by).stream().anyMatch(this::isVisible);
+    }
+
+    /**
+     * Counts the elements matching the locator.
+     *
+     * @param by the locator
+     * @return the count
+     */
+    public int count(By by) {
+        return select(by).size();
+    }
+
+    /**
+     * Gets the visible text of the first element matching the locator, like
+     * WebElement.getText.
+     *
+     * @param by the locator
+     * @return the text, empty if the element is hidden, or null if nothing
+     *         matches
+     */
+    public String getText(By by) {
+        Elements found = select(by);
+        return found.isEmpty() ? null : textOf(found.first());
+    }
+
+    /**
+     * Gets the visible text of every element matching the locator.
+     *
+     * @param by the locator
+     * @return the texts, in document order
+     */
+    public List<String> getTexts(By by) {
+        return select(by).stream().map(this::textOf).collect(Collectors.toList());
+    }
+
+    /**
+     * Gets an attribute of the first element matching the locator. For form
+     * controls "value" is the current value rather than the initial one.
+     *
+     * @param by        the locator
+     * @param attribute the attribute name
+     * @return the attribute value, or null if nothing matches or the element
+     *         does not have the attribute
+     */
+    public String getAttribute(By by, String attribute) {
+        Elements found = select(by);
+        if (found.isEmpty()) {
+            return null;
+        }
+        Element element = found.first();
+        if ("value".equalsIgnoreCase(attribute) && values.containsKey(element)) {
+            return values.get(element);
+        }
+        return element.hasAttr(attribute) ? element.attr(attribute) : null;
+    }
+
+    private boolean isVisible(Element element) {
+        return !hidden.contains(element);
+    }
+
+    /**
+     * Gets the text of the element without the text of hidden descendants.
+     */
+    private String textOf(Element element) {
+        if (!isVisible(element)) {
+            return "";
+        }
+        List<Element> originals = element.getAllElements();
+        Element copy = element.clone();
+        List<Element> copies = new ArrayList<>(copy.getAllElements());
+        for (int i = copies.size() - 1; i > 0; i--) {
+            if (!isVisible(originals.get(i))) {
+                copies.get(i).remove();
+            }
+        }
+        return copy.text();
+    }
+
+    private Elements select(By by) {
+        String description = by.toString();
+        int separator = description.indexOf(": ");
+        if (!description.startsWith("By.") || separator < 0) {
+            throw new IllegalArgumentException("Locator cannot be evaluated on a snapshot: " + by);
+        }
+        String strategy = description.substring(3, separator);
+        String value = description.substring(separator + 2);
+
+        switch (strategy) {
+            case "id":
+                return document.getElementsByAttributeValue("id", value);
+            case "name":
+                return document.getElementsByAttributeValue("name", value);
+            case "className":
+                return document.getElementsByClass(value);
+            case "tagName":
+                return document.getElementsByTag(value);
+            case "cssSelector":
+                return document.select(value);
+            case "xpath":
+                return document.selectXpath(value);
+            case "linkText":
+                return links(text -> text.equals(value));
+            case "partialLinkText":
+                return links(text -> text.contains(value));
+            default:
+                throw new IllegalArgumentException("Locator cannot be evaluated on a snapshot: " + by);
+        }
+    }
+
+    private Elements links(Predicate<String> text) {
+        return document.select("a[href]").stream()
+                .filter(link -> text.test(textOf(link)))
+                .collect(Collectors.toCollection(Elements::new));
+    }
+}
@@ -0,0 +1,100 @@
+package pageobjects.utility;
+
+import fakebrowser.FakeWebDriver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DomSnapshotTest {
+    private static final String PAGE = "<html><head><title>Snapshot</title></head><body>"
+            + "<h1 id='title'>Results <span style='display: none'>(loading)</span></h1>"
+            + "<p class='note' hidden>Hidden note</p>"
+            + "<table><tr><td class='cell'>A</td><td class='cell'>B</td></tr></table>"
+            + "<template><p class='note'>Template note</p></template>"
+            + "<form><input name='q' value='initial'><select name='lang'><option>en</option>"
+            + "<option selected>de</option></select></form>"
+            + "<a href='/next'>Next page</a>"
+            + "</body></html>";
+
+    private FakeWebDriver driver;
+
+    @BeforeEach
+    void loadPage() {
+        driver = new FakeWebDriver();
+        driver.loadHtml(PAGE);
+    }
+
+    @Test
+    @DisplayName("Presence and visibility follow the page")
+    void presenceAndVisibility() {
+        DomSnapshot snapshot = DomSnapshot.take(driver);
+
+        assertThat(snapshot.isPresent(By.id("title"))).isTrue();
+        assertThat(snapshot.isVisible(By.id("title"))).isTrue();
+        assertThat(snapshot.isPresent(By.cssSelector("p.note"))).isTrue();
+        assertThat(snapshot.isVisible(By.cssSelector("p.note"))).isFalse();
+        assertThat(snapshot.isPresent(By.id("missing"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Text leaves out hidden descendants and parser-made elements")
+    void text() {
+        DomSnapshot snapshot = DomSnapshot.take(driver);
+
+        assertThat(snapshot.getText(By.id("title"))).isEqualTo("Results");
+        assertThat(snapshot.getText(By.className("note"))).isEmpty();
+        assertThat(snapshot.getTexts(By.className("cell"))).containsExactly("A", "B");
+        assertThat(snapshot.count(By.cssSelector("p.note"))).isEqualTo(1);
+        assertThat(snapshot.getText(By.id("missing"))).isNull();
+        assertThat(snapshot.isPresent(By.linkText("Next page"))).isTrue();
+        assertThat(snapshot.isPresent(By.partialLinkText("Next"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Form control values are the current ones")
+    void values() {
+        driver.findElement(By.name("q")).clear();
+        driver.findElement(By.name("q")).sendKeys("typed");
+
+        DomSnapshot snapshot = DomSnapshot.take(driver);
+
+        assertThat(snapshot.getAttribute(By.name("q"), "value")).isEqualTo("typed");
+        assertThat(snapshot.getAttribute(By.name("lang"), "value")).isEqualTo("de");
+        assertThat(snapshot.getAttribute(By.name("q"), "data-snapshot-value")).isNull();
+        assertThat(snapshot.getAttribute(By.linkText("Next page"), "href")).isEqualTo("/next");
+    }
+
+    @Test
+    @DisplayName("Snapshot does not change with the page")
+    void detachedFromPage() {
+        DomSnapshot snapshot = DomSnapshot.take(driver);
+
+        driver.getDocument().getElementById("title").remove();
+
+        assertThat(snapshot.isPresent(By.id("title"))).isTrue();
+        assertThat(DomSnapshot.take(driver).isPresent(By.id("title"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Locators without a snapshot equivalent are rejected")
+    void unsupportedLocator() {
+        DomSnapshot snapshot = DomSnapshot.take(driver);
+        By custom = new By() {
+            @Override
+            public List<WebElement> findElements(SearchContext context) {
+                return Collections.emptyList();
+            }
+        };
+
+        assertThatThrownBy(() -> snapshot.isPresent(custom)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
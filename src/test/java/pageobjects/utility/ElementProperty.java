@@ -0,0 +1,14 @@
+package pageobjects.utility;
+
+/**
+ * Element properties that can be fetched in bulk with
+ * {@link ElementUtil#getStates(java.util.List, java.util.Collection, String...)}.
+ */
+public enum ElementProperty {
+    PRESENT,
+    VISIBLE,
+    ENABLED,
+    SELECTED,
+    TEXT,
+    VALUE
+}
@@ -0,0 +1,119 @@
+package pageobjects.utility;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State of one element as fetched by a batch query. Properties that were not
+ * requested are null.
+ */
+public final class ElementState {
+    private final Object target;
+    private final Boolean present;
+    private final Boolean visible;
+    private final Boolean enabled;
+    private final Boolean selected;
+    private final String text;
+    private final String value;
+    private final Map<String, String> attributes;
+
+    /**
+     * Instantiates a new Element state from a batch script result.
+     *
+     * @param target the WebElement or By the state belongs to
+     * @param result the script result for the element
+     */
+    @SuppressWarnings("unchecked")
+    ElementState(Object target, Map<String, Object> result) {
+        this.target = target;
+        this.present = (Boolean) result.get("present");
+        this.visible = (Boolean) result.get("visible");
+        this.enabled = (Boolean) result.get("enabled");
+        this.selected = (Boolean) result.get("selected");
+        this.text = (String) result.get("text");
+        this.value = (String) result.get("value");
+        Map<String, String> fetched = (Map<String, String>) result.get("attributes");
+        this.attributes = fetched == null ? Collections.emptyMap() : new HashMap<>(fetched);
+    }
+
+    /**
+     * Gets the WebElement or By locator this state belongs to.
+     *
+     * @return the target
+     */
+    public Object getTarget() {
+        return target;
+    }
+
+    /**
+     * Whether the element is attached to the document.
+     *
+     * @return true if present, null if not requested
+     */
+    public Boolean isPresent() {
+        return present;
+    }
+
+    /**
+     * Whether the element is displayed.
+     *
+     * @return true if visible, null if not requested
+     */
+    public Boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Whether the element is enabled.
+     *
+     * @return true if enabled, null if not requested
+     */
+    public Boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether the element is a selected option, checkbox or radio button.
+     *
+     * @return true if selected, null if not requested
+     */
+    public Boolean isSelected() {
+        return selected;
+    }
+
+    /**
+     * Gets the element's visible text, empty if it is hidden.
+     *
+     * @return the text, null if not requested or not present
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the element's value.
+     *
+     * @return the value, null if not requested or not present
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Gets a requested attribute.
+     *
+     * @param name the attribute name
+     * @return the attribute value, null if not requested or not set
+     */
+    public String getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public String toString() {
+        return "ElementState{target=" + target + ", present=" + present + ", visible=" + visible
+                + ", enabled=" + enabled + ", selected=" + selected + ", text=" + text + ", value=" + value
+                + ", attributes=" + attributes + "}";
+    }
+}
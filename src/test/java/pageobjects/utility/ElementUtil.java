@@ -1,36 +1,270 @@
 package pageobjects.utility;
 
+import config.Configuration;
+import config.PollingStrategy;
+import config.Settings;
+import config.WaitMode;
+import instrumentation.Metrics;
 import org.openqa.selenium.By;
 import org.openqa.selenium.ElementClickInterceptedException;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
 import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.FluentWait;
 import org.openqa.selenium.support.ui.Select;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pageobjects.binding.LazyElement;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public final class ElementUtil {
     private static final Logger LOG = LoggerFactory.getLogger(ElementUtil.class);
+    private static final String LOCATOR_CACHE_HIT = "ElementUtil.locatorCache.hit";
+    private static final String LOCATOR_CACHE_MISS = "ElementUtil.locatorCache.miss";
+    private static final String LOCATOR_CACHE_STALE = "ElementUtil.locatorCache.stale";
+    private static final String STATES_SCRIPT =
+            "var targets = arguments[0], properties = arguments[1], attributes = arguments[2];"
+            + Scripts.RESOLVE
+            + Scripts.VISIBLE
+            + "function wants(property) { return properties.indexOf(property) !== -1; }"
+            + "return targets.map(function (target) {"
+            + "  var el = resolve(target), state = {};"
+            + "  var present = !!el && el.isConnected;"
+            + "  var shown = present && visible(el);"
+            + "  if (wants('PRESENT')) { state.present = present; }"
+            + "  if (wants('VISIBLE')) { state.visible = shown; }"
+            + "  if (wants('ENABLED')) { state.enabled = present && !el.disabled; }"
+            + "  if (wants('SELECTED')) { state.selected = present && !!(el.selected || el.checked); }"
+            + "  if (wants('TEXT')) { state.text = present ? (shown ? el.innerText : '') : null; }"
+            + "  if (wants('VALUE')) { state.value = present && el.value != null ? String(el.value) : null; }"
+            + "  if (present && attributes.length) {"
+            + "    state.attributes = {};"
+            + "    attributes.forEach(function (name) {"
+            + "      var property = el[name];"
+            + "      state.attributes[name] = property != null && typeof property !== 'object'"
+            + "          && typeof property !== 'function' ? String(property) : el.getAttribute(name);"
+            + "    });"
+            + "  }"
+            + "  return state;"
+            + "});";
     private WebDriver driver;
+    private final Settings settings;
+    private final PollingStrategy pollingStrategy;
+    private final ScriptWait scriptWait;
+    private final Actionability actionability;
+    private final DocumentTracker tracker;
 
     public ElementUtil(WebDriver driver) {
+        this(driver, Configuration.getSettings());
+    }
+
+    public ElementUtil(WebDriver driver, Settings settings) {
+        this(driver, settings, settings.getPollingStrategy());
+    }
+
+    private ElementUtil(WebDriver driver, Settings settings, PollingStrategy pollingStrategy) {
         this.driver = driver;
+        this.settings = settings;
+        this.pollingStrategy = pollingStrategy;
+        this.scriptWait = new ScriptWait(driver);
+        this.actionability = new Actionability(driver);
+        this.tracker = DocumentTracker.of(driver);
+    }
+
+    /**
+     * Returns a copy of this util whose polling waits use the given strategy.
+     *
+     * @param pollingStrategy
+     *            The polling strategy for waits made through the copy
+     * @return
+     *            The ElementUtil copy
+     */
+    public ElementUtil withPolling(PollingStrategy pollingStrategy) {
+        return new ElementUtil(driver, settings, pollingStrategy);
     }
 
     private FluentWait<WebDriver> defaultWait() {
-        return customWait(20);
+        return customWait(settings.getElementTimeout());
+    }
+
+    private FluentWait<WebDriver> customWait(Duration timeout) {
+        return StrategyWait.create(driver, timeout, pollingStrategy).ignoring(NoSuchElementException.class);
+    }
+
+    /**
+     * Waits up to the default timeout for the condition, in the browser when
+     * the wait mode is EVENT, otherwise by polling the fallback condition.
+     */
+    private <V> V defaultWaitUntil(ScriptWait.Condition condition, Object target, String text,
+                                   ExpectedCondition<V> fallback) {
+        return waitUntil(condition, target, text, fallback, settings.getElementTimeout());
+    }
+
+    /**
+     * Waits up to the timeout for the condition, in the browser when the wait
+     * mode is EVENT, otherwise by polling the fallback condition.
+     */
+    @SuppressWarnings("unchecked")
+    private <V> V waitUntil(ScriptWait.Condition condition, Object target, String text,
+                            ExpectedCondition<V> fallback, Duration timeout) {
+        if (settings.getWaitMode() == WaitMode.EVENT) {
+            long start = System.nanoTime();
+            try {
+                return (V) scriptWait.until(condition, target, text, timeout);
+            } catch (FallbackRequired e) {
+                LOG.debug("Falling back to polling: {}", e.getMessage());
+                timeout = timeout.minusNanos(System.nanoTime() - start);
+                if (timeout.isNegative()) {
+                    timeout = Duration.ZERO;
+                }
+            }
+        }
+        return customWait(timeout).until(fallback);
+    }
+
+    /**
+     * Waits in the browser until the element is ready for the action, when
+     * the wait mode is EVENT.
+     *
+     * @param action   the action
+     * @param target   a WebElement or By locator
+     * @param deadline the System.nanoTime() the action's wait ends at
+     * @return the element, or null if the browser cannot run the probe and
+     *         the caller should wait by polling instead, until the deadline
+     */
+    private WebElement awaitActionable(Actionability.Action action, Object target, long deadline) {
+        if (settings.getWaitMode() != WaitMode.EVENT) {
+            return null;
+        }
+        Duration timeout = remaining(deadline);
+        try {
+            if (target instanceof By) {
+                By by = (By) target;
+                return resolve(by, timeout, (element, remaining) -> actionability.awaitCached(action, element, by,
+                        remaining), (locator, remaining) -> actionability.await(action, locator, remaining));
+            }
+            return actionability.await(action, target, timeout);
+        } catch (FallbackRequired e) {
+            LOG.debug("Falling back to polling: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Clicks an element the probe found ready, with JavaScript if something
+     * covered it in the meantime.
+     */
+    private void clickActionable(WebElement element) {
+        try {
+            element.click();
+        } catch (ElementClickInterceptedException e) {
+            LOG.warn("Element click intercepted, trying JS click.");
+            ((JavascriptExecutor) driver).executeScript(Scripts.CLICK, element);
+        }
+    }
+
+    /**
+     * Runs a wait on the element the locator already resolved to in the
+     * current document, or on the locator itself when it has not resolved
+     * yet or the cached wait reports the element stale, and remembers the
+     * element the wait returns. Both waits share the timeout: the locator
+     * wait only gets what is left of it.
+     *
+     * @param by          the locator
+     * @param timeout     the timeout of the whole wait
+     * @param cachedWait  the wait on a resolved element, which throws
+     *                    StaleElementReferenceException once the element is
+     *                    no longer the one the locator means
+     * @param locatorWait the wait on the locator
+     * @param <X>         the checked exception the waits may throw
+     * @return the element
+     * @throws X if a wait does
+     */
+    private <X extends Exception> WebElement resolve(By by, Duration timeout, Wait<WebElement, X> cachedWait,
+                                                     Wait<By, X> locatorWait) throws X {
+        if (!settings.isLocatorCacheEnabled()) {
+            return locatorWait.until(by, timeout);
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        WebElement cached = tracker.getElement(by);
+        if (cached == null) {
+            Metrics.count(LOCATOR_CACHE_MISS);
+        } else {
+            try {
+                WebElement element = cachedWait.until(cached, remaining(deadline));
+                Metrics.count(LOCATOR_CACHE_HIT);
+                return element;
+            } catch (StaleElementReferenceException e) {
+                Metrics.count(LOCATOR_CACHE_STALE);
+                tracker.removeElement(by);
+            }
+        }
+        WebElement element = locatorWait.until(by, remaining(deadline));
+        tracker.putElement(by, element);
+        return element;
+    }
+
+    /**
+     * Waits up to the timeout for the condition on the element the locator
+     * resolved to earlier. When the wait mode is EVENT, the wait script also
+     * checks that the locator still finds the element first; when polling,
+     * the fallback condition only notices that the element went stale.
+     *
+     * @throws StaleElementReferenceException if the element is no longer the
+     *                                       one the locator means
+     */
+    private WebElement waitUntilCached(ScriptWait.Condition condition, WebElement element, By by,
+                                       ExpectedCondition<WebElement> fallback, Duration timeout) {
+        if (settings.getWaitMode() == WaitMode.EVENT) {
+            long start = System.nanoTime();
+            try {
+                return scriptWait.untilCached(condition, element, by, timeout);
+            } catch (FallbackRequired e) {
+                LOG.debug("Falling back to polling: {}", e.getMessage());
+                timeout = timeout.minusNanos(System.nanoTime() - start);
+                if (timeout.isNegative()) {
+                    timeout = Duration.ZERO;
+                }
+            }
+        }
+        return customWait(timeout).until(fallback);
     }
 
-    private FluentWait<WebDriver> customWait(int secondsToWait) {
-        return new FluentWait<>(driver).withTimeout(Duration.ofSeconds(secondsToWait))
-                .pollingEvery(Duration.ofMillis(500)).ignoring(NoSuchElementException.class);
+    /**
+     * Like ExpectedConditions.elementToBeClickable, except that it lets
+     * StaleElementReferenceException through instead of waiting out the
+     * timeout on a stale element.
+     */
+    private static ExpectedCondition<WebElement> clickable(WebElement element) {
+        return driver -> element.isDisplayed() && element.isEnabled() ? element : null;
+    }
+
+    /**
+     * Gets when a wait starting now for the element timeout ends.
+     *
+     * @return the deadline in System.nanoTime() terms
+     */
+    private long deadline() {
+        return System.nanoTime() + settings.getElementTimeout().toNanos();
+    }
+
+    private static Duration remaining(long deadline) {
+        return Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
     }
 
     /**
@@ -42,10 +276,18 @@ public final class ElementUtil {
      *            The visible WebElement
      */
     public WebElement waitForVisible(WebElement element) {
+        return waitForVisible(element, settings.getElementTimeout());
+    }
+
+    private WebElement waitForVisible(WebElement element, Duration timeout) {
+        long start = Metrics.start();
         try {
-            return defaultWait().until(ExpectedConditions.visibilityOf(element));
+            return waitUntil(ScriptWait.Condition.VISIBLE, element, null,
+                    ExpectedConditions.visibilityOf(element), timeout);
         } catch (TimeoutException e) {
             throw new TimeoutException("Timed out waiting for visibility of element: " + element);
+        } finally {
+            Metrics.record("ElementUtil.waitForVisible", element, start);
         }
     }
 
@@ -59,10 +301,21 @@ public final class ElementUtil {
      *            The visible WebElement
      */
     public WebElement waitForVisible(By by) {
+        return waitForVisible(by, settings.getElementTimeout());
+    }
+
+    private WebElement waitForVisible(By by, Duration timeout) {
+        long start = Metrics.start();
         try {
-            return defaultWait().until(ExpectedConditions.visibilityOfElementLocated(by));
+            return resolve(by, timeout,
+                    (element, remaining) -> waitUntilCached(ScriptWait.Condition.VISIBLE, element, by,
+                            ExpectedConditions.visibilityOf(element), remaining),
+                    (locator, remaining) -> waitUntil(ScriptWait.Condition.VISIBLE, locator, null,
+                            ExpectedConditions.visibilityOfElementLocated(by), remaining));
         } catch (TimeoutException e) {
             throw new TimeoutException("Timed out waiting for visibility of element: " + by);
+        } finally {
+            Metrics.record("ElementUtil.waitForVisible", by, start);
         }
     }
 
@@ -75,10 +328,18 @@ public final class ElementUtil {
      *            The clickable WebElement
      */
     public WebElement waitForClickable(WebElement element) {
+        return waitForClickable(element, settings.getElementTimeout());
+    }
+
+    private WebElement waitForClickable(WebElement element, Duration timeout) {
+        long start = Metrics.start();
         try {
-            return defaultWait().until(ExpectedConditions.elementToBeClickable(element));
+            return waitUntil(ScriptWait.Condition.CLICKABLE, element, null,
+                    ExpectedConditions.elementToBeClickable(element), timeout);
         } catch (TimeoutException e) {
             throw new TimeoutException("Timed out waiting for element to be clickable: " + element);
+        } finally {
+            Metrics.record("ElementUtil.waitForClickable", element, start);
         }
     }
 
@@ -93,10 +354,21 @@ public final class ElementUtil {
      *
      */
     public WebElement waitForClickable(By by) {
+        return waitForClickable(by, settings.getElementTimeout());
+    }
+
+    private WebElement waitForClickable(By by, Duration timeout) {
+        long start = Metrics.start();
         try {
-            return defaultWait().until(ExpectedConditions.elementToBeClickable(by));
+            return resolve(by, timeout,
+                    (element, remaining) -> waitUntilCached(ScriptWait.Condition.CLICKABLE, element, by,
+                            clickable(element), remaining),
+                    (locator, remaining) -> waitUntil(ScriptWait.Condition.CLICKABLE, locator, null,
+                            ExpectedConditions.elementToBeClickable(by), remaining));
         } catch (TimeoutException e) {
             throw new TimeoutException("Timed out waiting for element to be clickable: " + by);
+        } finally {
+            Metrics.record("ElementUtil.waitForClickable", by, start);
         }
     }
 
@@ -107,12 +379,24 @@ public final class ElementUtil {
      *            WebElement object representing an element on the page
      */
     public void click(WebElement element) {
-        waitForVisible(element);
+        long start = Metrics.start();
         try {
-            waitForClickable(element).click();
-        } catch (ElementClickInterceptedException e) {
-            LOG.info("Element click intercepted, trying JS click.");
-            clickWithJS(element);
+            long deadline = deadline();
+            WebElement actionable = awaitActionable(Actionability.Action.CLICK, element, deadline);
+            if (actionable != null) {
+                clickActionable(actionable);
+                return;
+            }
+            waitForVisible(element, remaining(deadline));
+            try {
+                waitForClickable(element, remaining(deadline)).click();
+            } catch (ElementClickInterceptedException e) {
+                LOG.info("Element click intercepted, trying JS click.");
+                clickWithJS(element);
+            }
+        } finally {
+            tracker.interacted();
+            Metrics.record("ElementUtil.click", element, start);
         }
     }
 
@@ -124,12 +408,24 @@ public final class ElementUtil {
      *            By object representing a locator to an element on the page
      */
     public void click(By by) {
-        waitForVisible(by);
+        long start = Metrics.start();
         try {
-            waitForClickable(by).click();
-        } catch (ElementClickInterceptedException e) {
-            LOG.warn("Element click intercepted, trying JS click.");
-            clickWithJS(by);
+            long deadline = deadline();
+            WebElement actionable = awaitActionable(Actionability.Action.CLICK, by, deadline);
+            if (actionable != null) {
+                clickActionable(actionable);
+                return;
+            }
+            waitForVisible(by, remaining(deadline));
+            try {
+                waitForClickable(by, remaining(deadline)).click();
+            } catch (ElementClickInterceptedException e) {
+                LOG.warn("Element click intercepted, trying JS click.");
+                clickWithJS(by);
+            }
+        } finally {
+            tracker.interacted();
+            Metrics.record("ElementUtil.click", by, start);
         }
     }
 
@@ -141,7 +437,13 @@ public final class ElementUtil {
      *            WebElement object representing an element on the page
      */
     public void clickWithJS(WebElement element) {
-        ((JavascriptExecutor) driver).executeScript("arguments[0].click()", waitForClickable(element));
+        long start = Metrics.start();
+        try {
+            ((JavascriptExecutor) driver).executeScript(Scripts.CLICK, waitForClickable(element));
+        } finally {
+            tracker.interacted();
+            Metrics.record("ElementUtil.clickWithJS", element, start);
+        }
     }
 
     /**
@@ -152,7 +454,13 @@ public final class ElementUtil {
      *            By object representing a locator to an element on the page
      */
     public void clickWithJS(By by) {
-        ((JavascriptExecutor) driver).executeScript("arguments[0].click()", waitForClickable(by));
+        long start = Metrics.start();
+        try {
+            ((JavascriptExecutor) driver).executeScript(Scripts.CLICK, waitForClickable(by));
+        } finally {
+            tracker.interacted();
+            Metrics.record("ElementUtil.clickWithJS", by, start);
+        }
     }
 
     /**
@@ -165,7 +473,15 @@ public final class ElementUtil {
      *            CharSequence to send to the element
      */
     public void sendKeys(WebElement element, CharSequence... keys) {
-        waitForVisible(element).sendKeys(keys);
+        long start = Metrics.start();
+        try {
+            long deadline = deadline();
+            WebElement actionable = awaitActionable(Actionability.Action.TYPE, element, deadline);
+            (actionable != null ? actionable : waitForVisible(element, remaining(deadline))).sendKeys(keys);
+        } finally {
+            tracker.interacted();
+            Metrics.record("ElementUtil.sendKeys", element, start);
+        }
     }
 
     /**
@@ -178,7 +494,15 @@ public final class ElementUtil {
      *            CharSequence to send to the element
      */
     public void sendKeys(By by, CharSequence... keys) {
-        waitForVisible(by).sendKeys(keys);
+        long start = Metrics.start();
+        try {
+            long deadline = deadline();
+            WebElement actionable = awaitActionable(Actionability.Action.TYPE, by, deadline);
+            (actionable != null ? actionable : waitForVisible(by, remaining(deadline))).sendKeys(keys);
+        } finally {
+            tracker.interacted();
+            Metrics.record("ElementUtil.sendKeys", by, start);
+        }
     }
 
     /**
@@ -191,9 +515,17 @@ public final class ElementUtil {
      *            CharSequence to send to the element
      */
     public void clearAndSendKeys(WebElement element, CharSequence... keys) {
-        waitForVisible(element);
-        element.clear();
-        sendKeys(element, keys);
+        long start = Metrics.start();
+        try {
+            long deadline = deadline();
+            WebElement actionable = awaitActionable(Actionability.Action.TYPE, element, deadline);
+            WebElement visible = actionable != null ? actionable : waitForVisible(element, remaining(deadline));
+            visible.clear();
+            visible.sendKeys(keys);
+        } finally {
+            tracker.interacted();
+            Metrics.record("ElementUtil.clearAndSendKeys", element, start);
+        }
     }
 
     /**
@@ -207,7 +539,41 @@ public final class ElementUtil {
      *            CharSequence to send to the element
      */
     public void clearAndSendKeys(By by, CharSequence... keys) {
-        clearAndSendKeys(waitForVisible(by), keys);
+        long start = Metrics.start();
+        try {
+            long deadline = deadline();
+            WebElement actionable = awaitActionable(Actionability.Action.TYPE, by, deadline);
+            WebElement element = actionable != null ? actionable : waitForVisible(by, remaining(deadline));
+            element.clear();
+            element.sendKeys(keys);
+        } finally {
+            tracker.interacted();
+            Metrics.record("ElementUtil.clearAndSendKeys", by, start);
+        }
+    }
+
+    /**
+     * Gets a snapshot of the page for checks that do not need the live page,
+     * such as asserting that an element is absent without waiting for it.
+     * The page is first waited on to be ready; the snapshot is then reused
+     * until the framework navigates or interacts with the page.
+     *
+     * @return
+     *            The snapshot of the current page
+     */
+    public DomSnapshot snapshot() {
+        new BrowserUtil(driver, settings).waitUntilReady(Readiness.READY_STATE, null);
+        DomSnapshot snapshot = tracker.getSnapshot();
+        if (snapshot == null) {
+            long start = Metrics.start();
+            try {
+                snapshot = DomSnapshot.take(driver);
+                tracker.setSnapshot(snapshot);
+            } finally {
+                Metrics.record("ElementUtil.snapshot", null, start);
+            }
+        }
+        return snapshot;
     }
 
     /**
@@ -223,17 +589,37 @@ public final class ElementUtil {
      *            false.
      */
     public boolean isPresent(WebElement element, int secondsToWait) {
+        return isPresent(element, Duration.ofSeconds(secondsToWait));
+    }
+
+    /**
+     * Fluently determines if an element exists on the page using the given
+     * WebElement object.
+     *
+     * @param element
+     *            WebElement object representing an element on the page
+     * @param timeout
+     *            How long to wait for presence
+     * @return
+     *            True if the desired element is present on the page, otherwise
+     *            false.
+     */
+    public boolean isPresent(WebElement element, Duration timeout) {
+        long start = Metrics.start();
         try {
-            customWait(secondsToWait).until(ExpectedConditions.not(ExpectedConditions.stalenessOf(element)));
+            customWait(timeout).until(ExpectedConditions.not(ExpectedConditions.stalenessOf(element)));
             return true;
         } catch (TimeoutException e) {
             return false;
+        } finally {
+            Metrics.record("ElementUtil.isPresent", element, start);
         }
     }
 
     /**
      * Fluently determines if an element exists on the page using the given
-     * WebElement object and a default timeout of 2 seconds.
+     * WebElement object and the configured presence
+     * timeout.
      *
      * @param element
      *            WebElement object representing an element on the page
@@ -242,7 +628,7 @@ public final class ElementUtil {
      *            false.
      */
     public boolean isPresent(WebElement element) {
-        return isPresent(element, 2);
+        return isPresent(element, settings.getPresenceTimeout());
     }
 
     /**
@@ -258,17 +644,37 @@ public final class ElementUtil {
      *            false.
      */
     public boolean isPresent(By by, int secondsToWait) {
+        return isPresent(by, Duration.ofSeconds(secondsToWait));
+    }
+
+    /**
+     * Fluently determines if an element exists on the page using the given
+     * By selector.
+     *
+     * @param by
+     *            By object representing a locator to an element on the page
+     * @param timeout
+     *            How long to wait for presence
+     * @return
+     *            True if the desired element is present on the page, otherwise
+     *            false.
+     */
+    public boolean isPresent(By by, Duration timeout) {
+        long start = Metrics.start();
         try {
-            customWait(secondsToWait).until(ExpectedConditions.presenceOfElementLocated(by));
+            customWait(timeout).until(ExpectedConditions.presenceOfElementLocated(by));
             return true;
         } catch (TimeoutException e) {
             return false;
+        } finally {
+            Metrics.record("ElementUtil.isPresent", by, start);
         }
     }
 
     /**
      * Fluently determines if an element exists on the page using the given
-     * By selector and a default timeout of 2 seconds.
+     * By selector and the configured presence
+     * timeout.
      *
      * @param by
      *            By object representing a locator to an element on the page
@@ -277,7 +683,7 @@ public final class ElementUtil {
      *            false.
      */
     public boolean isPresent(By by) {
-        return isPresent(by, 2);
+        return isPresent(by, settings.getPresenceTimeout());
     }
 
     /**
@@ -293,17 +699,37 @@ public final class ElementUtil {
      *            false.
      */
     public boolean isVisible(WebElement element, int secondsToWait) {
+        return isVisible(element, Duration.ofSeconds(secondsToWait));
+    }
+
+    /**
+     * Fluently determines if an element is visible on the page using the given
+     * WebElement object.
+     *
+     * @param element
+     *            WebElement object representing an element on the page
+     * @param timeout
+     *            How long to wait for visibility
+     * @return
+     *            True if the desired element is visible on the page, otherwise
+     *            false.
+     */
+    public boolean isVisible(WebElement element, Duration timeout) {
+        long start = Metrics.start();
         try {
-            customWait(secondsToWait).until(ExpectedConditions.visibilityOf(element));
+            customWait(timeout).until(ExpectedConditions.visibilityOf(element));
             return true;
         } catch (TimeoutException e) {
             return false;
+        } finally {
+            Metrics.record("ElementUtil.isVisible", element, start);
         }
     }
 
     /**
      * Fluently determines if an element is visible on the page using the given
-     * WebElement object and a default timeout of 2 seconds.
+     * WebElement object and the configured presence
+     * timeout.
      *
      * @param element
      *            WebElement object representing an element on the page
@@ -312,7 +738,7 @@ public final class ElementUtil {
      *            false.
      */
     public boolean isVisible(WebElement element) {
-        return isVisible(element, 2);
+        return isVisible(element, settings.getPresenceTimeout());
     }
 
     /**
@@ -328,17 +754,37 @@ public final class ElementUtil {
      *            false.
      */
     public boolean isVisible(By by, int secondsToWait) {
+        return isVisible(by, Duration.ofSeconds(secondsToWait));
+    }
+
+    /**
+     * Fluently determines if an element is visible on the page using the given
+     * By selector.
+     *
+     * @param by
+     *            By object representing a locator to an element on the page
+     * @param timeout
+     *            How long to wait for visibility
+     * @return
+     *            True if the desired element is visible on the page, otherwise
+     *            false.
+     */
+    public boolean isVisible(By by, Duration timeout) {
+        long start = Metrics.start();
         try {
-            customWait(secondsToWait).until(ExpectedConditions.visibilityOfElementLocated(by));
+            customWait(timeout).until(ExpectedConditions.visibilityOfElementLocated(by));
             return true;
         } catch (TimeoutException e) {
             return false;
+        } finally {
+            Metrics.record("ElementUtil.isVisible", by, start);
         }
     }
 
     /**
      * Fluently determines if an element is visible on the page using the given
-     * By selector and a default timeout of 2 seconds.
+     * By selector and the configured presence
+     * timeout.
      *
      * @param by
      *            By object representing a locator to an element on the page
@@ -347,7 +793,7 @@ public final class ElementUtil {
      *            false.
      */
     public boolean isVisible(By by) {
-        return isVisible(by, 2);
+        return isVisible(by, settings.getPresenceTimeout());
     }
 
     /**
@@ -359,7 +805,7 @@ public final class ElementUtil {
     public void scrollIntoView(WebElement element) {
         if (isPresent(element)) {
             try {
-                ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element);
+                ((JavascriptExecutor) driver).executeScript(Scripts.SCROLL_INTO_VIEW, element);
             } catch (TimeoutException e) {
                 LOG.error("Could not scroll element into view: {}", e);
             }
@@ -388,7 +834,12 @@ public final class ElementUtil {
      *            The element's text as a string
      */
     public String getText(WebElement element) {
-        return waitForVisible(element).getText();
+        long start = Metrics.start();
+        try {
+            return waitForVisible(element).getText();
+        } finally {
+            Metrics.record("ElementUtil.getText", element, start);
+        }
     }
 
     /**
@@ -401,7 +852,12 @@ public final class ElementUtil {
      *            The element's text as a string
      */
     public String getText(By by) {
-        return waitForVisible(by).getText();
+        long start = Metrics.start();
+        try {
+            return waitForVisible(by).getText();
+        } finally {
+            Metrics.record("ElementUtil.getText", by, start);
+        }
     }
 
     /**
@@ -414,7 +870,12 @@ public final class ElementUtil {
      *            The element's value attribute as a string
      */
     public String getValue(WebElement element) {
-        return waitForVisible(element).getAttribute("value");
+        long start = Metrics.start();
+        try {
+            return waitForVisible(element).getAttribute("value");
+        } finally {
+            Metrics.record("ElementUtil.getValue", element, start);
+        }
     }
 
     /**
@@ -427,7 +888,12 @@ public final class ElementUtil {
      *            The element's value attribute as a string
      */
     public String getValue(By by) {
-        return waitForVisible(by).getAttribute("value");
+        long start = Metrics.start();
+        try {
+            return waitForVisible(by).getAttribute("value");
+        } finally {
+            Metrics.record("ElementUtil.getValue", by, start);
+        }
     }
 
     /**
@@ -441,11 +907,16 @@ public final class ElementUtil {
      *            The element's specified attribute as a string
      */
     public String getAttribute(WebElement element, String attribute) {
-        if (isPresent(element)) {
-            return element.getAttribute(attribute);
-        } else {
-            LOG.error("Unable to locate element: {}", element);
-            return "";
+        long start = Metrics.start();
+        try {
+            if (isPresent(element)) {
+                return element.getAttribute(attribute);
+            } else {
+                LOG.error("Unable to locate element: {}", element);
+                return "";
+            }
+        } finally {
+            Metrics.record("ElementUtil.getAttribute", element, start);
         }
     }
 
@@ -503,6 +974,165 @@ public final class ElementUtil {
         }
     }
 
+    /**
+     * Fetches the requested properties of many elements in a single script
+     * execution. Elements that are not on the page get a state with present,
+     * visible, enabled and selected set to false.
+     *
+     * @param targets
+     *            WebElement objects and/or By locators to query
+     * @param properties
+     *            The properties to fetch for every target
+     * @param attributes
+     *            Names of attributes to fetch for every target
+     * @return
+     *            One ElementState per target, in the same order
+     */
+    public List<ElementState> getStates(List<?> targets, Collection<ElementProperty> properties,
+                                        String... attributes) {
+        long start = Metrics.start();
+        try {
+            List<Object> scriptTargets = new ArrayList<>(targets.size());
+            for (Object target : targets) {
+                scriptTargets.add(toScriptTarget(target));
+            }
+            List<String> names = new ArrayList<>();
+            properties.forEach(property -> names.add(property.name()));
+
+            List<Map<String, Object>> results;
+            try {
+                results = queryStates(scriptTargets, names, attributes);
+            } catch (NoSuchElementException | StaleElementReferenceException e) {
+                LOG.debug("Batch query hit a missing element, resolving elements one at a time.");
+                scriptTargets.replaceAll(ElementUtil::attachedOrNull);
+                results = queryStates(scriptTargets, names, attributes);
+            } catch (UnsupportedCommandException e) {
+                LOG.debug("Driver cannot run the batch query, querying elements one at a time.");
+                results = new ArrayList<>(targets.size());
+                for (Object target : targets) {
+                    results.add(queryState(target, properties, attributes));
+                }
+            }
+
+            List<ElementState> states = new ArrayList<>(targets.size());
+            for (int i = 0; i < targets.size(); i++) {
+                states.add(new ElementState(targets.get(i), results.get(i)));
+            }
+            return states;
+        } finally {
+            Metrics.record("ElementUtil.getStates", null, start);
+        }
+    }
+
+    /**
+     * Fetches the requested properties of many elements in a single script
+     * execution.
+     *
+     * @param targets
+     *            WebElement objects and/or By locators to query
+     * @param properties
+     *            The properties to fetch for every target
+     * @return
+     *            One ElementState per target, in the same order
+     */
+    public List<ElementState> getStates(List<?> targets, ElementProperty... properties) {
+        return getStates(targets, Arrays.asList(properties));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> queryStates(List<Object> targets, List<String> properties,
+                                                  String... attributes) {
+        return (List<Map<String, Object>>) ((JavascriptExecutor) driver).executeScript(STATES_SCRIPT,
+                targets, properties, Arrays.asList(attributes));
+    }
+
+    /**
+     * Fetches the state of one element through WebDriver commands, for
+     * drivers that cannot run the batch script.
+     */
+    private Map<String, Object> queryState(Object target, Collection<ElementProperty> properties,
+                                           String... attributes) {
+        Map<String, Object> state = new HashMap<>();
+        WebElement element = null;
+        if (target instanceof By) {
+            List<WebElement> found = driver.findElements((By) target);
+            element = found.isEmpty() ? null : found.get(0);
+        } else if (attachedOrNull(target) != null) {
+            element = (WebElement) target;
+        }
+        try {
+            boolean present = element != null;
+            boolean shown = present && element.isDisplayed();
+            for (ElementProperty property : properties) {
+                switch (property) {
+                    case PRESENT:
+                        state.put("present", present);
+                        break;
+                    case VISIBLE:
+                        state.put("visible", shown);
+                        break;
+                    case ENABLED:
+                        state.put("enabled", present && element.isEnabled());
+                        break;
+                    case SELECTED:
+                        state.put("selected", present && element.isSelected());
+                        break;
+                    case TEXT:
+                        state.put("text", present ? element.getText() : null);
+                        break;
+                    case VALUE:
+                        state.put("value", present ? element.getAttribute("value") : null);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (present && attributes.length > 0) {
+                Map<String, String> values = new HashMap<>();
+                for (String name : attributes) {
+                    values.put(name, element.getAttribute(name));
+                }
+                state.put("attributes", values);
+            }
+        } catch (StaleElementReferenceException e) {
+            return queryState(null, properties, attributes);
+        }
+        return state;
+    }
+
+    private Object toScriptTarget(Object target) {
+        if (target instanceof LazyElement && ((LazyElement) target).getDocumentLocator() != null) {
+            // Resolving the locator in the script saves the find command serializing the proxy would send
+            return toScriptTarget(((LazyElement) target).getDocumentLocator());
+        }
+        if (target instanceof WebElement) {
+            return target;
+        }
+        if (target instanceof By) {
+            Map<String, String> locator = Locators.toScriptLocator((By) target);
+            if (locator != null) {
+                return locator;
+            }
+            List<WebElement> found = driver.findElements((By) target);
+            return found.isEmpty() ? null : found.get(0);
+        }
+        throw new IllegalArgumentException("Expected a WebElement or By but got: " + target);
+    }
+
+    private static Object attachedOrNull(Object target) {
+        if (!(target instanceof WebElement)) {
+            return target;
+        }
+        try {
+            WebElement element = target instanceof WrapsElement
+                    ? ((WrapsElement) target).getWrappedElement() : (WebElement) target;
+            element.getTagName();
+            return element;
+        } catch (NoSuchElementException | StaleElementReferenceException e) {
+            return null;
+        }
+    }
+
     /**
      * Waits for the specified element to contain the given text.
      *
@@ -514,10 +1144,14 @@ public final class ElementUtil {
      *            True if the desired text is present in the element
      */
     public void waitForTextToBePresent(WebElement element, String text) {
+        long start = Metrics.start();
         try {
-            defaultWait().until(ExpectedConditions.textToBePresentInElement(element, text));
+            defaultWaitUntil(ScriptWait.Condition.TEXT, element, text,
+                    ExpectedConditions.textToBePresentInElement(element, text));
         } catch (TimeoutException e) {
             throw new TimeoutException("Timed out waiting for text to be present in element: " + element);
+        } finally {
+            Metrics.record("ElementUtil.waitForTextToBePresent", element, start);
         }
     }
 
@@ -533,10 +1167,14 @@ public final class ElementUtil {
      *            True if the desired text is present in the element
      */
     public void waitForTextToBePresent(By by, String text) {
+        long start = Metrics.start();
         try {
-            defaultWait().until(ExpectedConditions.textToBePresentInElement(driver.findElement(by), text));
+            defaultWaitUntil(ScriptWait.Condition.TEXT, by, text,
+                    ExpectedConditions.textToBePresentInElementLocated(by, text));
         } catch (TimeoutException e) {
             throw new TimeoutException("Timed out waiting for text to be present in element: " + by);
+        } finally {
+            Metrics.record("ElementUtil.waitForTextToBePresent", by, start);
         }
     }
 
@@ -554,8 +1192,25 @@ public final class ElementUtil {
      *            True if element contains the given text, otherwise false.
      */
     public boolean isTextPresent(WebElement element, String text, int secondsToWait) {
+        return isTextPresent(element, text, Duration.ofSeconds(secondsToWait));
+    }
+
+    /**
+     * Fluently determines if specified text is present in an element on the
+     * page represented by the given WebElement object.
+     *
+     * @param element
+     *            WebElement object representing an element on the page
+     * @param text
+     *            Text to check for in the element
+     * @param timeout
+     *            How long to wait for text
+     * @return
+     *            True if element contains the given text, otherwise false.
+     */
+    public boolean isTextPresent(WebElement element, String text, Duration timeout) {
         try {
-            customWait(secondsToWait).until(ExpectedConditions.textToBePresentInElement(element, text));
+            customWait(timeout).until(ExpectedConditions.textToBePresentInElement(element, text));
             return true;
         } catch (TimeoutException e) {
             return false;
@@ -564,7 +1219,8 @@ public final class ElementUtil {
 
     /**
      * Fluently determines if text is present in an element on the page represented
-     * by the given WebElement object using a default timeout of 2 seconds.
+     * by the given WebElement object using the configured presence
+     * timeout.
      *
      * @param element
      *            WebElement object representing an element on the page
@@ -574,7 +1230,7 @@ public final class ElementUtil {
      *            True if element contains the given text, otherwise false.
      */
     public boolean isTextPresent(WebElement element, String text) {
-        return isTextPresent(element, text, 2);
+        return isTextPresent(element, text, settings.getPresenceTimeout());
     }
 
     /**
@@ -589,6 +1245,7 @@ public final class ElementUtil {
     public void selectOptionByVisibleText(WebElement selectElement, String text) {
         Select select = new Select(waitForVisible(selectElement));
         select.selectByVisibleText(text);
+        tracker.interacted();
     }
 
     /**
@@ -601,6 +1258,7 @@ public final class ElementUtil {
     public void waitForFrameAndSwitchToIt(WebElement frame) {
         try {
             defaultWait().until(ExpectedConditions.frameToBeAvailableAndSwitchToIt(frame));
+            tracker.invalidate();
         } catch (TimeoutException e) {
             throw new TimeoutException("Timed out switching to frame: " + frame);
         }
@@ -627,4 +1285,15 @@ public final class ElementUtil {
             LOG.error("Unable to locate element: {}", element);
         }
     }
+
+    /**
+     * A wait on an element or locator, up to a timeout.
+     *
+     * @param <T> what is waited on
+     * @param <X> the checked exception the wait may throw
+     */
+    @FunctionalInterface
+    private interface Wait<T, X extends Exception> {
+        WebElement until(T target, Duration timeout) throws X;
+    }
 }
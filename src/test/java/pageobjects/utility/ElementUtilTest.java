@@ -0,0 +1,138 @@
+package pageobjects.utility;
+
+import config.Configuration;
+import config.Settings;
+import fakebrowser.FakeWebDriver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ElementUtilTest {
+    private static final String PAGE = "<html><head><title>Elements</title></head><body>"
+            + "<button id='open' data-fake-click='show #menu'>Open</button>"
+            + "<div id='menu' hidden><a id='settings' href='#settings'>Settings</a></div>"
+            + "<p id='status'>Saved <span id='detail' style='display: none'>at 10:00</span></p>"
+            + "<input id='name' value='initial'>"
+            + "</body></html>";
+
+    private FakeWebDriver driver;
+    private ElementUtil element;
+
+    @BeforeEach
+    void loadPage() {
+        driver = new FakeWebDriver();
+        driver.get("https://example.com/");
+        driver.loadHtml(PAGE);
+        element = new ElementUtil(driver, settings());
+    }
+
+    @Test
+    @DisplayName("Waits fall back to polling when the browser cannot run them")
+    void waitsFallBackToPolling() {
+        element.click(By.id("open"));
+
+        assertThat(element.waitForVisible(By.id("settings")).getText()).isEqualTo("Settings");
+        assertThat(element.isVisible(By.id("menu"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Text waits only see rendered text")
+    void textWaitIgnoresHiddenText() {
+        element.waitForTextToBePresent(By.id("status"), "Saved");
+
+        assertThatThrownBy(() -> element.waitForTextToBePresent(By.id("detail"), "10:00"))
+                .isInstanceOf(TimeoutException.class);
+        assertThat(element.isTextPresent(driver.findElement(By.id("detail")), "10:00")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Absent elements time out on the presence timeout")
+    void absentElement() {
+        assertThat(element.isPresent(By.id("missing"))).isFalse();
+        assertThat(element.isVisible(By.id("detail"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Typing replaces the value after clearing")
+    void clearAndSendKeys() {
+        element.clearAndSendKeys(By.id("name"), "typed");
+
+        assertThat(element.getValue(By.id("name"))).isEqualTo("typed");
+    }
+
+    @Test
+    @DisplayName("Typing keeps the element a locator found, so the next action does not look it up")
+    void typingKeepsResolvedElements() {
+        AtomicInteger finds = new AtomicInteger();
+        driver = new FakeWebDriver() {
+            @Override
+            public List<WebElement> findElements(By by) {
+                finds.incrementAndGet();
+                return super.findElements(by);
+            }
+        };
+        driver.loadHtml(PAGE);
+        element = new ElementUtil(driver, settings());
+
+        element.sendKeys(By.id("name"), "first");
+        int firstLookups = finds.getAndSet(0);
+        element.clearAndSendKeys(By.id("name"), "second");
+
+        assertThat(firstLookups).isPositive();
+        assertThat(finds).hasValue(0);
+        assertThat(driver.findElement(By.id("name")).getAttribute("value")).isEqualTo("second");
+    }
+
+    @Test
+    @DisplayName("A remembered element that was replaced is looked up again within the timeout")
+    void staleElementIsLookedUpAgain() {
+        element.sendKeys(By.id("name"), "first");
+        driver.getDocument().select("#name").remove();
+        driver.getDocument().body().appendElement("input").attr("id", "name");
+
+        long start = System.nanoTime();
+        element.clearAndSendKeys(By.id("name"), "second");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(element.getValue(By.id("name"))).isEqualTo("second");
+    }
+
+    @Test
+    @DisplayName("States fall back to one element at a time and keep requested attributes")
+    void statesFallBackPerElement() {
+        WebElement removed = driver.findElement(By.id("settings"));
+        driver.getDocument().select("#menu").remove();
+
+        List<ElementState> states = element.getStates(Arrays.asList(By.id("name"), removed, By.id("missing")),
+                EnumSet.of(ElementProperty.PRESENT, ElementProperty.VALUE), "id");
+
+        assertThat(states.get(0).isPresent()).isTrue();
+        assertThat(states.get(0).getValue()).isEqualTo("initial");
+        assertThat(states.get(0).getAttribute("id")).isEqualTo("name");
+        assertThat(states.get(1).isPresent()).isFalse();
+        assertThat(states.get(2).isPresent()).isFalse();
+        assertThat(states.get(2).getAttribute("id")).isNull();
+    }
+
+    static Settings settings() {
+        Map<String, String> overrides = new HashMap<>();
+        overrides.put("timeouts.element", "1s");
+        overrides.put("timeouts.presence", "200ms");
+        overrides.put("waits.mode", "EVENT");
+        return Configuration.withOverrides("L4", overrides);
+    }
+}
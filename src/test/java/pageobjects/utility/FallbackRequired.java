@@ -0,0 +1,28 @@
+package pageobjects.utility;
+
+/**
+ * Signals that a wait cannot be evaluated in the browser and the caller
+ * should poll from the client instead.
+ */
+final class FallbackRequired extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Instantiates a new Fallback required.
+     *
+     * @param message why the browser cannot evaluate the wait
+     */
+    FallbackRequired(String message) {
+        super(message);
+    }
+
+    /**
+     * Instantiates a new Fallback required.
+     *
+     * @param message why the browser cannot evaluate the wait
+     * @param cause   the failure that showed it
+     */
+    FallbackRequired(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
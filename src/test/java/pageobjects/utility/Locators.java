@@ -0,0 +1,64 @@
+package pageobjects.utility;
+
+import org.openqa.selenium.By;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converts Selenium locators into a form that scripts running in the
+ * browser can resolve themselves.
+ */
+final class Locators {
+    static final String CSS = "css selector";
+    static final String XPATH = "xpath";
+
+    private Locators() {
+    }
+
+    /**
+     * Converts a By locator into a script argument with "using" and "value"
+     * keys, where "using" is either a CSS selector or an XPath expression.
+     *
+     * @param by the locator
+     * @return the script locator, or null if the locator cannot be expressed
+     *         as CSS or XPath
+     */
+    static Map<String, String> toScriptLocator(By by) {
+        String description = by.toString();
+        int separator = description.indexOf(": ");
+        if (!description.startsWith("By.") || separator < 0) {
+            return null;
+        }
+        String strategy = description.substring(3, separator);
+        String value = description.substring(separator + 2);
+
+        switch (strategy) {
+            case "cssSelector":
+                return locator(CSS, value);
+            case "xpath":
+                return locator(XPATH, value);
+            case "id":
+                return locator(CSS, "[id=" + quote(value) + "]");
+            case "name":
+                return locator(CSS, "[name=" + quote(value) + "]");
+            case "className":
+                return locator(CSS, "[class~=" + quote(value) + "]");
+            case "tagName":
+                return locator(CSS, value);
+            default:
+                return null;
+        }
+    }
+
+    private static Map<String, String> locator(String using, String value) {
+        Map<String, String> locator = new HashMap<>();
+        locator.put("using", using);
+        locator.put("value", value);
+        return locator;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,77 @@
+package pageobjects.utility;
+
+import instrumentation.Metrics;
+import instrumentation.PageTiming;
+import instrumentation.PageTimings;
+import instrumentation.TimingMetric;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Reads the browser's timing of the current document into
+ * {@link PageTimings}. Each document is recorded once: a later read of the
+ * same document, e.g. by the page object after a navigation, replaces the
+ * sample so it gains the page label and any metric the browser reported
+ * since. Documents are told apart by the performance.timeOrigin the timing
+ * script itself returns, so a page that navigated on its own is never
+ * mistaken for the one recorded before.
+ */
+final class NavigationTiming {
+    private static final Logger LOG = LoggerFactory.getLogger(NavigationTiming.class);
+    private static final Map<WebDriver, PageTiming> LAST = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private NavigationTiming() {
+    }
+
+    /**
+     * Records the timing of the driver's current document, or updates the
+     * sample when it was already recorded.
+     *
+     * @param driver the driver
+     * @param page   the page label, or null if not known
+     */
+    static void capture(WebDriver driver, String page) {
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(Scripts.TIMINGS);
+            if (result instanceof Map) {
+                record(driver, (Map<?, ?>) result, page);
+            }
+        } catch (WebDriverException | ClassCastException e) {
+            LOG.debug("Could not read page timing: {}", e.getMessage());
+        }
+    }
+
+    private static void record(WebDriver driver, Map<?, ?> result, String page) {
+        Map<TimingMetric, Long> metrics = new EnumMap<>(TimingMetric.class);
+        for (TimingMetric metric : TimingMetric.values()) {
+            Object value = result.get(metric.name());
+            if (value instanceof Number) {
+                metrics.put(metric, ((Number) value).longValue());
+            }
+        }
+        double timeOrigin = ((Number) result.get("timeOrigin")).doubleValue();
+
+        synchronized (LAST) {
+            PageTiming last = LAST.get(driver);
+            if (last != null && last.getTimeOrigin() == timeOrigin) {
+                PageTiming timing = new PageTiming(page == null ? last.getPage() : page, last.getTest(),
+                        last.getUrl(), timeOrigin, metrics);
+                PageTimings.replace(last, timing);
+                LAST.put(driver, timing);
+            } else {
+                PageTiming timing = new PageTiming(page, Metrics.getCurrentTest(), String.valueOf(result.get("url")),
+                        timeOrigin, metrics);
+                PageTimings.record(timing);
+                LAST.put(driver, timing);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package pageobjects.utility;
+
+import fakebrowser.FakeWebDriver;
+import fakebrowser.Fixtures;
+import instrumentation.PageTimings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NavigationTimingTest {
+
+    @Test
+    @DisplayName("A page object on a blank document records no sample")
+    void blankDocumentIsNotRecorded() {
+        FakeWebDriver driver = new FakeWebDriver();
+
+        NavigationTiming.capture(driver, "NavigationTimingTest.BlankPage");
+
+        assertThat(PageTimings.count("NavigationTimingTest.BlankPage")).isZero();
+    }
+
+    @Test
+    @DisplayName("A document is recorded once and labelled by the page object that reads it again")
+    void documentRecordedOnce() {
+        FakeWebDriver driver = new FakeWebDriver(Fixtures.fromClasspath("fixtures/google"));
+        driver.get("https://www.google.com/");
+
+        NavigationTiming.capture(driver, null);
+        NavigationTiming.capture(driver, "NavigationTimingTest.HomePage");
+
+        assertThat(PageTimings.count("NavigationTimingTest.HomePage")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,24 @@
+package pageobjects.utility;
+
+/**
+ * What a page waits for before it is used.
+ */
+public enum Readiness {
+    /**
+     * document.readyState is complete.
+     */
+    READY_STATE,
+    /**
+     * A key element, given as a CSS selector, is visible.
+     */
+    KEY_ELEMENT,
+    /**
+     * The document has loaded and no resource has finished loading for the
+     * configured quiet window.
+     */
+    NETWORK_QUIET,
+    /**
+     * The page is used without waiting.
+     */
+    NONE
+}
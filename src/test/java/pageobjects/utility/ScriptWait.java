@@ -0,0 +1,202 @@
+package pageobjects.utility;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Waits for a condition inside the browser. An async script re-checks the
+ * condition on DOM mutations, transitions and readyState changes and
+ * resolves as soon as it holds, instead of the client polling on a fixed
+ * interval.
+ */
+final class ScriptWait {
+    /**
+     * Longest single script call. Kept well under the W3C default script
+     * timeout of 30 seconds.
+     */
+    private static final long MAX_CHUNK_MILLIS = 5_000;
+    private static final int MAX_SCRIPT_ERRORS = 3;
+
+    private static final String SCRIPT =
+            "var condition = arguments[0], target = arguments[1], text = arguments[2];"
+            + "var cached = arguments[4], locator = arguments[5], done = arguments[arguments.length - 1];"
+            + Scripts.RESOLVE
+            + Scripts.REPLACED
+            + Scripts.VISIBLE
+            + Scripts.NETWORK_QUIET
+            + "function check() {"
+            + "  if (condition === 'READY_STATE') { return document.readyState === 'complete'; }"
+            + "  if (condition === 'NETWORK_QUIET') { return networkQuiet(Number(text)); }"
+            + "  var el = resolve(target);"
+            + "  if (cached && replaced(el, locator)) { return '" + Scripts.REPLACED_MARK + "'; }"
+            + "  if (condition === 'VISIBLE') { return visible(el) ? el : null; }"
+            + "  if (condition === 'CLICKABLE') { return visible(el) && !el.disabled ? el : null; }"
+            // Rendered text only, like WebElement.getText: empty for a hidden element
+            + "  if (condition === 'TEXT') {"
+            + "    return !!el && (visible(el) ? el.innerText || '' : '').indexOf(text) !== -1;"
+            + "  }"
+            + "  return null;"
+            + "}"
+            + "var result = check();"
+            + "if (result) { done(result); return; }"
+            + "var observer, timer, interval, finished = false;"
+            + "function finish(value) {"
+            + "  if (finished) { return; }"
+            + "  finished = true;"
+            + "  observer.disconnect();"
+            + "  clearTimeout(timer);"
+            + "  clearInterval(interval);"
+            + "  document.removeEventListener('readystatechange', onChange);"
+            + "  document.removeEventListener('transitionend', onChange, true);"
+            + "  document.removeEventListener('animationend', onChange, true);"
+            + "  done(value);"
+            + "}"
+            + "function onChange() { var value = check(); if (value) { finish(value); } }"
+            + "observer = new MutationObserver(onChange);"
+            + "observer.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});"
+            + "document.addEventListener('readystatechange', onChange);"
+            + "document.addEventListener('transitionend', onChange, true);"
+            + "document.addEventListener('animationend', onChange, true);"
+            // Quiet is reached by time passing rather than by an event
+            + "if (condition === 'NETWORK_QUIET') { interval = setInterval(onChange, 100); }"
+            + "timer = setTimeout(function () { finish(check()); }, arguments[3]);";
+
+    /**
+     * Conditions the script knows how to evaluate.
+     */
+    enum Condition {
+        READY_STATE,
+        VISIBLE,
+        CLICKABLE,
+        TEXT,
+        NETWORK_QUIET
+    }
+
+    private final WebDriver driver;
+    private final DocumentTracker tracker;
+
+    /**
+     * Instantiates a new Script wait.
+     *
+     * @param driver the driver
+     */
+    ScriptWait(WebDriver driver) {
+        this.driver = driver;
+        this.tracker = DocumentTracker.of(driver);
+    }
+
+    /**
+     * Waits for the condition to hold.
+     *
+     * @param condition the condition
+     * @param target    a WebElement or By locator, or null for page conditions
+     * @param text      the text for {@link Condition#TEXT}, the quiet window in
+     *                  milliseconds for {@link Condition#NETWORK_QUIET},
+     *                  otherwise null
+     * @param timeout   how long to wait
+     * @return the matching element for element conditions, otherwise true
+     * @throws TimeoutException  if the condition did not hold in time
+     * @throws FallbackRequired if the condition cannot be evaluated in the
+     *                          browser
+     */
+    Object until(Condition condition, Object target, String text, Duration timeout) throws FallbackRequired {
+        if (!tracker.canRunAsyncScripts(driver)) {
+            throw new FallbackRequired("Driver cannot run async scripts.");
+        }
+        Object scriptTarget = target;
+        if (target instanceof By) {
+            Map<String, String> locator = Locators.toScriptLocator((By) target);
+            if (locator == null) {
+                throw new FallbackRequired("Locator cannot be resolved in the browser: " + target);
+            }
+            scriptTarget = locator;
+        }
+        return run(condition, scriptTarget, text, false, null, timeout);
+    }
+
+    /**
+     * Waits for an element condition to hold for the element a locator
+     * resolved to earlier. The same script checks that the element is still
+     * attached and still the one the locator finds first, so reusing it
+     * costs no extra lookup.
+     *
+     * @param condition the element condition
+     * @param element   the element the locator resolved to
+     * @param by        the locator
+     * @param timeout   how long to wait
+     * @return the element
+     * @throws TimeoutException              if the condition did not hold in
+     *                                       time
+     * @throws StaleElementReferenceException if the element is detached or
+     *                                       the locator now finds another
+     *                                       element first
+     * @throws FallbackRequired              if the condition cannot be
+     *                                       evaluated in the browser
+     */
+    WebElement untilCached(Condition condition, WebElement element, By by, Duration timeout)
+            throws FallbackRequired {
+        if (!tracker.canRunAsyncScripts(driver)) {
+            throw new FallbackRequired("Driver cannot run async scripts.");
+        }
+        Object result = run(condition, element, null, true, Locators.toScriptLocator(by), timeout);
+        if (Scripts.REPLACED_MARK.equals(result)) {
+            throw new StaleElementReferenceException("Element no longer found first by " + by);
+        }
+        return (WebElement) result;
+    }
+
+    /**
+     * Runs the script in chunks until the condition holds or the timeout
+     * passes.
+     *
+     * @param cached  whether target is a remembered element to check first
+     * @param locator the script locator a cached target must still be found
+     *                first by, or null to only check that it is attached
+     */
+    private Object run(Condition condition, Object target, String text, boolean cached,
+                       Map<String, String> locator, Duration timeout) throws FallbackRequired {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        int scriptErrors = 0;
+        do {
+            long remaining = Math.max(0, (deadline - System.nanoTime()) / 1_000_000);
+            try {
+                Object result = ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT, condition.name(), target,
+                        text, Math.min(remaining, MAX_CHUNK_MILLIS), cached, locator);
+                if (result != null && !Boolean.FALSE.equals(result)) {
+                    return result;
+                }
+                scriptErrors = 0;
+            } catch (ScriptTimeoutException e) {
+                scriptErrors = 0;
+            } catch (StaleElementReferenceException e) {
+                if (cached) {
+                    throw e;
+                }
+                throw new FallbackRequired("Element cannot be passed to the browser.", e);
+            } catch (NoSuchElementException e) {
+                throw new FallbackRequired("Element cannot be passed to the browser.", e);
+            } catch (UnsupportedCommandException e) {
+                tracker.markAsyncScriptsUnsupported();
+                throw new FallbackRequired("Driver cannot run async scripts.", e);
+            } catch (JavascriptException e) {
+                // The document may have unloaded mid-wait, so retry a few times before giving up
+                if (++scriptErrors >= MAX_SCRIPT_ERRORS) {
+                    throw new FallbackRequired("Wait script keeps failing.", e);
+                }
+            }
+        } while (System.nanoTime() < deadline);
+
+        throw new TimeoutException("Timed out after " + timeout.toMillis() + " ms waiting for " + condition);
+    }
+}
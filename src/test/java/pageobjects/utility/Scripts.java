@@ -0,0 +1,178 @@
+package pageobjects.utility;
+
+/**
+ * JavaScript helpers shared by the scripts the utilities run in the browser.
+ * The public scripts are the ones a stand-in driver has to answer.
+ */
+public final class Scripts {
+    /**
+     * Defines resolve(target), which returns the element for a WebElement or
+     * a script locator from {@link Locators}, or null if nothing matches.
+     */
+    static final String RESOLVE =
+            "function resolve(target) {"
+            + "  if (!target) { return null; }"
+            + "  if (target.nodeType) { return target; }"
+            + "  if (target.using === 'xpath') {"
+            + "    return document.evaluate(target.value, document, null,"
+            + "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "  }"
+            + "  return document.querySelector(target.value);"
+            + "}";
+
+    /**
+     * Value a wait script returns for a remembered element that
+     * {@link #REPLACED} reports as replaced.
+     */
+    static final String REPLACED_MARK = "$replaced";
+
+    /**
+     * Defines replaced(el, locator), which is true when a remembered element
+     * is detached or, given its script locator, no longer the element the
+     * locator finds first. Needs {@link #RESOLVE}.
+     */
+    static final String REPLACED =
+            "function replaced(el, locator) {"
+            + "  return !el || !el.isConnected || (!!locator && resolve(locator) !== el);"
+            + "}";
+
+    /**
+     * Defines documentId(), which identifies the current document: its
+     * performance.timeOrigin, or a marker stored on the document where that
+     * is not available.
+     */
+    static final String DOCUMENT_ID =
+            "function documentId() {"
+            + "  if (window.performance && performance.timeOrigin) { return String(performance.timeOrigin); }"
+            + "  if (!document.$documentId) { document.$documentId = Date.now() + ':' + Math.random(); }"
+            + "  return document.$documentId;"
+            + "}";
+
+    /**
+     * Returns the current document's id, whether it finished loading and its
+     * origin, as a three-element array.
+     */
+    public static final String DOCUMENT_STATE =
+            DOCUMENT_ID + "return [documentId(), document.readyState === 'complete', location.origin];";
+
+    /**
+     * Returns whether the current document finished loading.
+     */
+    public static final String READY_STATE = "return document.readyState === 'complete';";
+
+    /**
+     * Clicks arguments[0] through the DOM, without the pointer checks of a
+     * WebDriver click.
+     */
+    public static final String CLICK = "arguments[0].click();";
+
+    /**
+     * Scrolls arguments[0] to the top of the viewport.
+     */
+    public static final String SCROLL_INTO_VIEW = "arguments[0].scrollIntoView(true);";
+
+    /**
+     * Clears the current origin's localStorage and sessionStorage, ignoring
+     * documents that deny access to them.
+     */
+    public static final String CLEAR_STORAGE =
+            "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}";
+
+    /**
+     * Attribute a document snapshot sets to '1' on visible and '0' on
+     * hidden elements.
+     */
+    public static final String SNAPSHOT_VISIBLE_MARK = "data-snapshot-visible";
+
+    /**
+     * Attribute a document snapshot sets to the current value of form
+     * controls.
+     */
+    public static final String SNAPSHOT_VALUE_MARK = "data-snapshot-value";
+
+    /**
+     * Defines visible(el), an approximation of WebElement.isDisplayed.
+     */
+    static final String VISIBLE =
+            "function visible(el) {"
+            + "  if (!el || !el.isConnected) { return false; }"
+            + "  var style = window.getComputedStyle(el);"
+            + "  if (style.display === 'none' || style.visibility === 'hidden' || style.opacity === '0') {"
+            + "    return false;"
+            + "  }"
+            + "  var rect = el.getBoundingClientRect();"
+            + "  return rect.width > 0 && rect.height > 0;"
+            + "}";
+
+    /**
+     * Defines networkQuiet(quietMillis), which is true once the document has
+     * loaded and no resource has finished loading for quietMillis.
+     */
+    static final String NETWORK_QUIET =
+            "function networkQuiet(quietMillis) {"
+            + "  if (document.readyState !== 'complete') { return false; }"
+            + "  var entries = performance.getEntriesByType('resource'), last = 0;"
+            + "  for (var i = 0; i < entries.length; i++) { last = Math.max(last, entries[i].responseEnd); }"
+            + "  return performance.now() - last >= quietMillis;"
+            + "}";
+
+    /**
+     * Returns the current document's Navigation, Paint and Resource Timing
+     * figures as an object with url, timeOrigin and one property per
+     * {@code TimingMetric} the browser reported, in milliseconds from the
+     * start of the navigation. Returns null for documents not loaded over
+     * http or https, such as about:blank, which were never navigated to.
+     */
+    public static final String TIMINGS =
+            "var perf = window.performance;"
+            + "if (!perf || !perf.timing || !/^https?:$/.test(location.protocol)) { return null; }"
+            + "var t = perf.timing, start = t.navigationStart;"
+            + "var result = {url: location.href, timeOrigin: perf.timeOrigin || start};"
+            + "function put(name, value) { if (value > 0) { result[name] = Math.round(value); } }"
+            + "var nav = perf.getEntriesByType ? perf.getEntriesByType('navigation')[0] : null;"
+            + "if (nav) {"
+            + "  put('TTFB', nav.responseStart);"
+            + "  put('DOM_CONTENT_LOADED', nav.domContentLoadedEventEnd);"
+            + "  put('LOAD', nav.loadEventEnd);"
+            + "} else {"
+            + "  put('TTFB', t.responseStart - start);"
+            + "  put('DOM_CONTENT_LOADED', t.domContentLoadedEventEnd - start);"
+            + "  put('LOAD', t.loadEventEnd - start);"
+            + "}"
+            + "if (!perf.getEntriesByType) { return result; }"
+            + "var paints = perf.getEntriesByType('paint');"
+            + "for (var i = 0; i < paints.length; i++) {"
+            + "  put(paints[i].name === 'first-paint' ? 'FIRST_PAINT' : 'FIRST_CONTENTFUL_PAINT', paints[i].startTime);"
+            + "}"
+            + "var resources = perf.getEntriesByType('resource'), bytes = 0, slowest = 0;"
+            + "for (var j = 0; j < resources.length; j++) {"
+            + "  bytes += resources[j].transferSize || 0;"
+            + "  slowest = Math.max(slowest, resources[j].duration);"
+            + "}"
+            + "result.RESOURCE_COUNT = resources.length;"
+            + "result.TRANSFER_SIZE = bytes;"
+            + "put('SLOWEST_RESOURCE', slowest);"
+            + "return result;";
+
+    /**
+     * Returns {html, count}: the outerHTML of a copy of the document in
+     * which every element carries the snapshot marks, and the number of
+     * elements in the live document. A deep clone lists its elements in the
+     * same order as the live document, so each copy gets the visibility and
+     * value of its live element.
+     */
+    public static final String SNAPSHOT =
+            VISIBLE
+            + "var live = document.getElementsByTagName('*'), clone = document.documentElement.cloneNode(true);"
+            + "var copies = [clone].concat(Array.prototype.slice.call(clone.getElementsByTagName('*')));"
+            + "for (var i = 0; i < live.length; i++) {"
+            + "  copies[i].setAttribute('" + SNAPSHOT_VISIBLE_MARK + "', visible(live[i]) ? '1' : '0');"
+            + "  if (/^(INPUT|TEXTAREA|SELECT)$/i.test(live[i].tagName)) {"
+            + "    copies[i].setAttribute('" + SNAPSHOT_VALUE_MARK + "', String(live[i].value));"
+            + "  }"
+            + "}"
+            + "return {html: clone.outerHTML, count: live.length};";
+
+    private Scripts() {
+    }
+}
@@ -0,0 +1,91 @@
+package pageobjects.utility;
+
+import config.PollingStrategy;
+import org.openqa.selenium.support.ui.FluentWait;
+import org.openqa.selenium.support.ui.Sleeper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * FluentWait that sleeps according to a {@link PollingStrategy} and reports
+ * how many probes each wait used.
+ *
+ * @param <T> the wait input type
+ */
+final class StrategyWait<T> extends FluentWait<T> {
+    private static final Logger LOG = LoggerFactory.getLogger(StrategyWait.class);
+    private final ProbeSleeper sleeper;
+
+    private StrategyWait(T input, ProbeSleeper sleeper) {
+        super(input, Clock.systemDefaultZone(), sleeper);
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * Creates a wait with the given timeout and polling strategy.
+     *
+     * @param input    the wait input
+     * @param timeout  the timeout
+     * @param strategy the polling strategy
+     * @param <T>      the wait input type
+     * @return the wait
+     */
+    static <T> StrategyWait<T> create(T input, Duration timeout, PollingStrategy strategy) {
+        StrategyWait<T> wait = new StrategyWait<>(input, new ProbeSleeper(strategy, timeout));
+        wait.withTimeout(timeout);
+        return wait;
+    }
+
+    @Override
+    public <V> V until(Function<? super T, V> isTrue) {
+        sleeper.reset();
+        try {
+            return super.until(isTrue);
+        } finally {
+            LOG.debug("Wait for {} used {} probes.", isTrue, getProbes());
+        }
+    }
+
+    /**
+     * Gets the number of probes the last wait used.
+     *
+     * @return the probe count
+     */
+    int getProbes() {
+        return sleeper.sleeps + 1;
+    }
+
+    /**
+     * Sleeps for the strategy's delay instead of the fixed interval FluentWait
+     * passes in, never past the wait's deadline.
+     */
+    private static final class ProbeSleeper implements Sleeper {
+        private final PollingStrategy strategy;
+        private final Duration timeout;
+        private long deadline;
+        private int sleeps;
+
+        ProbeSleeper(PollingStrategy strategy, Duration timeout) {
+            this.strategy = strategy;
+            this.timeout = timeout;
+        }
+
+        void reset() {
+            deadline = System.nanoTime() + timeout.toNanos();
+            sleeps = 0;
+        }
+
+        @Override
+        public void sleep(Duration ignored) throws InterruptedException {
+            sleeps++;
+            long delay = Math.min(strategy.delayBefore(sleeps + 1).toNanos(), deadline - System.nanoTime());
+            if (delay > 0) {
+                Thread.sleep(delay / 1_000_000, (int) (delay % 1_000_000));
+            }
+        }
+    }
+}
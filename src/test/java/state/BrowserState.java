@@ -0,0 +1,126 @@
+package state;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pageobjects.utility.DocumentTracker;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cookies, localStorage and sessionStorage of the page a browser is on.
+ * Only the state of that page's origin is captured, so setup flows should
+ * end on the site the test continues on.
+ */
+final class BrowserState {
+    private static final Logger LOG = LoggerFactory.getLogger(BrowserState.class);
+    private static final String CAPTURE_STORAGE =
+            "function dump(storage) {"
+            + "  var entries = {};"
+            + "  for (var i = 0; i < storage.length; i++) {"
+            + "    entries[storage.key(i)] = storage.getItem(storage.key(i));"
+            + "  }"
+            + "  return entries;"
+            + "}"
+            + "return {local: dump(window.localStorage), session: dump(window.sessionStorage)};";
+    private static final String RESTORE_STORAGE =
+            "window.localStorage.clear(); window.sessionStorage.clear();"
+            + "for (var l in arguments[0]) { window.localStorage.setItem(l, arguments[0][l]); }"
+            + "for (var s in arguments[1]) { window.sessionStorage.setItem(s, arguments[1][s]); }";
+
+    private final String url;
+    private final Set<Cookie> cookies;
+    private final Map<String, String> localStorage;
+    private final Map<String, String> sessionStorage;
+    private final Instant capturedAt;
+
+    private BrowserState(String url, Set<Cookie> cookies, Map<String, String> localStorage,
+                         Map<String, String> sessionStorage) {
+        this.url = url;
+        this.cookies = Collections.unmodifiableSet(new LinkedHashSet<>(cookies));
+        this.localStorage = Collections.unmodifiableMap(localStorage);
+        this.sessionStorage = Collections.unmodifiableMap(sessionStorage);
+        this.capturedAt = Instant.now();
+    }
+
+    /**
+     * Captures the state of the page the driver is on. Web storage is left
+     * out for drivers that cannot run scripts.
+     *
+     * @param driver the driver
+     * @return the state
+     */
+    static BrowserState capture(WebDriver driver) {
+        Map<String, String> local = new LinkedHashMap<>();
+        Map<String, String> session = new LinkedHashMap<>();
+        try {
+            Object storage = ((JavascriptExecutor) driver).executeScript(CAPTURE_STORAGE);
+            if (storage instanceof Map) {
+                copy(((Map<?, ?>) storage).get("local"), local);
+                copy(((Map<?, ?>) storage).get("session"), session);
+            }
+        } catch (WebDriverException e) {
+            LOG.debug("Could not capture web storage: {}", e.getMessage());
+        }
+        return new BrowserState(driver.getCurrentUrl(), driver.manage().getCookies(), local, session);
+    }
+
+    /**
+     * Opens the captured page with the captured state, replacing the
+     * driver's own cookies and web storage for that origin.
+     *
+     * @param driver the driver
+     */
+    void restore(WebDriver driver) {
+        // Cookies and storage can only be set for the origin the browser is on
+        DocumentTracker.of(driver).visit(url);
+        driver.get(url);
+        driver.manage().deleteAllCookies();
+        Date now = new Date();
+        for (Cookie cookie : cookies) {
+            if (cookie.getExpiry() == null || cookie.getExpiry().after(now)) {
+                driver.manage().addCookie(cookie);
+            }
+        }
+        if (!localStorage.isEmpty() || !sessionStorage.isEmpty()) {
+            ((JavascriptExecutor) driver).executeScript(RESTORE_STORAGE, localStorage, sessionStorage);
+        }
+        DocumentTracker.of(driver).invalidate();
+        driver.navigate().refresh();
+    }
+
+    /**
+     * Whether the state was captured longer ago than the TTL.
+     *
+     * @param ttl the time to live
+     * @return true if it expired
+     */
+    boolean isExpired(Duration ttl) {
+        return capturedAt.plus(ttl).isBefore(Instant.now());
+    }
+
+    /**
+     * Gets the URL of the page the state was captured on.
+     *
+     * @return the url
+     */
+    String getUrl() {
+        return url;
+    }
+
+    private static void copy(Object entries, Map<String, String> target) {
+        if (entries instanceof Map) {
+            ((Map<?, ?>) entries).forEach((key, value) -> target.put(String.valueOf(key), String.valueOf(value)));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package state;
+
+import config.Configuration;
+import config.Settings;
+import instrumentation.Metrics;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JVM-wide cache of browser state captured after named setup flows, such as
+ * accepting a consent dialog or logging in. The first test to need a
+ * scenario runs its setup flow and captures the state; later tests on the
+ * same browser preset and base URL get it restored in one step. Tests needing a scenario
+ * while its setup is running wait for it instead of running it again.
+ */
+public final class BrowserStateCache {
+    private static final Logger LOG = LoggerFactory.getLogger(BrowserStateCache.class);
+    private static final BrowserStateCache INSTANCE = new BrowserStateCache();
+
+    private final ConcurrentMap<Key, CompletableFuture<BrowserState>> states = new ConcurrentHashMap<>();
+
+    private BrowserStateCache() {
+    }
+
+    /**
+     * Gets the JVM-wide cache.
+     *
+     * @return the cache
+     */
+    public static BrowserStateCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Puts the browser in the state a setup flow leads to: restores it if it
+     * was captured within config.state-cache.ttl, otherwise runs the setup
+     * flow on the driver and captures the state it ends in.
+     *
+     * @param driver   the driver
+     * @param scenario the scenario name, unique per setup flow
+     * @param setup    the setup flow, driving the browser through the UI
+     */
+    public void apply(WebDriver driver, String scenario, Runnable setup) {
+        Settings settings = Configuration.getSettings();
+        Key key = new Key(settings.getPresetName(), settings.getBaseUrl(), scenario);
+        while (true) {
+            CompletableFuture<BrowserState> pending = new CompletableFuture<>();
+            CompletableFuture<BrowserState> cached = states.putIfAbsent(key, pending);
+            if (cached == null) {
+                capture(driver, key, scenario, setup, pending);
+                return;
+            }
+            BrowserState state;
+            try {
+                state = cached.join();
+            } catch (CompletionException e) {
+                // The owner's setup failed and it removed the entry; try again
+                continue;
+            }
+            if (state.isExpired(settings.getStateCacheTtl())) {
+                LOG.info("Browser state '{}' expired.", key);
+                states.remove(key, cached);
+                continue;
+            }
+            long start = Metrics.start();
+            try {
+                LOG.info("Restoring browser state '{}' on {}", key, state.getUrl());
+                state.restore(driver);
+            } finally {
+                Metrics.record("BrowserStateCache.restore", scenario, start);
+            }
+            return;
+        }
+    }
+
+    /**
+     * Discards the captured state of a scenario on every preset and base
+     * URL, e.g. after the test data behind it changed.
+     *
+     * @param scenario the scenario name
+     */
+    public void invalidate(String scenario) {
+        states.keySet().removeIf(key -> key.scenario.equals(scenario));
+    }
+
+    private void capture(WebDriver driver, Key key, String scenario, Runnable setup,
+                         CompletableFuture<BrowserState> pending) {
+        long start = Metrics.start();
+        try {
+            LOG.info("Running setup for browser state '{}'.", key);
+            setup.run();
+            pending.complete(BrowserState.capture(driver));
+        } catch (RuntimeException | Error e) {
+            states.remove(key, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            Metrics.record("BrowserStateCache.setup", scenario, start);
+        }
+    }
+
+    /**
+     * What a captured state belongs to: the same scenario sets different
+     * cookies and storage on different presets and sites.
+     */
+    private static final class Key {
+        private final String preset;
+        private final String baseUrl;
+        private final String scenario;
+
+        private Key(String preset, String baseUrl, String scenario) {
+            this.preset = preset;
+            this.baseUrl = baseUrl;
+            this.scenario = scenario;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return preset.equals(key.preset) && Objects.equals(baseUrl, key.baseUrl)
+                    && scenario.equals(key.scenario);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(preset, baseUrl, scenario);
+        }
+
+        @Override
+        public String toString() {
+            return preset + " " + baseUrl + " " + scenario;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package state;
+
+import config.Configuration;
+import fakebrowser.FakeWebDriver;
+import fakebrowser.Fixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BrowserStateCacheTest {
+    private final BrowserStateCache cache = BrowserStateCache.getInstance();
+    private final AtomicInteger setups = new AtomicInteger();
+
+    @AfterEach
+    void clearOverrides() {
+        Configuration.clearOverrides();
+    }
+
+    @Test
+    @DisplayName("Setup runs once and later sessions get its state restored")
+    void restoresCapturedState() {
+        apply(newDriver(), "BrowserStateCacheTest.consent");
+        WebDriver next = newDriver();
+
+        apply(next, "BrowserStateCacheTest.consent");
+
+        assertThat(setups).hasValue(1);
+        assertThat(next.getCurrentUrl()).isEqualTo("https://www.google.com/");
+        assertThat(next.manage().getCookieNamed("consent").getValue()).isEqualTo("yes");
+    }
+
+    @Test
+    @DisplayName("Expired or invalidated state is set up again")
+    void expiresAndInvalidates() {
+        Configuration.applyOverrides(Collections.singletonMap("state-cache.ttl", "0ms"));
+        apply(newDriver(), "BrowserStateCacheTest.expiring");
+        apply(newDriver(), "BrowserStateCacheTest.expiring");
+        Configuration.clearOverrides();
+
+        apply(newDriver(), "BrowserStateCacheTest.invalidated");
+        cache.invalidate("BrowserStateCacheTest.invalidated");
+        apply(newDriver(), "BrowserStateCacheTest.invalidated");
+
+        assertThat(setups).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("A failed setup is not cached")
+    void failedSetupIsRetried() {
+        assertThatThrownBy(() -> cache.apply(newDriver(), "BrowserStateCacheTest.failing", () -> {
+            setups.incrementAndGet();
+            throw new IllegalStateException("consent dialog missing");
+        })).hasMessage("consent dialog missing");
+
+        apply(newDriver(), "BrowserStateCacheTest.failing");
+
+        assertThat(setups).hasValue(2);
+    }
+
+    private WebDriver newDriver() {
+        return new FakeWebDriver(Fixtures.fromClasspath("fixtures/google"));
+    }
+
+    private void apply(WebDriver driver, String scenario) {
+        cache.apply(driver, scenario, () -> {
+            setups.incrementAndGet();
+            driver.get("https://www.google.com/");
+            driver.manage().addCookie(new Cookie("consent", "yes"));
+        });
+    }
+}
@@ -1,25 +1,44 @@
 package tests;
 
+import artifacts.FailureArtifacts;
+import config.BrowserPreset;
+import config.ConfigOverride;
 import config.Configuration;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import config.DriverProvisioner;
+import config.Settings;
+import config.WebDriverPool;
+import instrumentation.Metrics;
+import instrumentation.PerformanceBudget;
+import logging.TestLogs;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pageobjects.utility.BrowserUtil;
 import pageobjects.utility.ElementUtil;
+import state.BrowserStateCache;
 
-public class BaseTest {
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+@ExtendWith({TestLogs.class, FailureArtifacts.class})
+public class BaseTest implements WrapsDriver {
     private static final Logger LOG = LoggerFactory.getLogger(BaseTest.class);
     protected final SoftAssertions softly = new SoftAssertions();
+    protected final PerformanceBudget budget = new PerformanceBudget(softly);
     protected ElementUtil element;
     protected BrowserUtil browser;
     protected WebDriver driver;
-    private WebDriverManager wdm;
 
     /**
      * Before test class.
@@ -38,17 +57,109 @@ public class BaseTest {
     synchronized void beforeTest(TestInfo testInfo) {
         String testName = testInfo.getDisplayName().replace("()", "");
         LOG.info("Test starting: {}", testName);
-        wdm = Configuration.getWebDriverManager();
-        driver = wdm.create();
+        Metrics.setCurrentTest(getMetricsName(testInfo));
+        Configuration.applyOverrides(getBrowserPreset(testInfo), getConfigOverrides(testInfo));
+        Settings settings = Configuration.getSettings();
+        driver = WebDriverPool.getInstance().lease(settings.getSessionKey(),
+                () -> DriverProvisioner.getInstance().create(settings));
         element = new ElementUtil(driver);
         browser = new BrowserUtil(driver);
     }
 
     /**
      * After each test.
+     *
+     * @param testInfo the test info
      */
     @AfterEach
-    synchronized void afterTest() {
-        wdm.quit();
+    synchronized void afterTest(TestInfo testInfo) {
+        try {
+            // No session if leasing one failed
+            if (driver != null) {
+                WebDriverPool.getInstance().release(driver);
+            }
+        } finally {
+            Configuration.clearOverrides();
+            Metrics.setCurrentTest(null);
+        }
+    }
+
+    /**
+     * Puts the browser in the state a setup flow leads to, restoring cookies
+     * and web storage captured by an earlier test instead of replaying the
+     * flow when possible.
+     *
+     * @param scenario the scenario name, unique per setup flow
+     * @param setup    the setup flow
+     */
+    protected void withState(String scenario, Runnable setup) {
+        BrowserStateCache.getInstance().apply(driver, scenario, setup);
+    }
+
+    @Override
+    public WebDriver getWrappedDriver() {
+        return driver;
+    }
+
+    /**
+     * Gets the browser preset for the test: from {@link BrowserPreset} on the
+     * method or class, otherwise from the first of its tags, in name order,
+     * that config.tag-presets maps.
+     *
+     * @param testInfo the test info
+     * @return the preset path relative to "config", or null for the
+     *         selected preset
+     */
+    private static String getBrowserPreset(TestInfo testInfo) {
+        Optional<BrowserPreset> annotated = testInfo.getTestMethod()
+                .map(testMethod -> testMethod.getAnnotation(BrowserPreset.class));
+        if (!annotated.isPresent()) {
+            annotated = testInfo.getTestClass().map(testClass -> testClass.getAnnotation(BrowserPreset.class));
+        }
+        if (annotated.isPresent()) {
+            return annotated.get().value();
+        }
+        Map<String, String> tagPresets = Configuration.getSettings().getTagPresets();
+        return new TreeSet<>(testInfo.getTags()).stream()
+                .filter(tagPresets::containsKey)
+                .map(tagPresets::get)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Gets the name latencies and page timings of the test are recorded
+     * under: class and method, plus the display name when it tells
+     * invocations of the same method apart.
+     *
+     * @param testInfo the test info
+     * @return the test name, unique within the run
+     */
+    private static String getMetricsName(TestInfo testInfo) {
+        String method = testInfo.getTestMethod().map(Method::getName).orElse(null);
+        String name = testInfo.getTestClass().map(Class::getSimpleName).orElse("")
+                + (method == null ? "" : "." + method);
+        String displayName = testInfo.getDisplayName();
+        return displayName.equals(method + "()") ? name : name + " " + displayName;
+    }
+
+    /**
+     * Collects {@link ConfigOverride} values from the test class and method,
+     * method values taking precedence.
+     *
+     * @param testInfo the test info
+     * @return the overrides keyed by config path
+     */
+    private static Map<String, String> getConfigOverrides(TestInfo testInfo) {
+        Map<String, String> overrides = new LinkedHashMap<>();
+        testInfo.getTestClass().ifPresent(testClass -> collectOverrides(testClass, overrides));
+        testInfo.getTestMethod().ifPresent(testMethod -> collectOverrides(testMethod, overrides));
+        return overrides;
+    }
+
+    private static void collectOverrides(AnnotatedElement annotated, Map<String, String> overrides) {
+        for (ConfigOverride override : annotated.getAnnotationsByType(ConfigOverride.class)) {
+            overrides.put(override.path(), override.value());
+        }
     }
 }
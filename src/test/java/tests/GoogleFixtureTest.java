@@ -0,0 +1,78 @@
+package tests;
+
+import config.BrowserPreset;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import pageobjects.GoogleHomePage;
+import pageobjects.GoogleSearchResultsPage;
+import pageobjects.utility.DomSnapshot;
+
+/**
+ * Runs the Google page objects against the HTML fixtures of the fake
+ * browser, so they are checked without a browser or network.
+ */
+@BrowserPreset("L4")
+class GoogleFixtureTest extends BaseTest {
+
+    @Test
+    @DisplayName("Home page shows the search box and buttons")
+    void homePage() {
+        new GoogleHomePage(driver).visit();
+
+        softly.assertThat(driver.getTitle()).isEqualTo("Google");
+        softly.assertThat(element.isVisible(By.cssSelector("input[title='Search']"))).isTrue();
+        softly.assertThat(element.isVisible(By.cssSelector(".UUbT9 input[value='Google Search']"))).isTrue();
+        softly.assertThat(element.snapshot().isVisible(By.name("source"))).isFalse();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Search submits the term and lands on the results page")
+    void search() {
+        GoogleSearchResultsPage resultsPage = new GoogleHomePage(driver).visit().googleSearch("anagram");
+
+        softly.assertThat(browser.getCurrentUrl()).contains("/search?", "q=anagram", "btnK=Google+Search")
+                .doesNotContain("btnI");
+        softly.assertThat(resultsPage.getDidYouMeanText()).isEqualTo("Did you mean: nag a ram");
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Results page can be read from one snapshot")
+    void resultsSnapshot() {
+        new GoogleHomePage(driver).visit().googleSearch("anagram");
+
+        DomSnapshot snapshot = element.snapshot();
+        softly.assertThat(snapshot.getAttribute(By.name("q"), "value")).isEqualTo("anagram");
+        softly.assertThat(snapshot.getTexts(By.cssSelector("#search .g a"))).containsExactly("Anagram - Wikipedia");
+        softly.assertThat(snapshot.isVisible(By.cssSelector("p.card-section"))).isTrue();
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Did you mean link runs the suggested search")
+    void didYouMeanLink() {
+        new GoogleHomePage(driver).visit().googleSearch("anagram");
+
+        element.click(By.linkText("nag a ram"));
+        GoogleSearchResultsPage suggestedPage = new GoogleSearchResultsPage(driver);
+
+        softly.assertThat(browser.getCurrentUrl()).contains("q=nag+a+ram");
+        softly.assertThat(suggestedPage.getDidYouMeanText()).contains("Did you mean:");
+        softly.assertAll();
+    }
+
+    @Test
+    @DisplayName("Typed text replaces the search box value")
+    void clearAndType() {
+        new GoogleHomePage(driver).visit();
+        By searchInput = By.cssSelector("input[title='Search']");
+
+        element.sendKeys(searchInput, "first");
+        element.clearAndSendKeys(searchInput, "second");
+
+        softly.assertThat(element.getValue(searchInput)).isEqualTo("second");
+        softly.assertAll();
+    }
+}